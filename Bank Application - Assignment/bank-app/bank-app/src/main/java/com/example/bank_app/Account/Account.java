@@ -1,26 +1,45 @@
 package com.example.bank_app.Account;
+import com.example.bank_app.Config.EntityCacheConfiguration;
+import com.example.bank_app.Persistence.EntityIdAllocator;
 import com.example.bank_app.User.User;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.TableGenerator;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Getter
 @Setter
 @Entity(name = "account")
+@EntityListeners(AccountDirectoryListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfiguration.ACCOUNT_REGION)
+@NaturalIdCache(region = EntityCacheConfiguration.ACCOUNT_NUMBER_REGION)
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_id")
+    @TableGenerator(name = "account_id", table = EntityIdAllocator.TABLE, pkColumnName = EntityIdAllocator.NAME_COLUMN,
+            valueColumnName = EntityIdAllocator.VALUE_COLUMN, pkColumnValue = "account",
+            allocationSize = EntityIdAllocator.ALLOCATION_SIZE)
     private Long id;
 
+    @NaturalId
     private String accountNumber;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -34,10 +53,16 @@ public class Account {
     public Account() {
 
     }
+    /**
+     * Copies {@code other}, loading it first if it is an unfetched reference. Outside a session that throws
+     * {@link org.hibernate.LazyInitializationException} rather than returning a copy with only the id set. The user is
+     * carried over as it is and only loaded when read.
+     */
     public Account(Account other) {
-        this.id = other.id;
-        this.accountNumber = other.accountNumber;
-        this.user = other.user != null ? new User(other.user) : null;
+        Account source = (Account) Hibernate.unproxy(other);
+        this.id = source.id;
+        this.accountNumber = source.accountNumber;
+        this.user = source.user;
     }
 }
 
@@ -25,8 +25,8 @@ public class AccountController {
 
     @PreAuthorize("hasAnyAuthority('ADMIN')")
     @GetMapping("/accounts")
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        List<Account> accounts = accountService.getAllAccounts();
+    public ResponseEntity<List<AccountView>> getAllAccounts() {
+        List<AccountView> accounts = accountService.getAllAccounts();
         if (accounts.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
@@ -0,0 +1,210 @@
+package com.example.bank_app.Account;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves account numbers to account ids in memory, so a transfer to an unknown receiver is rejected without a
+ * database round trip and a known receiver costs none either. The bulk of the directory is an
+ * {@link AccountNumberIndex} rebuilt from the account table in the background. Accounts created or deleted since then
+ * are kept in a small change map, filled after commit by {@link AccountDirectoryListener} and by a frequent scan of the
+ * {@code account_change} log for changes made on other instances.
+ *
+ * <p>Account ids come from pooled blocks, so a scan of the account table by id would miss an account created from an
+ * older block on another instance. The log is written in the transaction that creates or deletes the account and has
+ * an identity key, so the scan can follow it like {@link com.example.bank_app.Security.TokenRevocationList} follows
+ * revocations. Only until the first rebuild, and for numbers the index cannot encode, do lookups go to the database.
+ */
+@Component
+public class AccountDirectory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccountDirectory.class);
+    private static final String LOOKUPS = "account.directory.lookups";
+
+    private final AccountJdbcRepository accountJdbcRepository;
+    private final AccountRepository accountRepository;
+    private final Map<Long, Change> changes = new ConcurrentHashMap<>();
+    private final Counter found;
+    private final Counter absent;
+    private final Counter mistyped;
+    private final Counter databaseLookups;
+    private final long refreshOverlap;
+    private final Duration changeRetention;
+    private volatile AccountNumberIndex index;
+    private volatile long highestId;
+
+    /**
+     * A create or delete not yet folded into the index. Of two changes to the same number the one with the higher
+     * account id wins, and a delete wins over a create of the same account.
+     */
+    private record Change(long accountId, boolean removed, long changedAt) {
+
+        Change newer(Change other) {
+            if (other.accountId != accountId) {
+                return other.accountId > accountId ? other : this;
+            }
+            return other.removed ? other : this;
+        }
+    }
+
+    @Autowired
+    public AccountDirectory(AccountJdbcRepository accountJdbcRepository, AccountRepository accountRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${account-directory.refresh-overlap:1000}") long refreshOverlap,
+                            @Value("${account-directory.change-retention:P1D}") Duration changeRetention) {
+        this.accountJdbcRepository = accountJdbcRepository;
+        this.refreshOverlap = refreshOverlap;
+        this.changeRetention = changeRetention;
+        this.accountRepository = accountRepository;
+        this.found = meterRegistry.counter(LOOKUPS, "result", "found");
+        this.absent = meterRegistry.counter(LOOKUPS, "result", "absent");
+        this.mistyped = meterRegistry.counter(LOOKUPS, "result", "mistyped");
+        this.databaseLookups = meterRegistry.counter(LOOKUPS, "result", "database");
+        Gauge.builder("account.directory.size", this, AccountDirectory::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the id of the account with the given number, or null when there is none. A number failing its check
+     * digit is turned down before any lookup, and once the directory is loaded any other unknown number is too.
+     */
+    public Long findAccountId(String accountNumber) {
+        if (AccountNumberAllocator.isMistyped(accountNumber)) {
+            mistyped.increment();
+            return null;
+        }
+        AccountNumberIndex current = index;
+        long key = AccountNumberIndex.encode(accountNumber);
+        if (current == null || key == AccountNumberIndex.NOT_ENCODABLE) {
+            databaseLookups.increment();
+            Account account = accountRepository.findByAccountNumber(accountNumber);
+            return account != null ? account.getId() : null;
+        }
+        Change change = changes.get(key);
+        if (change != null && change.removed()) {
+            absent.increment();
+            return null;
+        }
+        long accountId = change != null ? change.accountId() : current.get(key);
+        if (accountId == AccountNumberIndex.MISSING) {
+            absent.increment();
+            return null;
+        }
+        found.increment();
+        return accountId;
+    }
+
+    /**
+     * Returns whether the directory has been loaded and answers lookups from memory.
+     */
+    public boolean isLoaded() {
+        return index != null;
+    }
+
+    public long size() {
+        AccountNumberIndex current = index;
+        return (current != null ? current.size() : 0) + changes.size();
+    }
+
+    /**
+     * Logs accounts created outside JPA, such as by a bulk import, for the other instances. Call it in the transaction
+     * that inserts them, and {@link #added} for each once that has committed.
+     */
+    public void publishCreated(List<Account> accounts) {
+        accountJdbcRepository.insertChanges(accounts, false);
+    }
+
+    void publish(Account account, boolean removed) {
+        accountJdbcRepository.insertChanges(List.of(account), removed);
+    }
+
+    /**
+     * Records an account created outside JPA, such as by a bulk import. Call it after the insert has committed.
+     */
+    public void added(long accountId, String accountNumber) {
+        record(accountNumber, new Change(accountId, false, System.nanoTime()));
+    }
+
+    void removed(long accountId, String accountNumber) {
+        record(accountNumber, new Change(accountId, true, System.nanoTime()));
+    }
+
+    private void record(String accountNumber, Change change) {
+        long key = AccountNumberIndex.encode(accountNumber);
+        if (key != AccountNumberIndex.NOT_ENCODABLE) {
+            changes.merge(key, change, Change::newer);
+        }
+    }
+
+    /**
+     * Reloads every account into a fresh index and drops the changes it now covers. Changes made after the scan
+     * started are kept, since the scan may not have seen them. Log rows older than {@code change-retention} are
+     * deleted first; every instance has long since scanned them.
+     */
+    @Scheduled(fixedDelayString = "${account-directory.rebuild-interval:PT1H}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        int purged = accountJdbcRepository.deleteChangesBefore(LocalDateTime.now().minus(changeRetention));
+        long highestChange = accountJdbcRepository.highestChangeId();
+        AccountNumberIndex.Builder builder = new AccountNumberIndex.Builder(accountJdbcRepository.countAccounts());
+        Map<Long, Change> wideIds = new ConcurrentHashMap<>();
+        accountJdbcRepository.loadAccounts(0L, (id, accountNumber) -> {
+            long key = AccountNumberIndex.encode(accountNumber);
+            if (key == AccountNumberIndex.NOT_ENCODABLE) {
+                return;
+            }
+            if (id > Integer.MAX_VALUE) {
+                wideIds.put(key, new Change(id, false, started));
+            } else {
+                builder.add(key, id.intValue());
+            }
+        });
+        AccountNumberIndex next = builder.build();
+
+        index = next;
+        highestId = Math.max(highestId, highestChange);
+        changes.entrySet().removeIf(entry -> entry.getValue().changedAt() < started
+                || next.get(entry.getKey()) > entry.getValue().accountId());
+        wideIds.forEach((key, change) -> changes.merge(key, change, Change::newer));
+        LOGGER.info("Account directory loaded {} accounts and purged {} logged changes in {} ms",
+                next.size() + wideIds.size(), purged, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Picks up accounts created or deleted on other instances since the last scan. Log ids are assigned at insert but
+     * become visible at commit, so the scan starts {@code refresh-overlap} ids below the highest id seen. Rows are
+     * applied in id order, so of two rows for the same account read again the later one still wins.
+     */
+    @Scheduled(fixedDelayString = "${account-directory.refresh-interval:PT5S}")
+    public void refresh() {
+        AccountNumberIndex current = index;
+        if (current == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        AtomicLong highest = new AtomicLong(highestId);
+        accountJdbcRepository.loadChanges(Math.max(0L, highest.get() - refreshOverlap), change -> {
+            highest.accumulateAndGet(change.id(), Math::max);
+            long key = AccountNumberIndex.encode(change.accountNumber());
+            boolean indexed = key != AccountNumberIndex.NOT_ENCODABLE && current.get(key) == change.accountId();
+            if (change.removed() ? indexed || changes.containsKey(key) : !indexed) {
+                record(change.accountNumber(), new Change(change.accountId(), change.removed(), started));
+            }
+        });
+        highestId = Math.max(highestId, highest.get());
+    }
+}
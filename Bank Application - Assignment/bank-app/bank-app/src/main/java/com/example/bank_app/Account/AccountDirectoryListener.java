@@ -0,0 +1,56 @@
+package com.example.bank_app.Account;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the {@link AccountDirectory} in step with accounts created and deleted through JPA. Each change is logged for
+ * the other instances in the same transaction, and applied to this instance's directory after it commits, so a
+ * rollback never leaves a directory disagreeing with the table. Bulk deletes bypass this listener and are picked up by
+ * the next rebuild.
+ */
+@Component
+public class AccountDirectoryListener {
+
+    // looked up lazily: the directory depends on the account repository, which is built after entity listeners
+    private final ObjectProvider<AccountDirectory> accountDirectory;
+
+    @Autowired
+    public AccountDirectoryListener(ObjectProvider<AccountDirectory> accountDirectory) {
+        this.accountDirectory = accountDirectory;
+    }
+
+    @PostPersist
+    public void postPersist(Account account) {
+        long accountId = account.getId();
+        String accountNumber = account.getAccountNumber();
+        accountDirectory.getObject().publish(new Account(account), false);
+        afterCommit(() -> accountDirectory.getObject().added(accountId, accountNumber));
+    }
+
+    @PostRemove
+    public void postRemove(Account account) {
+        long accountId = account.getId();
+        String accountNumber = account.getAccountNumber();
+        accountDirectory.getObject().publish(new Account(account), true);
+        afterCommit(() -> accountDirectory.getObject().removed(accountId, accountNumber));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
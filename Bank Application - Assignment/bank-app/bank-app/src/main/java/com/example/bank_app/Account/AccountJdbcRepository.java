@@ -0,0 +1,93 @@
+package com.example.bank_app.Account;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+@Repository
+public class AccountJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A row of the account change log: an account created, or removed when {@code removed} is set.
+     */
+    public record AccountChange(long id, long accountId, String accountNumber, boolean removed) {
+    }
+
+    @Autowired
+    public AccountJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long countAccounts() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Streams the id and number of every account with an id above {@code afterId}.
+     */
+    public void loadAccounts(long afterId, BiConsumer<Long, String> consumer) {
+        jdbcTemplate.query("SELECT id, account_number FROM account WHERE id > ?",
+                rs -> {
+                    consumer.accept(rs.getLong("id"), rs.getString("account_number"));
+                }, afterId);
+    }
+
+    /**
+     * Appends the creation or removal of the accounts to the change log read by other instances' directories.
+     */
+    public void insertChanges(List<Account> accounts, boolean removed) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO account_change (account_id, account_number, removed, changed_at) VALUES (?, ?, ?, ?)",
+                accounts, accounts.size(), (ps, account) -> {
+                    int column = 1;
+                    ps.setLong(column++, account.getId());
+                    ps.setString(column++, account.getAccountNumber());
+                    ps.setBoolean(column++, removed);
+                    ps.setTimestamp(column, now);
+                });
+    }
+
+    /**
+     * Streams every change logged with a row id above {@code afterId}, in id order.
+     */
+    public void loadChanges(long afterId, Consumer<AccountChange> consumer) {
+        jdbcTemplate.query("SELECT id, account_id, account_number, removed FROM account_change WHERE id > ? ORDER BY id",
+                rs -> {
+                    consumer.accept(new AccountChange(rs.getLong("id"), rs.getLong("account_id"),
+                            rs.getString("account_number"), rs.getBoolean("removed")));
+                }, afterId);
+    }
+
+    public long highestChangeId() {
+        Long highest = jdbcTemplate.queryForObject("SELECT MAX(id) FROM account_change", Long.class);
+        return highest != null ? highest : 0L;
+    }
+
+    public int deleteChangesBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM account_change WHERE changed_at < ?", Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * Reserves {@code size} consecutive account number serials and returns the first. Run it in a transaction of its
+     * own, so the row lock is released as soon as the block is taken.
+     */
+    public long leaseNumberBlock(int size) {
+        Long next = jdbcTemplate.queryForObject(
+                "SELECT next_value FROM account_number_sequence WHERE id = 1 FOR UPDATE", Long.class);
+        jdbcTemplate.update("UPDATE account_number_sequence SET next_value = next_value + ? WHERE id = 1", size);
+        if (next == null) {
+            throw new IllegalStateException("Account number sequence is not initialised");
+        }
+        return next;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bank_app.Account;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out account numbers without a database round trip per account. Serials are leased from the
+ * {@code account_number_sequence} table in blocks, in a transaction of their own so a rolled back caller cannot hand
+ * the same block out twice, and are then given out from memory with an atomic counter. Only the thread that finds the
+ * block exhausted waits for the next lease. Serials left in a block at shutdown are skipped, never reused.
+ *
+ * <p>A number is the ten-digit serial followed by a Luhn check digit. Numbers issued before this allocator are ten
+ * characters long, so every eleven-digit number can be checked, and a mistyped one rejected before any lookup.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    public static final int LENGTH = 11;
+
+    private static final long SERIAL_LIMIT = 10_000_000_000L;
+    private static final int DECIMAL = 10;
+    private static final int MAX_DIGIT = 9;
+
+    private final AccountJdbcRepository accountJdbcRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final int blockSize;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private volatile Block block = new Block(new AtomicLong(), 0L);
+
+    private record Block(AtomicLong next, long end) {
+    }
+
+    @Autowired
+    public AccountNumberAllocator(AccountJdbcRepository accountJdbcRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${accounts.numbers.block-size:100}") int blockSize) {
+        this.accountJdbcRepository = accountJdbcRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public String next() {
+        Block current = block;
+        long serial = current.next().getAndIncrement();
+        while (serial >= current.end()) {
+            current = lease(current);
+            serial = current.next().getAndIncrement();
+        }
+        if (serial >= SERIAL_LIMIT) {
+            throw new IllegalStateException("Account number serials are exhausted");
+        }
+        return String.valueOf(serial) + checkDigit(serial);
+    }
+
+    /**
+     * Returns true for an eleven-digit number whose check digit does not match. Numbers in any other format predate
+     * the check digit and are never reported as mistyped.
+     */
+    public static boolean isMistyped(String accountNumber) {
+        if (accountNumber.length() != LENGTH) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = accountNumber.charAt(LENGTH - 1 - i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            sum += luhnWeight(c - '0', i % 2 == 1);
+        }
+        return sum % DECIMAL != 0;
+    }
+
+    static int checkDigit(long serial) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = serial; rest > 0; rest /= DECIMAL) {
+            sum += luhnWeight((int) (rest % DECIMAL), doubled);
+            doubled = !doubled;
+        }
+        return (DECIMAL - sum % DECIMAL) % DECIMAL;
+    }
+
+    private static int luhnWeight(int digit, boolean doubled) {
+        if (!doubled) {
+            return digit;
+        }
+        int twice = digit * 2;
+        return twice > MAX_DIGIT ? twice - MAX_DIGIT : twice;
+    }
+
+    private Block lease(Block exhausted) {
+        leaseLock.lock();
+        try {
+            if (block == exhausted) {
+                Long first = leaseTransaction.execute(status -> accountJdbcRepository.leaseNumberBlock(blockSize));
+                block = new Block(new AtomicLong(first), first + blockSize);
+            }
+            return block;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+}
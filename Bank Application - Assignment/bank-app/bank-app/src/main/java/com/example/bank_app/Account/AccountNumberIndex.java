@@ -0,0 +1,208 @@
+package com.example.bank_app.Account;
+
+import java.util.Arrays;
+
+/**
+ * Immutable index from account number to account id held in two sorted primitive arrays, eight bytes per key and four
+ * per id, so fifty million accounts take about 600 MB. A blocked Bloom filter of ten bits per key sits in front of the
+ * binary search; each key maps to one 512-bit block, so an unknown number is usually rejected after reading a single
+ * cache line.
+ *
+ * <p>Numbers of up to eleven digits or lower-case letters are packed into a long; other numbers are not encodable and
+ * must be resolved elsewhere.
+ */
+final class AccountNumberIndex {
+
+    static final long NOT_ENCODABLE = -1L;
+    static final long MISSING = -1L;
+
+    private static final int RADIX = 36;
+    private static final int DECIMAL_DIGITS = 10;
+    private static final int MAX_ENCODED_LENGTH = 11;
+    private static final int LENGTH_BITS = 4;
+    private static final int BITS_PER_KEY = 10;
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * Long.SIZE;
+    private static final int PROBES = 7;
+    private static final int PROBE_BITS = 9;
+    private static final int PROBE_MASK = BLOCK_BITS - 1;
+    private static final int WORD_SHIFT = 6;
+    private static final int MIX_SHIFT = 33;
+    private static final long MIX_MULTIPLIER_1 = 0xFF51AFD7ED558CCDL;
+    private static final long MIX_MULTIPLIER_2 = 0xC4CEB9FE1A85EC53L;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final long[] keys;
+    private final int[] ids;
+    private final int size;
+    private final long[] filter;
+    private final int blocks;
+
+    private AccountNumberIndex(long[] keys, int[] ids, int size) {
+        this.keys = keys;
+        this.ids = ids;
+        this.size = size;
+        this.blocks = Math.max(1, (int) (((long) size * BITS_PER_KEY + BLOCK_BITS - 1) / BLOCK_BITS));
+        this.filter = new long[blocks * BLOCK_WORDS];
+        for (int i = 0; i < size; i++) {
+            addToFilter(keys[i]);
+        }
+    }
+
+    /**
+     * Packs an account number into a non-negative long, keeping the length so that numbers differing only in leading
+     * zeros stay distinct. Returns {@link #NOT_ENCODABLE} when the number is too long or has other characters.
+     */
+    static long encode(String accountNumber) {
+        int length = accountNumber.length();
+        if (length == 0 || length > MAX_ENCODED_LENGTH) {
+            return NOT_ENCODABLE;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = accountNumber.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'z') {
+                digit = c - 'a' + DECIMAL_DIGITS;
+            } else {
+                return NOT_ENCODABLE;
+            }
+            value = value * RADIX + digit;
+        }
+        return value << LENGTH_BITS | length;
+    }
+
+    /**
+     * Returns the account id stored for the encoded number, or {@link #MISSING}.
+     */
+    long get(long key) {
+        if (!mightContain(key)) {
+            return MISSING;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else if (keys[mid] > key) {
+                high = mid - 1;
+            } else {
+                return ids[mid];
+            }
+        }
+        return MISSING;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private boolean mightContain(long key) {
+        long hash = mix(key);
+        int base = blockOf(hash);
+        long probes = mix(hash);
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (int) (probes >>> (i * PROBE_BITS)) & PROBE_MASK;
+            if ((filter[base + (bit >>> WORD_SHIFT)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addToFilter(long key) {
+        long hash = mix(key);
+        int base = blockOf(hash);
+        long probes = mix(hash);
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (int) (probes >>> (i * PROBE_BITS)) & PROBE_MASK;
+            filter[base + (bit >>> WORD_SHIFT)] |= 1L << bit;
+        }
+    }
+
+    private int blockOf(long hash) {
+        return (int) (((hash >>> Integer.SIZE) * blocks) >>> Integer.SIZE) * BLOCK_WORDS;
+    }
+
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_2;
+        return hash ^ hash >>> MIX_SHIFT;
+    }
+
+    /**
+     * Collects entries in load order and sorts them in place when the index is built, so a full load needs no second
+     * copy of the arrays when the expected size was right.
+     */
+    static final class Builder {
+
+        private long[] keys;
+        private int[] ids;
+        private int size;
+
+        Builder(long expectedSize) {
+            int capacity = (int) Math.min(Math.max(expectedSize, INITIAL_CAPACITY), MAX_CAPACITY);
+            keys = new long[capacity];
+            ids = new int[capacity];
+        }
+
+        void add(long key, int id) {
+            if (size == keys.length) {
+                int capacity = keys.length + (keys.length >> 1);
+                keys = Arrays.copyOf(keys, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            keys[size] = key;
+            ids[size] = id;
+            size++;
+        }
+
+        AccountNumberIndex build() {
+            sort();
+            return new AccountNumberIndex(keys, ids, size);
+        }
+
+        // heap sort of the two arrays together: in place, so it needs no extra memory at fifty million entries
+        private void sort() {
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i, size);
+            }
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private void siftDown(int root, int end) {
+            int parent = root;
+            int child = 2 * parent + 1;
+            while (child < end) {
+                if (child + 1 < end && keys[child + 1] > keys[child]) {
+                    child++;
+                }
+                if (keys[parent] >= keys[child]) {
+                    return;
+                }
+                swap(parent, child);
+                parent = child;
+                child = 2 * parent + 1;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+    }
+}
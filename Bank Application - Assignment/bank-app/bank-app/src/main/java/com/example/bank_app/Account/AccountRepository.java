@@ -1,13 +1,35 @@
 package com.example.bank_app.Account;
 
 import com.example.bank_app.User.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    Account findByAccountNumber(String accountNumber);
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
+
+    @EntityGraph(attributePaths = "user")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Account findByUserId(Long userId);
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Account> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Account> findById(Long id);
+
     @Query("SELECT a.user FROM account a WHERE a.accountNumber = :accountNumber")
     User findUserByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT new com.example.bank_app.Account.AccountView(a.id, a.accountNumber, u.id, u.username) "
+            + "FROM account a LEFT JOIN a.user u ORDER BY a.id")
+    List<AccountView> findAllViews();
 }
@@ -0,0 +1,10 @@
+package com.example.bank_app.Account;
+
+public interface AccountRepositoryCustom {
+
+    /**
+     * Resolves an account by its number through the natural-id cache, so a repeated lookup is answered without a
+     * query once the account is cached. Returns null when no account has the number.
+     */
+    Account findByAccountNumber(String accountNumber);
+}
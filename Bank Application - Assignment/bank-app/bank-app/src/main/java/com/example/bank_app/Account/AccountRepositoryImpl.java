@@ -0,0 +1,18 @@
+package com.example.bank_app.Account;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+
+public class AccountRepositoryImpl implements AccountRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Account findByAccountNumber(String accountNumber) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Account.class).load(accountNumber);
+    }
+}
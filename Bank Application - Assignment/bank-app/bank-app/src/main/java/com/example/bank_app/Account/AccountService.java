@@ -30,8 +30,8 @@ public class AccountService {
         this.transactionRepository = transactionRepository;
     }
 
-    public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
+    public List<AccountView> getAllAccounts() {
+        return accountRepository.findAllViews();
     }
 
 //    public List<Account> getAllAccountsV2(int page, int size) {
@@ -40,11 +40,26 @@ public class AccountService {
 //    }
 
 
+    @Transactional
     public Account getAccountById(Long id) {
-        return accountRepository.findById(id).orElse(null);
+        return withUser(accountRepository.findById(id).orElse(null));
     }
+
+    @Transactional
     public Account getAccountByUserId(Long userId) {
-        return accountRepository.findByUserId(userId);
+        return withUser(accountRepository.findByUserId(userId));
+    }
+
+    /**
+     * Loads the user while the session is open. An account read from the second-level cache comes without it, whatever
+     * the entity graph asks for, and the response reads it after the session has closed. Users are cached too, so this
+     * rarely costs a statement.
+     */
+    private static Account withUser(Account account) {
+        if (account != null) {
+            account.getUser();
+        }
+        return account;
     }
 
     public Account saveAccount(Account account) {
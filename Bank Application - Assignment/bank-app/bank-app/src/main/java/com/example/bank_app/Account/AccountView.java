@@ -0,0 +1,8 @@
+package com.example.bank_app.Account;
+
+/**
+ * Flat read-only view of an account and the username of its holder, selected column by column instead of loading the
+ * account and user entities.
+ */
+public record AccountView(Long id, String accountNumber, Long userId, String username) {
+}
@@ -1,17 +1,18 @@
 package com.example.bank_app.Authentication;
 
-import com.example.bank_app.Security.JwtUtil;
-import com.example.bank_app.User.CustomUserDetailsService;
-import com.example.bank_app.User.UserRepository;
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountRepository;
+import com.example.bank_app.Security.RefreshTokenService;
+import com.example.bank_app.User.User;
+import com.example.bank_app.exceptionhandling.InvalidRefreshTokenException;
+import com.example.bank_app.exceptionhandling.LoginRejectedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,40 +25,56 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthController.class);
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
+    private static final String RETRY_AFTER_SECONDS = "1";
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private LoginService loginService;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private RefreshTokenService refreshTokenService;
 
     @Autowired
-    private UserRepository userRepository;
+    private AccountRepository accountRepository;
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody AuthenticationRequest request) {
         try {
             LOGGER.info("Attempting to authenticate user: {}", request.getUsername());
 
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
-
-            final UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-            final String jwt = jwtUtil.generateToken(userDetails.getUsername());
+            User user = loginService.authenticate(request.getUsername(), request.getPassword());
+            Account account = accountRepository.findByUserId(user.getId());
+            RefreshTokenService.IssuedTokens tokens =
+                    refreshTokenService.issue(user, account != null ? account.getId() : null);
 
             LOGGER.info("Authentication successful for user: {}", request.getUsername());
 
-            return ResponseEntity.ok(new AuthenticationResponse(jwt, userRepository.findByUsername(request.getUsername())));
+            return ResponseEntity.ok(new AuthenticationResponse(tokens.accessToken(), tokens.refreshToken(), user));
 
         } catch (BadCredentialsException e) {
-            LOGGER.error("Authentication failed for user: {}", request.getUsername(), e);
+            LOGGER.warn("Authentication failed for user: {}", request.getUsername());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Incorrect username or password");
 
+        } catch (LoginRejectedException e) {
+            LOGGER.warn("Login rejected for user: {}: {}", request.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(e.getMessage());
+
         } catch (Exception e) {
             LOGGER.error("An unexpected error occurred during authentication: {}", request.getUsername(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred");
         }
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        try {
+            RefreshTokenService.IssuedTokens tokens = refreshTokenService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(new RefreshResponse(tokens.accessToken(), tokens.refreshToken()));
+
+        } catch (InvalidRefreshTokenException e) {
+            LOGGER.warn("Token refresh failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
 }
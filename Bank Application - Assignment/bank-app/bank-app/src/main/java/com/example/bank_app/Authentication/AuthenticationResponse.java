@@ -7,12 +7,14 @@ import lombok.Setter;
 @Getter
 @Setter
 public class AuthenticationResponse {
-    public AuthenticationResponse(String token, User user) {
+    public AuthenticationResponse(String token, String refreshToken, User user) {
         this.token = token;
+        this.refreshToken = refreshToken;
         this.user = new User(user); // Defensive copy of the User object
     }
 
     private String token;
+    private String refreshToken;
     private User user;
 
     public User getUser() {
@@ -0,0 +1,23 @@
+package com.example.bank_app.Authentication;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.login")
+public class LoginProperties {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+    private static final long DEFAULT_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Threads verifying passwords; zero means half of the available cores, and at least one.
+     */
+    private int threads;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private Duration timeout = Duration.ofSeconds(DEFAULT_TIMEOUT_SECONDS);
+}
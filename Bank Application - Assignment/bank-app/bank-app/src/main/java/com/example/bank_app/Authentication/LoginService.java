@@ -0,0 +1,165 @@
+package com.example.bank_app.Authentication;
+
+import com.example.bank_app.User.User;
+import com.example.bank_app.User.UserRepository;
+import com.example.bank_app.exceptionhandling.LoginRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks login credentials with a single user lookup and verifies the password on a small pool of its own, so a burst
+ * of logins cannot take the CPU from request threads serving transfers. The pool has a bounded queue; once it is full
+ * a login is turned down at once with {@link LoginRejectedException} rather than waiting behind the others.
+ *
+ * <p>An unknown username is checked against a dummy hash, so it takes as long as a wrong password. Login latency is
+ * published as the {@code auth.login} timer, tagged by result, the time spent queued as {@code auth.login.queue.wait},
+ * and the queue depth and busy threads as the {@code auth.login.queue.size} and {@code auth.login.active} gauges.
+ *
+ * <p>When the password matches a hash of a lower cost or another algorithm than the encoder now uses, it is hashed again
+ * on the same pool and stored, counted as {@code auth.login.rehash}; a failure to store it does not fail the login.
+ */
+@Service
+@EnableConfigurationProperties(LoginProperties.class)
+public class LoginService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginService.class);
+    private static final String LATENCY = "auth.login";
+    private static final long STOP_TIMEOUT_SECONDS = 5;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final String userNotFoundHash;
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Timer rejected;
+    private final Timer queueWait;
+    private final Counter rehashed;
+
+    /**
+     * Whether the password matched and, when its hash is outdated, the new hash to store.
+     */
+    private record Verification(boolean matches, String upgradedHash) {
+    }
+
+    @Autowired
+    public LoginService(UserRepository userRepository, PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                        LoginProperties properties, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        int threads = properties.getThreads() > 0
+                ? properties.getThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofPlatform().name("login-verify-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutNanos = properties.getTimeout().toNanos();
+        this.userNotFoundHash = passwordEncoder.encode("userNotFoundPassword");
+        this.succeeded = meterRegistry.timer(LATENCY, "result", "success");
+        this.failed = meterRegistry.timer(LATENCY, "result", "failure");
+        this.rejected = meterRegistry.timer(LATENCY, "result", "rejected");
+        this.queueWait = meterRegistry.timer("auth.login.queue.wait");
+        this.rehashed = meterRegistry.counter("auth.login.rehash");
+        Gauge.builder("auth.login.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.login.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the user when the password matches. Throws {@link BadCredentialsException} when the username or password
+     * is wrong, and {@link LoginRejectedException} when too many logins are already waiting.
+     */
+    public User authenticate(String username, String password) {
+        long started = System.nanoTime();
+        User user = username != null ? userRepository.findCurrentByUsername(username) : null;
+        String hash = user != null && user.getPassword() != null ? user.getPassword() : userNotFoundHash;
+
+        Future<Verification> verification;
+        try {
+            verification = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return verify(password, hash, user != null);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw new LoginRejectedException("Too many logins in progress, try again shortly");
+        }
+
+        Verification result = await(verification, started);
+        if (!result.matches() || user == null) {
+            failed.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw new BadCredentialsException("Incorrect username or password");
+        }
+        if (result.upgradedHash() != null) {
+            rehash(user, result.upgradedHash());
+        }
+        succeeded.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return user;
+    }
+
+    private Verification verify(String password, String hash, boolean knownUser) {
+        boolean matches = password != null && passwordEncoder.matches(password, hash);
+        String upgradedHash = matches && knownUser && passwordEncoder.upgradeEncoding(hash)
+                ? passwordEncoder.encode(password)
+                : null;
+        return new Verification(matches, upgradedHash);
+    }
+
+    // the conditional update only replaces the hash that was verified, so a password changed meanwhile is left alone
+    private void rehash(User user, String upgradedHash) {
+        try {
+            Integer updated = transactionTemplate.execute(status ->
+                    userRepository.replacePassword(user, upgradedHash));
+            if (updated != null && updated > 0) {
+                rehashed.increment();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not store the rehashed password of user: {}", user.getUsername(), e);
+        }
+    }
+
+    private Verification await(Future<Verification> verification, long started) {
+        try {
+            return verification.get(timeoutNanos - (System.nanoTime() - started), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            verification.cancel(true);
+            rejected.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw new LoginRejectedException("Login timed out waiting for verification, try again shortly");
+        } catch (InterruptedException e) {
+            verification.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying the password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bank_app.Authentication;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefreshRequest {
+    private String refreshToken;
+}
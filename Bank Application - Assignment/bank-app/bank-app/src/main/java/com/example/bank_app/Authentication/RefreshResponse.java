@@ -0,0 +1,15 @@
+package com.example.bank_app.Authentication;
+
+import lombok.Getter;
+
+@Getter
+public class RefreshResponse {
+
+    private final String token;
+    private final String refreshToken;
+
+    public RefreshResponse(String token, String refreshToken) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
+}
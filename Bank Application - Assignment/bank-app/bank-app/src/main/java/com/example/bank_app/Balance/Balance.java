@@ -1,12 +1,15 @@
 package com.example.bank_app.Balance;
 
 import com.example.bank_app.Account.Account;
+import com.example.bank_app.Persistence.EntityIdAllocator;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.TableGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -20,14 +23,17 @@ import java.math.BigDecimal;
 public class Balance {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "balance_id")
+    @TableGenerator(name = "balance_id", table = EntityIdAllocator.TABLE, pkColumnName = EntityIdAllocator.NAME_COLUMN,
+            valueColumnName = EntityIdAllocator.VALUE_COLUMN, pkColumnValue = "balance",
+            allocationSize = EntityIdAllocator.ALLOCATION_SIZE)
     private Long id;
 
 //    private LocalDateTime date;
 
     private BigDecimal amount;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
 
@@ -0,0 +1,11 @@
+package com.example.bank_app.Balance;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of an account at {@code asOf}, taken from the last posting at or before that time.
+ */
+public record BalanceAsOf(Long accountId, LocalDateTime asOf, BigDecimal amount, Long transactionId,
+                          LocalDateTime postedAt) {
+}
@@ -1,9 +1,12 @@
 package com.example.bank_app.Balance;
+import com.example.bank_app.Ledger.LedgerSnapshotService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -11,24 +14,31 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/v2")
 public class BalanceController {
 
+    private static final int DEFAULT_HISTORY_DAYS = 30;
+
     private final BalanceService balanceService;
+    private final LedgerSnapshotService ledgerSnapshotService;
 
     @Autowired
-    public BalanceController(BalanceService balanceService) {
+    public BalanceController(BalanceService balanceService, LedgerSnapshotService ledgerSnapshotService) {
         this.balanceService = Objects.requireNonNull(balanceService, "BalanceService must not be null");
+        this.ledgerSnapshotService = Objects.requireNonNull(ledgerSnapshotService,
+                "LedgerSnapshotService must not be null");
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN')")
     @GetMapping("/balances")
-    public ResponseEntity<List<Balance>> getAllBalances() {
-        List<Balance> balances = balanceService.getAllBalances();
+    public ResponseEntity<List<BalanceView>> getAllBalances() {
+        List<BalanceView> balances = balanceService.getAllBalances();
         if (balances.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
@@ -54,6 +64,25 @@ public class BalanceController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @GetMapping(value = "/accounts/{accountId}/balances", params = "asOf")
+    public ResponseEntity<BalanceAsOf> getBalanceAsOf(@PathVariable Long accountId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime asOf) {
+        return ResponseEntity.ok(balanceService.getBalanceAsOf(accountId, asOf));
+    }
+
+    @GetMapping("/accounts/{accountId}/balances/history")
+    public ResponseEntity<List<BalanceHistoryPoint>> getBalanceHistory(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int points) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(DEFAULT_HISTORY_DAYS);
+        return ResponseEntity.ok(balanceService.getBalanceHistory(accountId, start, end, points));
+    }
+
 //    @PostMapping("/balances")
 //    public ResponseEntity<Balance> createBalance(@RequestBody Balance balance) {
 //        Balance createdBalance = balanceService.saveBalance(balance);
@@ -62,16 +91,23 @@ public class BalanceController {
 
     @PutMapping("/balances/{id}")
     public ResponseEntity<Balance> updateBalance(@PathVariable Long id, @RequestBody Balance balance) {
-        Balance existingBalance = balanceService.getBalanceById(id);
-        if (existingBalance != null) {
-            balance.setId(id);
-            Balance updatedBalance = balanceService.saveBalance(balance);
+        if (balance.getAmount() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Balance updatedBalance = balanceService.adjustBalance(id, balance.getAmount());
+        if (updatedBalance != null) {
             return ResponseEntity.ok(updatedBalance);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping("/balances/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildBalances() {
+        return ResponseEntity.ok(Map.of("corrected", ledgerSnapshotService.rebuildBalances()));
+    }
+
     @DeleteMapping("/balances/{id}")
     public ResponseEntity<Void> deleteBalance(@PathVariable Long id) {
         Balance existingBalance = balanceService.getBalanceById(id);
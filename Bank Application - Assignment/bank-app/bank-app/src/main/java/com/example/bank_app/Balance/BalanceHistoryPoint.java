@@ -0,0 +1,11 @@
+package com.example.bank_app.Balance;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One bucket of a downsampled balance series: the closing balance plus the extremes reached inside the bucket, so
+ * short-lived spikes stay visible on a chart.
+ */
+public record BalanceHistoryPoint(LocalDateTime time, BigDecimal close, BigDecimal min, BigDecimal max) {
+}
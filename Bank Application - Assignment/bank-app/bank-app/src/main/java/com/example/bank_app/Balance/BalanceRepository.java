@@ -2,10 +2,56 @@ package com.example.bank_app.Balance;
 
 
 import com.example.bank_app.Account.Account;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 
 public interface BalanceRepository extends JpaRepository<Balance, Long> {
     Balance findByAccount(Account account);
+
+    @EntityGraph(attributePaths = {"account", "account.user"})
     Balance findByAccountId(Long accountId);
 
+    @Override
+    @EntityGraph(attributePaths = "account")
+    List<Balance> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"account", "account.user"})
+    Optional<Balance> findById(Long id);
+
+    boolean existsByAccountId(Long accountId);
+
+    @Query("SELECT new com.example.bank_app.Balance.BalanceView(b.id, b.amount, a.id, a.accountNumber) "
+            + "FROM balance b JOIN b.account a ORDER BY b.id")
+    List<BalanceView> findAllViews();
+
+    @Query("SELECT b.amount FROM balance b WHERE b.account.id = :accountId")
+    BigDecimal findAmountByAccountId(@Param("accountId") Long accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"account", "account.user"})
+    @Query("SELECT b FROM balance b WHERE b.id = :id")
+    Optional<Balance> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Subtracts {@code amount} only if the balance covers it. Returns 0 when the funds are insufficient or the account
+     * has no balance row.
+     */
+    @Modifying
+    @Query("UPDATE balance b SET b.amount = b.amount - :amount WHERE b.account.id = :accountId AND b.amount >= :amount")
+    int debit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE balance b SET b.amount = b.amount + :amount WHERE b.account.id = :accountId")
+    int credit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
 }
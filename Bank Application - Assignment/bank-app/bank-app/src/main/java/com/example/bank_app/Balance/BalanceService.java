@@ -1,23 +1,49 @@
 package com.example.bank_app.Balance;
+import com.example.bank_app.Ledger.LedgerEventRepository;
+import com.example.bank_app.Transaction.BalanceSample;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionRepository;
+import com.example.bank_app.exceptionhandling.AccountNotFoundException;
+import com.example.bank_app.exceptionhandling.InvalidPageRequestException;
+import com.example.bank_app.exceptionhandling.LedgerUnavailableException;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class BalanceService {
 
+    private static final int MAX_HISTORY_POINTS = 1000;
+    private static final String ADJUSTMENT_DESCRIPTION = "Balance adjustment";
+
     private final BalanceRepository balanceRepository;
+    private final LedgerEventRepository ledgerEventRepository;
+    private final TransactionRepository transactionRepository;
+    private final boolean ledgerEngineEnabled;
 
     @Autowired
-    public BalanceService(BalanceRepository balanceRepository) {
+    public BalanceService(BalanceRepository balanceRepository, LedgerEventRepository ledgerEventRepository,
+                          TransactionRepository transactionRepository,
+                          @Value("${ledger.engine.enabled:false}") boolean ledgerEngineEnabled) {
         this.balanceRepository = balanceRepository;
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerEngineEnabled = ledgerEngineEnabled;
     }
 
-    public List<Balance> getAllBalances() {
-        return balanceRepository.findAll();
+    public List<BalanceView> getAllBalances() {
+        return balanceRepository.findAllViews();
     }
 
 //    public List<Balance> getAllBalancesV2(int page, int size) {
@@ -32,10 +58,98 @@ public class BalanceService {
     public Balance getBalanceByAccountId(Long accountId) {
         return balanceRepository.findByAccountId(accountId);
     }
+
+    /**
+     * Reads the balance from the latest posting at or before {@code asOf}. With the ledger engine enabled, postings not
+     * yet flushed are not seen; see {@link com.example.bank_app.Ledger.LedgerEngine}.
+     */
+    public BalanceAsOf getBalanceAsOf(Long accountId, LocalDateTime asOf) {
+        BalanceSample sample = transactionRepository.findBalanceAsOf(accountId, asOf)
+                .filter(found -> found.balanceAfter() != null)
+                .orElseThrow(() -> new AccountNotFoundException("No balance recorded for the account at the given time"));
+        return new BalanceAsOf(accountId, asOf, sample.balanceAfter(), sample.transactionId(), sample.date());
+    }
+
+    /**
+     * Splits {@code [from, to)} into {@code points} equal buckets and reports the closing, lowest and highest balance
+     * of each, carrying the balance forward through buckets without postings. Buckets before the account's first
+     * posting are left out. The postings in the range are read once, in index order.
+     */
+    @Transactional
+    public List<BalanceHistoryPoint> getBalanceHistory(Long accountId, LocalDateTime from, LocalDateTime to, int points) {
+        if (!from.isBefore(to)) {
+            throw new InvalidPageRequestException("'from' must be before 'to'");
+        }
+        if (points < 1 || points > MAX_HISTORY_POINTS) {
+            throw new InvalidPageRequestException("'points' must be between 1 and " + MAX_HISTORY_POINTS);
+        }
+        long bucketNanos = Math.max(Duration.between(from, to).toNanos() / points, 1L);
+        BigDecimal close = transactionRepository.findBalanceAsOf(accountId, from)
+                .map(BalanceSample::balanceAfter)
+                .orElse(null);
+
+        List<BalanceHistoryPoint> history = new ArrayList<>(points);
+        try (Stream<BalanceSample> samples = transactionRepository.streamBalances(accountId, from, to)) {
+            Iterator<BalanceSample> iterator = samples.iterator();
+            BalanceSample next = iterator.hasNext() ? iterator.next() : null;
+            for (int i = 0; i < points; i++) {
+                LocalDateTime start = from.plusNanos(bucketNanos * i);
+                LocalDateTime end = i == points - 1 ? to : start.plusNanos(bucketNanos);
+                BigDecimal min = close;
+                BigDecimal max = close;
+                while (next != null && next.date().isBefore(end)) {
+                    close = next.balanceAfter();
+                    min = min == null || close.compareTo(min) < 0 ? close : min;
+                    max = max == null || close.compareTo(max) > 0 ? close : max;
+                    next = iterator.hasNext() ? iterator.next() : null;
+                }
+                if (close != null) {
+                    history.add(new BalanceHistoryPoint(start, close, min, max));
+                }
+            }
+        }
+        return history;
+    }
+
     public Balance saveBalance(Balance balance) {
         return balanceRepository.save(balance);
     }
 
+    /**
+     * Sets the balance to {@code amount} and records the difference as a transaction row and an adjustment event, so
+     * the change shows up in the balance history and can be replayed like any posting. Returns null when the balance
+     * does not exist. The row names the account itself as the receiver, since the column is required and an
+     * adjustment has no counterparty. Refused while the ledger engine is enabled, because the engine checks transfers
+     * against balances it keeps in memory and would not see the change.
+     */
+    @Transactional
+    public Balance adjustBalance(Long id, BigDecimal amount) {
+        if (ledgerEngineEnabled) {
+            throw new LedgerUnavailableException("Balances cannot be adjusted while the ledger engine is enabled");
+        }
+        Balance balance = balanceRepository.findByIdForUpdate(id).orElse(null);
+        if (balance == null) {
+            return null;
+        }
+        BigDecimal delta = amount.subtract(balance.getAmount());
+        if (delta.signum() != 0) {
+            balance.setAmount(amount);
+            balanceRepository.save(balance);
+
+            Transaction adjustment = new Transaction();
+            adjustment.setAccount(balance.getAccount());
+            adjustment.setReceiverAccountNumber(balance.getAccount().getAccountNumber());
+            adjustment.setAmount(delta.abs());
+            adjustment.setIndicator(delta.signum() < 0 ? "DB" : "CR");
+            adjustment.setDescription(ADJUSTMENT_DESCRIPTION);
+            adjustment.setDate(LocalDateTime.now());
+            adjustment.setBalanceAfter(amount);
+            adjustment = transactionRepository.save(adjustment);
+            ledgerEventRepository.appendAdjustment(adjustment.getAccount().getId(), delta, adjustment.getId());
+        }
+        return balance;
+    }
+
     public void deleteBalance(Long id) {
         balanceRepository.deleteById(id);
     }
@@ -0,0 +1,10 @@
+package com.example.bank_app.Balance;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat read-only view of a balance row and its account number, selected column by column instead of loading the
+ * balance, account and user entities.
+ */
+public record BalanceView(Long id, BigDecimal amount, Long accountId, String accountNumber) {
+}
@@ -5,8 +5,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 
-@SpringBootApplication
+// passwords are only checked by LoginService; without this Boot would add an in-memory user with a generated password
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
 public class BankAppApplication {
     private static final Logger LOGGER = LoggerFactory.getLogger(BankAppApplication.class);
 
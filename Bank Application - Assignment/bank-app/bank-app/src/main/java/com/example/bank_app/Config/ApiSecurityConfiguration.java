@@ -1,25 +1,27 @@
 package com.example.bank_app.Config;
 
 
+import com.example.bank_app.Idempotency.IdempotencyService;
+import com.example.bank_app.Security.AdaptivePasswordEncoder;
 import com.example.bank_app.Security.JwtAuthenticationEntryPoint;
-import com.example.bank_app.User.CustomUserDetailsService;
+import com.example.bank_app.Security.PasswordHashingProperties;
 import com.example.bank_app.Security.JwtRequestFilter;
+import com.example.bank_app.Security.TokenRevokingLogoutHandler;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -30,7 +32,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 
-@EnableConfigurationProperties(value = {ApiProperties.class})
+@EnableConfigurationProperties(value = {ApiProperties.class, PasswordHashingProperties.class})
 @EnableMethodSecurity
 @Configuration
 public class ApiSecurityConfiguration {
@@ -42,10 +44,10 @@ public class ApiSecurityConfiguration {
     private ApiProperties props;
 
     @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+    private JwtRequestFilter jwtRequestFilter;
 
     @Autowired
-    private JwtRequestFilter jwtRequestFilter;
+    private TokenRevokingLogoutHandler tokenRevokingLogoutHandler;
 
     @Bean
     public WebSecurityCustomizer webSecurityCustomizer() {
@@ -57,22 +59,9 @@ public class ApiSecurityConfiguration {
     }
 
     @Bean
-    public DaoAuthenticationProvider daoAuthenticationProvider() {
-        DaoAuthenticationProvider provider =
-                new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(passwordEncoder());
-        provider.setUserDetailsService(customUserDetailsService);
-        return provider;
-    }
-
-    @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
-        return authConfig.getAuthenticationManager();
-    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties passwordHashingProperties,
+                                           MeterRegistry meterRegistry) {
+        return new AdaptivePasswordEncoder(passwordHashingProperties, meterRegistry);
     }
 
     @Bean
@@ -80,9 +69,10 @@ public class ApiSecurityConfiguration {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type"));
+        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", IdempotencyService.HEADER));
         configuration.setAllowCredentials(true);
         configuration.addExposedHeader("Authorization");
+        configuration.addExposedHeader(IdempotencyService.REPLAYED_HEADER);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -97,12 +87,15 @@ public class ApiSecurityConfiguration {
                         .requestMatchers(HttpMethod.POST, "/api/v2/auth/**").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/swagger-ui/**", "/v3/api-docs", "/swagger-ui/swagger-config.json").permitAll()
                         //.requestMatchers(HttpMethod.GET, "/api/users/**").hasAnyAuthority("ADMIN")
+                        // meters and pinning stack frames describe the internals, so only health is open to every user
+                        .requestMatchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class)).hasAuthority("ADMIN")
                         .anyRequest().authenticated())
                 .exceptionHandling(handling -> {
                     handling.authenticationEntryPoint(new JwtAuthenticationEntryPoint());
                 })
                 .sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .logout(logout -> logout
+                        .addLogoutHandler(tokenRevokingLogoutHandler)
                         .logoutSuccessHandler((request, response, authentication) -> response.setStatus(HttpServletResponse.SC_OK)));
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
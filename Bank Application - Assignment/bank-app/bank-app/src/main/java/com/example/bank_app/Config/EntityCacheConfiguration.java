@@ -0,0 +1,59 @@
+package com.example.bank_app.Config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache for accounts and users. Hibernate uses an in-process Caffeine JCache manager created here, one per
+ * application context, so that contexts pointing at different databases never share entries. Every region is declared
+ * up front and bounded; Hibernate fails on startup if an entity names a region that is missing.
+ *
+ * <p>Hit and miss counts per region come from Hibernate statistics and are published by Spring Boot as the
+ * {@code hibernate.second.level.cache.*} and {@code hibernate.cache.natural.id.*} meters.
+ */
+@Configuration
+public class EntityCacheConfiguration {
+
+    public static final String ACCOUNT_REGION = "account";
+    public static final String ACCOUNT_NUMBER_REGION = "account-number";
+    public static final String USER_REGION = "user";
+    public static final String USERNAME_REGION = "username";
+
+    private static final List<String> ENTITY_REGIONS = List.of(ACCOUNT_REGION, ACCOUNT_NUMBER_REGION, USER_REGION,
+            USERNAME_REGION, "default-query-results-region");
+    private static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${entity-cache.max-size:10000}") long maxSize,
+                                           @Value("${entity-cache.ttl:1h}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : ENTITY_REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        // update timestamps must outlive every cached query result, so this region is neither bounded nor expired
+        cacheManager.createCache(TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bank_app.Diagnostics;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Pinning seen at one code location: how often a virtual thread was pinned there, for how long in total and at most,
+ * and the stack of the most recent occurrence.
+ */
+public record PinnedSite(String site, long count, Duration total, Duration max, Instant lastSeen, String lastStack) {
+
+    PinnedSite add(Duration duration, Instant time, String stack) {
+        return new PinnedSite(site, count + 1, total.plus(duration), duration.compareTo(max) > 0 ? duration : max,
+                time, stack);
+    }
+
+    static PinnedSite first(String site, Duration duration, Instant time, String stack) {
+        return new PinnedSite(site, 1, duration, duration, time, stack);
+    }
+}
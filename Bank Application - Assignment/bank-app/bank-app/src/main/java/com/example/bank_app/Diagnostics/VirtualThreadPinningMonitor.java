@@ -0,0 +1,121 @@
+package com.example.bank_app.Diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that were pinned to their carrier, which happens when a virtual thread blocks while holding
+ * a monitor ({@code synchronized}) or inside a native frame. Pinned threads keep a carrier busy, so a few hot pinning
+ * sites can cap throughput at the carrier count.
+ *
+ * <p>The monitor streams the JFR {@code jdk.VirtualThreadPinned} event for pins longer than
+ * {@code diagnostics.pinning.threshold} and groups them by the first frame outside the JDK, which is usually the JDBC
+ * driver, connection pool or log appender holding the monitor. Each site is logged once, recorded in the
+ * {@code jvm.threads.virtual.pinned} timer and listed by the {@code pinning} actuator endpoint. It is only active when
+ * {@code spring.threads.virtual.enabled} is set.
+ */
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String OTHER_SITE = "other";
+    private static final int MAX_SITES = 100;
+    private static final int MAX_STACK_FRAMES = 20;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${diagnostics.pinning.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        LOGGER.info("Reporting virtual thread pinning longer than {}", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    /**
+     * Lists the pinning sites seen since startup, longest total pinned time first.
+     */
+    @ReadOperation
+    public List<PinnedSite> pinnedSites() {
+        return sites.values().stream()
+                .sorted(Comparator.comparing(PinnedSite::total).reversed())
+                .toList();
+    }
+
+    void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String site = frames.stream()
+                .filter(frame -> frame.isJavaFrame() && !isJdkFrame(frame))
+                .findFirst()
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElse(OTHER_SITE);
+        if (!sites.containsKey(site) && sites.size() >= MAX_SITES) {
+            site = OTHER_SITE;
+        }
+        String stack = frames.stream()
+                .limit(MAX_STACK_FRAMES)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n"));
+        Duration duration = event.getDuration();
+        // the timer is recorded first, so a site listed by the endpoint always has its timer
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(duration);
+        PinnedSite updated = sites.merge(site, PinnedSite.first(site, duration, event.getStartTime(), stack),
+                (current, first) -> current.add(duration, first.lastSeen(), stack));
+        if (updated.count() == 1) {
+            LOGGER.warn("Virtual thread pinned to its carrier for {} ms at {}:\n{}", duration.toMillis(), site, stack);
+        }
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bank_app.Idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity(name = "idempotency_key")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_key_username_key",
+        columnNames = {"username", "idempotency_key"}))
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String requestHash;
+
+    private Integer responseStatus;
+
+    @Lob
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
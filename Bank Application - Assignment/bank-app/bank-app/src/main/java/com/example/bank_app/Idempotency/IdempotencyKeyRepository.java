@@ -0,0 +1,16 @@
+package com.example.bank_app.Idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    IdempotencyKey findByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM idempotency_key k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
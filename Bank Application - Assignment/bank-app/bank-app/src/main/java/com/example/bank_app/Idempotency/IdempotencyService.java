@@ -0,0 +1,155 @@
+package com.example.bank_app.Idempotency;
+
+import com.example.bank_app.exceptionhandling.IdempotencyKeyReuseException;
+import com.example.bank_app.exceptionhandling.InvalidIdempotencyKeyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per (user, Idempotency-Key). The key row is inserted in the same database transaction as
+ * the work it guards, so a concurrent retry blocks on the unique constraint and then replays the committed response.
+ * Recently completed keys are also held in a bounded in-memory cache so retry storms are answered without a query.
+ * Only successful responses are remembered; a rejected request changed nothing and runs again on retry.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CompletedRequest> recentKeys;
+    private final Duration retention;
+
+    @Autowired
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.cache.max-size:10000}") long cacheMaxSize,
+                              @Value("${idempotency.cache.ttl:10m}") Duration cacheTtl,
+                              @Value("${idempotency.retention:24h}") Duration retention) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.retention = retention;
+    }
+
+    public ResponseEntity<?> execute(String username, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        String cacheKey = username.length() + ":" + username + key;
+
+        CompletedRequest completed = recentKeys.getIfPresent(cacheKey);
+        if (completed == null) {
+            completed = findCompleted(username, key);
+        }
+        if (completed != null) {
+            recentKeys.put(cacheKey, completed);
+            return replay(completed, requestHash);
+        }
+
+        IdempotencyKey record = new IdempotencyKey();
+        record.setUsername(username);
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setCreatedAt(LocalDateTime.now());
+        ResponseEntity<?> response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                idempotencyKeyRepository.saveAndFlush(record);
+                ResponseEntity<?> result = action.get();
+                if (!result.getStatusCode().is2xxSuccessful()) {
+                    status.setRollbackOnly();
+                    return result;
+                }
+                record.setResponseStatus(result.getStatusCode().value());
+                record.setResponseBody(toJson(result.getBody()));
+                return result;
+            });
+        } catch (DataIntegrityViolationException e) {
+            completed = findCompleted(username, key);
+            if (completed == null) {
+                throw e;
+            }
+            recentKeys.put(cacheKey, completed);
+            return replay(completed, requestHash);
+        }
+
+        if (record.getResponseStatus() != null) {
+            recentKeys.put(cacheKey, new CompletedRequest(requestHash, record.getResponseStatus(), record.getResponseBody()));
+        }
+        return response;
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT1H}")
+    public void purgeExpiredKeys() {
+        idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private CompletedRequest findCompleted(String username, String key) {
+        IdempotencyKey stored = idempotencyKeyRepository.findByUsernameAndIdempotencyKey(username, key);
+        if (stored == null || stored.getResponseStatus() == null) {
+            return null;
+        }
+        return new CompletedRequest(stored.getRequestHash(), stored.getResponseStatus(), stored.getResponseBody());
+    }
+
+    private ResponseEntity<?> replay(CompletedRequest completed, String requestHash) {
+        if (!completed.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key was already used for a different request");
+        }
+        return ResponseEntity.status(completed.status())
+                .header(REPLAYED_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(completed.body());
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response", e);
+        }
+    }
+
+    private record CompletedRequest(String requestHash, int status, String body) {
+    }
+}
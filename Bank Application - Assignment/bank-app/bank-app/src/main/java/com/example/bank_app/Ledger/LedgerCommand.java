@@ -0,0 +1,19 @@
+package com.example.bank_app.Ledger;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A transfer waiting in a shard's ring buffer, completed once its record is journaled or it is rejected.
+ */
+@Getter
+final class LedgerCommand {
+
+    private final LedgerPosting posting;
+    private final CompletableFuture<LedgerRecord> result = new CompletableFuture<>();
+
+    LedgerCommand(LedgerPosting posting) {
+        this.posting = posting;
+    }
+}
@@ -0,0 +1,496 @@
+package com.example.bank_app.Ledger;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountDirectory;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionJdbcRepository;
+import com.example.bank_app.exceptionhandling.AccountNotFoundException;
+import com.example.bank_app.exceptionhandling.InvalidTransactionAmountException;
+import com.example.bank_app.exceptionhandling.LedgerUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory ledger, enabled with {@code ledger.engine.enabled}. Balances live in memory, sharded by account id,
+ * and each shard has a single writer thread fed by a lock-free ring buffer. A transfer is acknowledged once its record
+ * is in the shard journal; the {@code balance} and {@code transaction} tables are brought up to date by a scheduled
+ * batch flush that also stores a per-shard checkpoint. On startup the engine loads balances from the database and
+ * replays journal records after the checkpoint.
+ *
+ * <p>While enabled, the engine owns balances: other writers of the {@code balance} table are not seen until restart,
+ * and database reads lag by up to one flush interval. A transfer that times out may still be posted, so clients should
+ * retry with an Idempotency-Key.
+ *
+ * <p>Every balance change draws a ticket, a strictly increasing microsecond timestamp, on the shard that owns the
+ * account, and the row is dated with it. A flush writes the records of all shards in one database transaction, in ticket
+ * order, and stops below the oldest change it cannot write yet. An account's rows therefore sort by (date, id) in the
+ * order its balance changed, and their {@code balance_after} is exact even when the credits come from several shards.
+ * A record whose rows the database rejects is moved to {@code ledger_dead_letter} rather than failing every later flush.
+ */
+@Service
+@ConditionalOnProperty(prefix = "ledger.engine", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(LedgerEngineProperties.class)
+public class LedgerEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerEngine.class);
+    private static final int MINOR_UNIT_SCALE = 2;
+    private static final long OFFER_RETRY_NANOS = 50_000L;
+    private static final String SHARD_DIRECTORY_PREFIX = "shard-";
+
+    private final LedgerEngineProperties properties;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final AccountDirectory accountDirectory;
+    private final LedgerEventRepository ledgerEventRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, String> accountNumbers = new ConcurrentHashMap<>();
+    private final Set<Long> balanceAccounts = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastTicket = new AtomicLong();
+    // a lock rather than synchronized, so a flush on a virtual-thread scheduler does not pin its carrier during JDBC
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+    private LedgerShard[] shards;
+    private volatile boolean accepting;
+
+    @Autowired
+    public LedgerEngine(LedgerEngineProperties properties, LedgerJdbcRepository ledgerJdbcRepository,
+                        AccountDirectory accountDirectory, LedgerEventRepository ledgerEventRepository,
+                        TransactionJdbcRepository transactionJdbcRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.accountDirectory = accountDirectory;
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        lifecycleLock.lock();
+        try {
+            open();
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        Path journalDir = Paths.get(properties.getJournalDir());
+        checkNoOrphanedShards(journalDir);
+
+        accountNumbers.clear();
+        balanceAccounts.clear();
+        ledgerJdbcRepository.loadAccounts(accountNumbers::put);
+
+        shards = new LedgerShard[properties.getShards()];
+        for (int i = 0; i < shards.length; i++) {
+            LedgerJournal journal = new LedgerJournal(journalDir.resolve(SHARD_DIRECTORY_PREFIX + i),
+                    properties.getSegmentBytes(), properties.isFsync());
+            shards[i] = new LedgerShard(i, this, journal, properties.getRingSize(), properties.getMaxBatch());
+        }
+        ledgerJdbcRepository.loadBalances((accountId, amount) -> {
+            balanceAccounts.add(accountId);
+            shardFor(accountId).load(accountId, toMinorUnits(amount));
+        });
+
+        Map<Integer, Long> checkpoints = ledgerJdbcRepository.loadCheckpoints();
+        int replayed = 0;
+        for (LedgerShard shard : shards) {
+            long checkpoint = checkpoints.getOrDefault(shard.getIndex(), 0L);
+            long lastSequence = shard.getJournal().replay(record -> {
+                lastTicket.accumulateAndGet(record.getSenderTicket(), Math::max);
+                if (record.getSequence() > checkpoint) {
+                    replay(shard, record);
+                }
+            });
+            shard.open(Math.max(lastSequence, checkpoint));
+            replayed += shard.unflushedCount();
+        }
+
+        for (LedgerShard shard : shards) {
+            shard.start();
+        }
+        accepting = true;
+        LOGGER.info("Ledger engine started with {} shards, {} balances and {} replayed journal records",
+                shards.length, balanceAccounts.size(), replayed);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        lifecycleLock.lock();
+        try {
+            close();
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    private void close() throws IOException, InterruptedException {
+        accepting = false;
+        for (LedgerShard shard : shards) {
+            shard.stop();
+        }
+        for (LedgerShard shard : shards) {
+            shard.applyCredits();
+        }
+        flush();
+        int unflushed = unflushedRecords();
+        for (LedgerShard shard : shards) {
+            shard.getJournal().close();
+        }
+        if (unflushed > 0) {
+            LOGGER.warn("Ledger engine stopped with {} unflushed records; they will be replayed from the journal", unflushed);
+        }
+    }
+
+    /**
+     * Posts a transfer that has already passed the checks of {@code TransactionService.saveTransaction}, and returns it
+     * once it is durable in the journal. The transaction id is assigned later, when the flush writes the row.
+     */
+    public Transaction post(Transaction transaction) {
+        long amount = toMinorUnits(transaction.getAmount());
+        Long accountId = transaction.getAccount().getId();
+        String senderAccountNumber = accountId != null ? accountNumber(accountId) : null;
+        if (senderAccountNumber == null) {
+            throw new AccountNotFoundException("Account not found");
+        }
+        if (!hasBalance(accountId)) {
+            throw new AccountNotFoundException("Balance not found for the account");
+        }
+        long receiverAccountId = LedgerPosting.NO_RECEIVER;
+        if (transaction.getReceiverAccountNumber() != null) {
+            Long receiverId = accountDirectory.findAccountId(transaction.getReceiverAccountNumber());
+            if (receiverId == null) {
+                throw new AccountNotFoundException("Receiver account not found");
+            }
+            if (!hasBalance(receiverId)) {
+                throw new AccountNotFoundException("Balance not found for the receiver account");
+            }
+            receiverAccountId = receiverId;
+        }
+
+        LedgerCommand command = new LedgerCommand(new LedgerPosting(null, accountId, receiverAccountId, amount,
+                "DB".equals(transaction.getIndicator()), transaction.getDescription(),
+                transaction.getReceiverAccountNumber(), senderAccountNumber));
+        long deadline = System.nanoTime() + properties.getPostTimeout().toNanos();
+        LedgerShard shard = shardFor(accountId);
+        while (!accepting || !shard.offer(command)) {
+            if (!accepting || System.nanoTime() > deadline) {
+                throw new LedgerUnavailableException("Ledger engine is busy");
+            }
+            LockSupport.parkNanos(OFFER_RETRY_NANOS);
+        }
+
+        LedgerRecord record = await(command, deadline);
+        transaction.setDate(record.getPosting().date());
+        return transaction;
+    }
+
+    /**
+     * Writes journaled records to the database in batches, together with each shard's checkpoint.
+     */
+    @Scheduled(fixedDelayString = "${ledger.engine.flush-interval:PT0.1S}")
+    public void flush() {
+        lifecycleLock.lock();
+        try {
+            while (flushBatch()) {
+                LOGGER.debug("Ledger has a flush backlog");
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ledger flush failed; retrying on the next run", e);
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of journaled records not yet written to the database.
+     */
+    public int unflushedRecords() {
+        int unflushed = 0;
+        for (LedgerShard shard : shards) {
+            unflushed += shard.unflushedCount();
+        }
+        return unflushed;
+    }
+
+    /**
+     * Returns a ticket higher than every one handed out before: the current time in microseconds, or one more than the
+     * last ticket when the clock has not moved on.
+     */
+    long nextTicket() {
+        long now = LedgerPosting.ticketOf(LocalDateTime.now());
+        return lastTicket.accumulateAndGet(now, (last, current) -> Math.max(last + 1, current));
+    }
+
+    long lastTicket() {
+        return lastTicket.get();
+    }
+
+    LedgerShard shardFor(long accountId) {
+        return shards[Math.floorMod(accountId, shards.length)];
+    }
+
+    Long loadBalance(long accountId) {
+        BigDecimal amount = ledgerJdbcRepository.findBalance(accountId);
+        return amount != null ? toMinorUnits(amount) : null;
+    }
+
+    /**
+     * Flushes the records of every shard whose changes all have a ticket up to a common cutoff, and returns whether a
+     * shard filled its batch. The cutoff starts below the tickets still being published and drops below the first
+     * record each shard has to hold back, so every change up to it is written now and every later one afterwards.
+     */
+    private boolean flushBatch() throws IOException {
+        int max = properties.getFlushBatchSize();
+        long cutoff = lastTicket.get();
+        for (LedgerShard shard : shards) {
+            cutoff = Math.min(cutoff, shard.getTicketFloor() - 1);
+        }
+        long previous;
+        do {
+            previous = cutoff;
+            for (LedgerShard shard : shards) {
+                cutoff = Math.min(cutoff, shard.firstHeldTicket(max, cutoff) - 1);
+            }
+        } while (cutoff != previous);
+
+        List<List<LedgerRecord>> batches = new ArrayList<>(shards.length);
+        boolean full = false;
+        boolean empty = true;
+        for (LedgerShard shard : shards) {
+            List<LedgerRecord> records = shard.pendingFlush(max, cutoff);
+            batches.add(records);
+            full |= records.size() == max;
+            empty &= records.isEmpty();
+        }
+        if (empty) {
+            return false;
+        }
+
+        try {
+            write(batches, Set.of());
+        } catch (DataIntegrityViolationException e) {
+            Set<LedgerRecord> rejected = findRejected(batches);
+            if (rejected.isEmpty()) {
+                throw e;
+            }
+            LOGGER.error("Quarantining {} ledger records the database rejects; their rows go to ledger_dead_letter",
+                    rejected.size(), e);
+            write(batches, rejected);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            List<LedgerRecord> records = batches.get(i);
+            if (!records.isEmpty()) {
+                shards[i].flushed(records.size());
+                shards[i].getJournal().deleteSegmentsUpTo(records.get(records.size() - 1).getSequence());
+            }
+        }
+        return full;
+    }
+
+    /**
+     * Writes the batches in one transaction. The rows of {@code rejected} records go to the dead-letter table instead
+     * of {@code transaction}; their balance changes and events are still written, since the engine has applied and
+     * acknowledged them, so balances keep matching memory and the event log.
+     */
+    private void write(List<List<LedgerRecord>> batches, Set<LedgerRecord> rejected) {
+        List<Transaction> rows = new ArrayList<>();
+        List<Transaction> accepted = new ArrayList<>();
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        for (List<LedgerRecord> records : batches) {
+            for (LedgerRecord record : records) {
+                List<Transaction> recordRows = rows(record);
+                rows.addAll(recordRows);
+                if (!rejected.contains(record)) {
+                    accepted.addAll(recordRows);
+                }
+                LedgerPosting posting = record.getPosting();
+                deltas.merge(posting.accountId(), toAmount(posting.senderDelta()), BigDecimal::add);
+                if (posting.hasReceiver()) {
+                    deltas.merge(posting.receiverAccountId(), toAmount(posting.amount()), BigDecimal::add);
+                }
+            }
+        }
+        // a stable sort, so a replayed credit dated like its debit stays after it
+        rows.sort(Comparator.comparing(Transaction::getDate));
+        accepted.sort(Comparator.comparing(Transaction::getDate));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, BigDecimal> running = transactionJdbcRepository.lockBalances(deltas.keySet());
+            for (Transaction row : rows) {
+                BigDecimal delta = "DB".equals(row.getIndicator()) ? row.getAmount().negate() : row.getAmount();
+                row.setBalanceAfter(running.computeIfPresent(row.getAccount().getId(), (id, amount) -> amount.add(delta)));
+            }
+            transactionJdbcRepository.insertTransactions(accepted);
+            ledgerEventRepository.appendPostings(rows);
+            ledgerJdbcRepository.applyBalanceDeltas(deltas);
+            for (int i = 0; i < shards.length; i++) {
+                List<LedgerRecord> records = batches.get(i);
+                if (records.isEmpty()) {
+                    continue;
+                }
+                List<LedgerRecord> deadLetters = records.stream().filter(rejected::contains).toList();
+                if (!deadLetters.isEmpty()) {
+                    ledgerJdbcRepository.insertDeadLetters(shards[i].getIndex(), deadLetters);
+                }
+                ledgerJdbcRepository.saveCheckpoint(shards[i].getIndex(), records.get(records.size() - 1).getSequence());
+            }
+        });
+    }
+
+    /**
+     * Inserts the rows of each record on its own in a transaction that is rolled back, and returns the records the
+     * database rejects.
+     */
+    private Set<LedgerRecord> findRejected(List<List<LedgerRecord>> batches) {
+        Set<LedgerRecord> rejected = new HashSet<>();
+        for (List<LedgerRecord> records : batches) {
+            for (LedgerRecord record : records) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        status.setRollbackOnly();
+                        transactionJdbcRepository.insertTransactions(rows(record));
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    rejected.add(record);
+                }
+            }
+        }
+        return rejected;
+    }
+
+    private static List<Transaction> rows(LedgerRecord record) {
+        LedgerPosting posting = record.getPosting();
+        Transaction sender = row(posting, posting.accountId(), posting.date(), posting.debit() ? "DB" : "CR",
+                posting.receiverAccountNumber());
+        if (!posting.hasReceiver()) {
+            return List.of(sender);
+        }
+        return List.of(sender, row(posting, posting.receiverAccountId(), record.getReceiverDate(), "CR",
+                posting.senderAccountNumber()));
+    }
+
+    private void replay(LedgerShard journalShard, LedgerRecord record) {
+        LedgerPosting posting = record.getPosting();
+        shardFor(posting.accountId()).adjust(posting.accountId(), posting.senderDelta());
+        if (posting.hasReceiver()) {
+            shardFor(posting.receiverAccountId()).adjust(posting.receiverAccountId(), posting.amount());
+        }
+        // the credit ticket is not journaled; the sender ticket is also above every change flushed before the crash
+        record.markCreditApplied(record.getSenderTicket());
+        journalShard.enqueueUnflushed(record);
+    }
+
+    private LedgerRecord await(LedgerCommand command, long deadline) {
+        try {
+            return command.getResult().get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new LedgerUnavailableException("Ledger engine failed to post the transfer");
+        } catch (TimeoutException e) {
+            throw new LedgerUnavailableException("Ledger engine did not acknowledge the transfer in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LedgerUnavailableException("Interrupted while waiting for the ledger engine");
+        }
+    }
+
+    private String accountNumber(long accountId) {
+        String number = accountNumbers.get(accountId);
+        if (number == null) {
+            number = ledgerJdbcRepository.findAccountNumber(accountId);
+            if (number != null) {
+                accountNumbers.put(accountId, number);
+            }
+        }
+        return number;
+    }
+
+    private boolean hasBalance(long accountId) {
+        if (balanceAccounts.contains(accountId)) {
+            return true;
+        }
+        if (ledgerJdbcRepository.findBalance(accountId) != null) {
+            balanceAccounts.add(accountId);
+            return true;
+        }
+        return false;
+    }
+
+    private void checkNoOrphanedShards(Path journalDir) throws IOException {
+        if (!Files.isDirectory(journalDir)) {
+            return;
+        }
+        try (Stream<Path> directories = Files.list(journalDir)) {
+            for (Path directory : directories.toList()) {
+                String name = directory.getFileName().toString();
+                if (name.startsWith(SHARD_DIRECTORY_PREFIX)
+                        && Integer.parseInt(name.substring(SHARD_DIRECTORY_PREFIX.length())) >= properties.getShards()) {
+                    throw new IllegalStateException("Ledger journal " + directory + " belongs to a shard beyond "
+                            + "ledger.engine.shards; restart with the previous shard count to flush it, then remove it");
+                }
+            }
+        }
+    }
+
+    private static Transaction row(LedgerPosting posting, long accountId, LocalDateTime date, String indicator,
+                                   String receiverAccountNumber) {
+        Account account = new Account();
+        account.setId(accountId);
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setDate(date);
+        transaction.setAmount(toAmount(posting.amount()));
+        transaction.setIndicator(indicator);
+        transaction.setReceiverAccountNumber(receiverAccountNumber);
+        transaction.setDescription(posting.description());
+        return transaction;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.setScale(MINOR_UNIT_SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidTransactionAmountException("Transaction amount must have at most two decimal places.");
+        }
+    }
+
+    static BigDecimal toAmount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bank_app.Ledger;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ledger.engine")
+public class LedgerEngineProperties {
+
+    private static final int DEFAULT_SHARDS = 4;
+    private static final int DEFAULT_RING_SIZE = 65536;
+    private static final int DEFAULT_MAX_BATCH = 1024;
+    private static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final int DEFAULT_FLUSH_BATCH_SIZE = 5000;
+    private static final long DEFAULT_POST_TIMEOUT_SECONDS = 5;
+
+    private boolean enabled;
+    private int shards = DEFAULT_SHARDS;
+    private int ringSize = DEFAULT_RING_SIZE;
+    private int maxBatch = DEFAULT_MAX_BATCH;
+    private String journalDir = "ledger-journal";
+    private long segmentBytes = DEFAULT_SEGMENT_BYTES;
+    private boolean fsync = true;
+    private int flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
+    private Duration postTimeout = Duration.ofSeconds(DEFAULT_POST_TIMEOUT_SECONDS);
+}
@@ -0,0 +1,180 @@
+package com.example.bank_app.Ledger;
+
+import com.example.bank_app.Transaction.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Append-only store of balance changes. Every write to the {@code balance} table appends one signed event per account
+ * in the same database transaction, so a balance always equals the sum of its events.
+ */
+@Repository
+public class LedgerEventRepository {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO ledger_event (account_id, amount, event_type, transaction_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A ledger event: the account it changes and the signed amount.
+     */
+    public record Event(long id, long accountId, BigDecimal amount) {
+    }
+
+    /**
+     * A run of event ids, {@code firstId} to {@code lastId} inclusive, that had no visible event when the snapshot
+     * passed them at {@code recordedAt}.
+     */
+    public record IdGap(long firstId, long lastId, LocalDateTime recordedAt) {
+    }
+
+    @Autowired
+    public LedgerEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends a posting event for each stored transaction row: debits as negative amounts, credits as positive.
+     */
+    public void appendPostings(List<Transaction> transactions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            BigDecimal amount = "DB".equals(transaction.getIndicator())
+                    ? transaction.getAmount().negate()
+                    : transaction.getAmount();
+            args.add(new Object[] {transaction.getAccount().getId(), amount, LedgerEventType.POSTING.name(),
+                    transaction.getId(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, args);
+    }
+
+    public void appendAdjustment(long accountId, BigDecimal delta, Long transactionId) {
+        jdbcTemplate.update(INSERT_EVENT, accountId, delta, LedgerEventType.ADJUSTMENT.name(), transactionId,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public long lastEventId() {
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM ledger_event", Long.class);
+        return id != null ? id : 0L;
+    }
+
+    /**
+     * Reports each run of ids with {@code afterId < id < upToId} that has no visible event, in id order, as its first and
+     * last id. {@code upToId} must be the id of a visible event.
+     */
+    public void findMissingIds(long afterId, long upToId, BiConsumer<Long, Long> consumer) {
+        jdbcTemplate.query("SELECT COALESCE(previous_id, ?) + 1 AS first_id, id - 1 AS last_id FROM ("
+                        + "SELECT id, LAG(id) OVER (ORDER BY id) AS previous_id FROM ledger_event WHERE id > ? AND id <= ?"
+                        + ") ids WHERE id > COALESCE(previous_id, ?) + 1 ORDER BY id",
+                rs -> {
+                    consumer.accept(rs.getLong("first_id"), rs.getLong("last_id"));
+                }, afterId, afterId, upToId, afterId);
+    }
+
+    /**
+     * Streams the events with {@code firstId <= id <= lastId} in id order.
+     */
+    public void readEvents(long firstId, long lastId, Consumer<Event> consumer) {
+        jdbcTemplate.query("SELECT id, account_id, amount FROM ledger_event WHERE id >= ? AND id <= ? ORDER BY id",
+                rs -> {
+                    consumer.accept(new Event(rs.getLong("id"), rs.getLong("account_id"), rs.getBigDecimal("amount")));
+                }, firstId, lastId);
+    }
+
+    /**
+     * Sums events with {@code afterId < id <= upToId} per account.
+     */
+    public void sumEvents(long afterId, long upToId, BiConsumer<Long, BigDecimal> consumer) {
+        jdbcTemplate.query("SELECT account_id, SUM(amount) AS delta FROM ledger_event WHERE id > ? AND id <= ? "
+                        + "GROUP BY account_id",
+                rs -> {
+                    consumer.accept(rs.getLong("account_id"), rs.getBigDecimal("delta"));
+                }, afterId, upToId);
+    }
+
+    /**
+     * Reads the snapshot watermark and locks it, so snapshots and rebuilds run one at a time across instances.
+     */
+    public long lockSnapshotWatermark() {
+        Long eventId = jdbcTemplate.queryForObject("SELECT event_id FROM ledger_snapshot WHERE id = 1 FOR UPDATE",
+                Long.class);
+        return eventId != null ? eventId : 0L;
+    }
+
+    public void saveSnapshotWatermark(long eventId) {
+        jdbcTemplate.update("UPDATE ledger_snapshot SET event_id = ?, created_at = ? WHERE id = 1", eventId,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public List<IdGap> loadSnapshotGaps() {
+        return jdbcTemplate.query("SELECT first_id, last_id, recorded_at FROM ledger_snapshot_gap ORDER BY first_id",
+                (rs, rowNum) -> new IdGap(rs.getLong("first_id"), rs.getLong("last_id"),
+                        rs.getTimestamp("recorded_at").toLocalDateTime()));
+    }
+
+    public void replaceSnapshotGaps(List<IdGap> gaps) {
+        jdbcTemplate.update("DELETE FROM ledger_snapshot_gap");
+        List<Object[]> args = new ArrayList<>(gaps.size());
+        for (IdGap gap : gaps) {
+            args.add(new Object[] {gap.firstId(), gap.lastId(), Timestamp.valueOf(gap.recordedAt())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ledger_snapshot_gap (first_id, last_id, recorded_at) VALUES (?, ?, ?)",
+                args);
+    }
+
+    public void loadSnapshot(BiConsumer<Long, BigDecimal> consumer) {
+        jdbcTemplate.query("SELECT account_id, amount FROM balance_snapshot",
+                rs -> {
+                    consumer.accept(rs.getLong("account_id"), rs.getBigDecimal("amount"));
+                });
+    }
+
+    /**
+     * Adds the deltas to the snapshot rows of the changed accounts only, creating rows for accounts seen for the first
+     * time.
+     */
+    public void addToSnapshot(Map<Long, BigDecimal> deltas, long eventId) {
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        List<Long> accountIds = new ArrayList<>(deltas.size());
+        deltas.forEach((accountId, delta) -> {
+            updates.add(new Object[] {delta, eventId, accountId});
+            accountIds.add(accountId);
+        });
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE balance_snapshot SET amount = amount + ?, event_id = ? WHERE account_id = ?", updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                Long accountId = accountIds.get(i);
+                inserts.add(new Object[] {accountId, deltas.get(accountId), eventId});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO balance_snapshot (account_id, amount, event_id) VALUES (?, ?, ?)",
+                    inserts);
+        }
+    }
+
+    /**
+     * Reads every balance row with a write lock, holding off transfers until the surrounding transaction ends.
+     */
+    public void lockAllBalances(BiConsumer<Long, BigDecimal> consumer) {
+        jdbcTemplate.query("SELECT account_id, amount FROM balance ORDER BY account_id FOR UPDATE",
+                rs -> {
+                    consumer.accept(rs.getLong("account_id"), rs.getBigDecimal("amount"));
+                });
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bank_app.Ledger;
+
+public enum LedgerEventType {
+    OPENING,
+    POSTING,
+    ADJUSTMENT
+}
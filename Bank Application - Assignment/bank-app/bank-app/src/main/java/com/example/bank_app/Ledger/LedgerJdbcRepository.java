@@ -0,0 +1,96 @@
+package com.example.bank_app.Ledger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+@Repository
+public class LedgerJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public LedgerJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void loadAccounts(BiConsumer<Long, String> consumer) {
+        jdbcTemplate.query("SELECT id, account_number FROM account",
+                rs -> {
+                    consumer.accept(rs.getLong("id"), rs.getString("account_number"));
+                });
+    }
+
+    public void loadBalances(BiConsumer<Long, BigDecimal> consumer) {
+        jdbcTemplate.query("SELECT account_id, amount FROM balance",
+                rs -> {
+                    consumer.accept(rs.getLong("account_id"), rs.getBigDecimal("amount"));
+                });
+    }
+
+    public BigDecimal findBalance(long accountId) {
+        List<BigDecimal> amounts = jdbcTemplate.queryForList("SELECT amount FROM balance WHERE account_id = ?",
+                BigDecimal.class, accountId);
+        return amounts.isEmpty() ? null : amounts.get(0);
+    }
+
+    public String findAccountNumber(long accountId) {
+        List<String> numbers = jdbcTemplate.queryForList("SELECT account_number FROM account WHERE id = ?",
+                String.class, accountId);
+        return numbers.isEmpty() ? null : numbers.get(0);
+    }
+
+    public Map<Integer, Long> loadCheckpoints() {
+        Map<Integer, Long> checkpoints = new HashMap<>();
+        jdbcTemplate.query("SELECT shard, sequence FROM ledger_checkpoint",
+                rs -> {
+                    checkpoints.put(rs.getInt("shard"), rs.getLong("sequence"));
+                });
+        return checkpoints;
+    }
+
+    public void saveCheckpoint(int shard, long sequence) {
+        int updated = jdbcTemplate.update("UPDATE ledger_checkpoint SET sequence = ? WHERE shard = ?", sequence, shard);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO ledger_checkpoint (shard, sequence) VALUES (?, ?)", shard, sequence);
+        }
+    }
+
+    /**
+     * Stores records whose transaction rows the database rejected, keyed by shard and sequence, for an operator to
+     * repair and post by hand.
+     */
+    void insertDeadLetters(int shard, List<LedgerRecord> records) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(records.size());
+        for (LedgerRecord record : records) {
+            LedgerPosting posting = record.getPosting();
+            args.add(new Object[] {shard, record.getSequence(), Timestamp.valueOf(posting.date()), posting.accountId(),
+                posting.hasReceiver() ? posting.receiverAccountId() : null, LedgerEngine.toAmount(posting.amount()),
+                posting.debit() ? "DB" : "CR", posting.description(), posting.receiverAccountNumber(),
+                posting.senderAccountNumber(), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ledger_dead_letter (shard, sequence, date, account_id, receiver_account_id, "
+                + "amount, indicator, description, receiver_account_number, sender_account_number, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", args);
+    }
+
+    /**
+     * Adds each delta to the stored balance with one batched statement. Deltas commute, so shards flushing the same
+     * account concurrently cannot overwrite each other.
+     */
+    public void applyBalanceDeltas(Map<Long, BigDecimal> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((accountId, delta) -> args.add(new Object[] {delta, accountId}));
+        jdbcTemplate.batchUpdate("UPDATE balance SET amount = amount + ? WHERE account_id = ?", args);
+    }
+}
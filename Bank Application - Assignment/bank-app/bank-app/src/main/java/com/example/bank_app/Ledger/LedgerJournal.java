@@ -0,0 +1,167 @@
+package com.example.bank_app.Ledger;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of one shard, split into segment files named after their first sequence number. Each record is
+ * framed as length, CRC32 and payload, so a write torn by a crash is detected and cut off on replay.
+ */
+final class LedgerJournal implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int FRAME_HEADER_BYTES = Integer.BYTES * 2;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private FileChannel channel;
+    private long segmentSize;
+
+    LedgerJournal(Path directory, long segmentBytes, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Feeds every intact record to {@code consumer} in sequence order and truncates a torn record at the end of the
+     * last segment. Returns the highest sequence seen, or 0 for an empty journal.
+     */
+    long replay(Consumer<LedgerRecord> consumer) throws IOException {
+        long lastSequence = 0;
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+            while (data.remaining() > 0) {
+                int start = data.position();
+                LedgerRecord record = readFrame(data);
+                if (record == null) {
+                    if (i < segments.size() - 1) {
+                        throw new IOException("Corrupt ledger journal segment " + segment);
+                    }
+                    try (FileChannel truncate = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                        truncate.truncate(start);
+                    }
+                    break;
+                }
+                consumer.accept(record);
+                lastSequence = record.getSequence();
+            }
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Opens the newest segment for appending, or starts one at {@code nextSequence} when the journal is empty.
+     */
+    void open(long nextSequence) throws IOException {
+        List<Path> segments = segments();
+        openSegment(segments.isEmpty() ? segmentPath(nextSequence) : segments.get(segments.size() - 1));
+    }
+
+    /**
+     * Writes the records as one group and forces them to disk before returning when fsync is enabled.
+     */
+    void append(List<LedgerRecord> records) throws IOException {
+        if (segmentSize >= segmentBytes) {
+            channel.close();
+            openSegment(segmentPath(records.get(0).getSequence()));
+        }
+        List<byte[]> payloads = new ArrayList<>(records.size());
+        int total = 0;
+        for (LedgerRecord record : records) {
+            byte[] payload = record.encode();
+            payloads.add(payload);
+            total += FRAME_HEADER_BYTES + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] payload : payloads) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        segmentSize += total;
+    }
+
+    /**
+     * Deletes closed segments whose records all have a sequence of at most {@code sequence}.
+     */
+    void deleteSegmentsUpTo(long sequence) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (firstSequence(segments.get(i + 1)) - 1 > sequence) {
+                break;
+            }
+            Files.delete(segments.get(i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void openSegment(Path segment) throws IOException {
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+    }
+
+    private static LedgerRecord readFrame(ByteBuffer data) throws IOException {
+        if (data.remaining() < FRAME_HEADER_BYTES) {
+            return null;
+        }
+        int length = data.getInt();
+        int checksum = data.getInt();
+        if (length < 0 || data.remaining() < length) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        data.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return LedgerRecord.decode(new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted((a, b) -> Long.compare(firstSequence(a), firstSequence(b)))
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
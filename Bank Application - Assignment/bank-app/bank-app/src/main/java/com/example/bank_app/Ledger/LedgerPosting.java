@@ -0,0 +1,46 @@
+package com.example.bank_app.Ledger;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The content of one transfer. Amounts are in minor units (cents); {@code receiverAccountId} is
+ * {@link #NO_RECEIVER} for a posting without a receiver. The date is null until the sender's shard sequences the
+ * posting and dates it with its ticket.
+ */
+record LedgerPosting(LocalDateTime date, long accountId, long receiverAccountId, long amount, boolean debit,
+                     String description, String receiverAccountNumber, String senderAccountNumber) {
+
+    static final long NO_RECEIVER = 0L;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    boolean hasReceiver() {
+        return receiverAccountId != NO_RECEIVER;
+    }
+
+    long senderDelta() {
+        return debit ? -amount : amount;
+    }
+
+    LedgerPosting withDate(LocalDateTime date) {
+        return new LedgerPosting(date, accountId, receiverAccountId, amount, debit, description, receiverAccountNumber,
+                senderAccountNumber);
+    }
+
+    /**
+     * The ticket of the sender side, which is its date in microseconds.
+     */
+    long ticket() {
+        return ticketOf(date);
+    }
+
+    static long ticketOf(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + date.getNano() / NANOS_PER_MICRO;
+    }
+
+    static LocalDateTime dateOf(long ticket) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(ticket, MICROS_PER_SECOND),
+                (int) Math.floorMod(ticket, MICROS_PER_SECOND) * NANOS_PER_MICRO, ZoneOffset.UTC);
+    }
+}
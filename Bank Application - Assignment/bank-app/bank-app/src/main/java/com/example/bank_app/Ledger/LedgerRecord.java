@@ -0,0 +1,104 @@
+package com.example.bank_app.Ledger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * A posting with its shard sequence number, as written to the shard journal.
+ */
+final class LedgerRecord {
+
+    private final long sequence;
+    private final LedgerPosting posting;
+
+    /**
+     * Set once the receiver's shard has applied the credit in memory; the record is not flushed to the database before
+     * that, so a receiver balance loaded lazily from the database can never already contain this credit.
+     */
+    private volatile boolean creditApplied;
+
+    /**
+     * Ticket the receiver's shard drew when it applied the credit; written before {@link #creditApplied}. It is not
+     * journaled, so a replayed record takes the sender's ticket instead.
+     */
+    private long receiverTicket;
+
+    LedgerRecord(long sequence, LedgerPosting posting) {
+        this.sequence = sequence;
+        this.posting = posting;
+        this.creditApplied = !posting.hasReceiver();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    LedgerPosting getPosting() {
+        return posting;
+    }
+
+    boolean isCreditApplied() {
+        return creditApplied;
+    }
+
+    void markCreditApplied(long ticket) {
+        receiverTicket = ticket;
+        creditApplied = true;
+    }
+
+    long getSenderTicket() {
+        return posting.ticket();
+    }
+
+    /**
+     * Date of the receiver's row; only valid once the credit is applied.
+     */
+    LocalDateTime getReceiverDate() {
+        return LedgerPosting.dateOf(receiverTicket);
+    }
+
+    /**
+     * The highest ticket of the record; only valid once the credit is applied.
+     */
+    long lastTicket() {
+        return posting.hasReceiver() ? receiverTicket : posting.ticket();
+    }
+
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(sequence);
+        out.writeLong(posting.date().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(posting.date().getNano());
+        out.writeLong(posting.accountId());
+        out.writeLong(posting.receiverAccountId());
+        out.writeLong(posting.amount());
+        out.writeBoolean(posting.debit());
+        writeNullable(out, posting.description());
+        writeNullable(out, posting.receiverAccountNumber());
+        writeNullable(out, posting.senderAccountNumber());
+        return bytes.toByteArray();
+    }
+
+    static LedgerRecord decode(DataInput in) throws IOException {
+        long sequence = in.readLong();
+        LocalDateTime date = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        return new LedgerRecord(sequence, new LedgerPosting(date, in.readLong(), in.readLong(), in.readLong(),
+                in.readBoolean(), readNullable(in), readNullable(in), readNullable(in)));
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.bank_app.Ledger;
+
+import com.example.bank_app.exceptionhandling.AccountNotFoundException;
+import com.example.bank_app.exceptionhandling.InsufficientBalanceException;
+import com.example.bank_app.exceptionhandling.LedgerUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Owns the balances of the accounts that hash to it and is the only thread that changes them. Transfers are debited
+ * here, journaled as a group and acknowledged; their credits are then handed to the receiver's shard. Credits are not
+ * journaled again because the sender's record already makes them durable. Every change draws a ticket from the engine
+ * when it is applied, so the tickets of one account follow the order its balance changed.
+ */
+final class LedgerShard implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerShard.class);
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final int IDLE_SPINS = 100;
+    private static final long IDLE_PARK_NANOS = 100_000L;
+
+    private final int index;
+    private final LedgerEngine engine;
+    private final LedgerJournal journal;
+    private final RingBuffer<LedgerCommand> commands;
+    private final int maxBatch;
+    private final Queue<LedgerRecord> credits = new ConcurrentLinkedQueue<>();
+    private final Queue<LedgerRecord> unflushed = new ConcurrentLinkedQueue<>();
+    private final LongLongHashMap balances = new LongLongHashMap(MISSING);
+    private long sequence;
+    private boolean failed;
+    // a lower bound of the tickets this thread has drawn but not yet published; the flush stops below it
+    private volatile long ticketFloor = Long.MAX_VALUE;
+    private volatile boolean running;
+    private Thread thread;
+
+    LedgerShard(int index, LedgerEngine engine, LedgerJournal journal, int ringSize, int maxBatch) {
+        this.index = index;
+        this.engine = engine;
+        this.journal = journal;
+        this.commands = new RingBuffer<>(ringSize);
+        this.maxBatch = maxBatch;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    LedgerJournal getJournal() {
+        return journal;
+    }
+
+    boolean offer(LedgerCommand command) {
+        return commands.offer(command);
+    }
+
+    void credit(LedgerRecord record) {
+        credits.add(record);
+    }
+
+    /**
+     * Changes a balance outside the shard thread; only used while loading and replaying before {@link #start}.
+     */
+    void adjust(long accountId, long delta) {
+        long balance = balanceOf(accountId);
+        if (balance != MISSING) {
+            balances.put(accountId, balance + delta);
+        }
+    }
+
+    void load(long accountId, long balance) {
+        balances.put(accountId, balance);
+    }
+
+    void enqueueUnflushed(LedgerRecord record) {
+        unflushed.add(record);
+    }
+
+    long getTicketFloor() {
+        return ticketFloor;
+    }
+
+    /**
+     * Returns the oldest journaled records whose credits have been applied and whose tickets are at most
+     * {@code cutoff}, in sequence order.
+     */
+    List<LedgerRecord> pendingFlush(int max, long cutoff) {
+        List<LedgerRecord> records = new ArrayList<>();
+        for (LedgerRecord record : unflushed) {
+            if (records.size() >= max || !isFlushable(record, cutoff)) {
+                break;
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Returns the sender ticket of the first record that {@link #pendingFlush} leaves out, or {@code Long.MAX_VALUE}
+     * when it takes them all. Later records of the shard have higher tickets.
+     */
+    long firstHeldTicket(int max, long cutoff) {
+        int count = 0;
+        for (LedgerRecord record : unflushed) {
+            if (count >= max || !isFlushable(record, cutoff)) {
+                return record.getSenderTicket();
+            }
+            count++;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    void flushed(int count) {
+        for (int i = 0; i < count; i++) {
+            unflushed.poll();
+        }
+    }
+
+    int unflushedCount() {
+        return unflushed.size();
+    }
+
+    void open(long lastSequence) throws IOException {
+        sequence = lastSequence;
+        journal.open(lastSequence + 1);
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, "ledger-shard-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the thread after it has drained its ring buffer and credit inbox.
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    @Override
+    public void run() {
+        List<LedgerCommand> batch = new ArrayList<>(maxBatch);
+        int idle = 0;
+        while (true) {
+            boolean worked = applyCredits();
+            if (commands.drainTo(batch, maxBatch) > 0) {
+                post(batch);
+                batch.clear();
+                worked = true;
+            }
+            if (worked) {
+                idle = 0;
+            } else if (!running) {
+                break;
+            } else if (++idle < IDLE_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    boolean applyCredits() {
+        if (credits.isEmpty()) {
+            return false;
+        }
+        ticketFloor = engine.lastTicket() + 1;
+        try {
+            LedgerRecord record;
+            while ((record = credits.poll()) != null) {
+                adjust(record.getPosting().receiverAccountId(), record.getPosting().amount());
+                record.markCreditApplied(engine.nextTicket());
+            }
+        } finally {
+            ticketFloor = Long.MAX_VALUE;
+        }
+        return true;
+    }
+
+    private void post(List<LedgerCommand> batch) {
+        ticketFloor = engine.lastTicket() + 1;
+        try {
+            sequence(batch);
+        } finally {
+            ticketFloor = Long.MAX_VALUE;
+        }
+    }
+
+    private void sequence(List<LedgerCommand> batch) {
+        List<LedgerCommand> accepted = new ArrayList<>(batch.size());
+        List<LedgerRecord> records = new ArrayList<>(batch.size());
+        for (LedgerCommand command : batch) {
+            if (failed) {
+                command.getResult().completeExceptionally(new LedgerUnavailableException("Ledger journal is unavailable"));
+                continue;
+            }
+            LedgerPosting posting = command.getPosting();
+            long balance = balanceOf(posting.accountId());
+            if (balance == MISSING) {
+                command.getResult().completeExceptionally(new AccountNotFoundException("Balance not found for the account"));
+                continue;
+            }
+            if (posting.debit() && balance < posting.amount()) {
+                command.getResult().completeExceptionally(
+                        new InsufficientBalanceException("Insufficient balance for the transaction"));
+                continue;
+            }
+            balances.put(posting.accountId(), balance + posting.senderDelta());
+            accepted.add(command);
+            records.add(new LedgerRecord(++sequence, posting.withDate(LedgerPosting.dateOf(engine.nextTicket()))));
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        try {
+            journal.append(records);
+        } catch (IOException e) {
+            LOGGER.error("Ledger journal write failed on shard {}; rejecting further transfers until restart", index, e);
+            failed = true;
+            for (LedgerRecord record : records) {
+                LedgerPosting posting = record.getPosting();
+                balances.put(posting.accountId(), balances.get(posting.accountId()) - posting.senderDelta());
+            }
+            sequence -= records.size();
+            for (LedgerCommand command : accepted) {
+                command.getResult().completeExceptionally(new LedgerUnavailableException("Ledger journal is unavailable"));
+            }
+            return;
+        }
+
+        for (int i = 0; i < records.size(); i++) {
+            LedgerRecord record = records.get(i);
+            if (record.getPosting().hasReceiver()) {
+                engine.shardFor(record.getPosting().receiverAccountId()).credit(record);
+            }
+            unflushed.add(record);
+            accepted.get(i).getResult().complete(record);
+        }
+    }
+
+    private static boolean isFlushable(LedgerRecord record, long cutoff) {
+        return record.isCreditApplied() && record.lastTicket() <= cutoff;
+    }
+
+    private long balanceOf(long accountId) {
+        long balance = balances.get(accountId);
+        if (balance == MISSING) {
+            Long loaded = engine.loadBalance(accountId);
+            if (loaded != null) {
+                balance = loaded;
+                balances.put(accountId, balance);
+            }
+        }
+        return balance;
+    }
+}
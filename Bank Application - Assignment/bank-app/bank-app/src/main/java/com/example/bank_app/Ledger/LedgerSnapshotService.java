@@ -0,0 +1,162 @@
+package com.example.bank_app.Ledger;
+
+import com.example.bank_app.Transaction.TransactionJdbcRepository;
+import com.example.bank_app.exceptionhandling.LedgerUnavailableException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the balance snapshot and rebuilds balances from it. A snapshot holds each account's balance as of a global
+ * event id watermark; it is advanced by summing only the events after the previous watermark, so a run touches just the
+ * accounts that changed. A projection is the snapshot plus the event tail after its watermark.
+ *
+ * <p>Event ids are assigned before commit, so a snapshot can pass an id whose posting has not committed yet. Each run
+ * records the ids below the new watermark that had no visible event as gaps, and later runs add the events that show up
+ * in them; projections read the gaps too. A gap still open after {@code ledger.snapshot.gap-timeout} is taken to be a
+ * rolled-back posting and dropped.
+ */
+@Service
+public class LedgerSnapshotService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerSnapshotService.class);
+
+    private final LedgerEventRepository ledgerEventRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final Duration gapTimeout;
+    private final boolean ledgerEngineEnabled;
+
+    @Autowired
+    public LedgerSnapshotService(LedgerEventRepository ledgerEventRepository,
+                                 TransactionJdbcRepository transactionJdbcRepository,
+                                 @Value("${ledger.snapshot.gap-timeout:PT1H}") Duration gapTimeout,
+                                 @Value("${ledger.engine.enabled:false}") boolean ledgerEngineEnabled) {
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.gapTimeout = gapTimeout;
+        this.ledgerEngineEnabled = ledgerEngineEnabled;
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval:PT10M}")
+    public void takeSnapshot() {
+        long watermark = ledgerEventRepository.lockSnapshotWatermark();
+        long upTo = Math.max(ledgerEventRepository.lastEventId(), watermark);
+        List<LedgerEventRepository.IdGap> gaps = ledgerEventRepository.loadSnapshotGaps();
+        if (upTo == watermark && gaps.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        List<LedgerEventRepository.IdGap> open = new ArrayList<>();
+        for (LedgerEventRepository.IdGap gap : gaps) {
+            fillGap(gap, deltas, open, now.minus(gapTimeout));
+        }
+
+        // sum only the runs of ids whose events are all visible, so an event committing meanwhile is left to its gap
+        List<LedgerEventRepository.IdGap> missing = new ArrayList<>();
+        ledgerEventRepository.findMissingIds(watermark, upTo,
+                (firstId, lastId) -> missing.add(new LedgerEventRepository.IdGap(firstId, lastId, now)));
+        long after = watermark;
+        for (LedgerEventRepository.IdGap gap : missing) {
+            ledgerEventRepository.sumEvents(after, gap.firstId() - 1,
+                    (accountId, delta) -> deltas.merge(accountId, delta, BigDecimal::add));
+            after = gap.lastId();
+        }
+        ledgerEventRepository.sumEvents(after, upTo, (accountId, delta) -> deltas.merge(accountId, delta, BigDecimal::add));
+        open.addAll(missing);
+
+        ledgerEventRepository.addToSnapshot(deltas, upTo);
+        ledgerEventRepository.replaceSnapshotGaps(open);
+        ledgerEventRepository.saveSnapshotWatermark(upTo);
+        LOGGER.debug("Balance snapshot advanced to event {} ({} accounts changed, {} gaps open)", upTo, deltas.size(),
+                open.size());
+    }
+
+    /**
+     * Computes every account's balance from the latest snapshot plus the events in its gaps and after it.
+     */
+    @Transactional
+    public Map<Long, BigDecimal> projectBalances() {
+        long watermark = ledgerEventRepository.lockSnapshotWatermark();
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        ledgerEventRepository.loadSnapshot(balances::put);
+        for (LedgerEventRepository.IdGap gap : ledgerEventRepository.loadSnapshotGaps()) {
+            ledgerEventRepository.readEvents(gap.firstId(), gap.lastId(),
+                    event -> balances.merge(event.accountId(), event.amount(), BigDecimal::add));
+        }
+        ledgerEventRepository.sumEvents(watermark, Long.MAX_VALUE,
+                (accountId, delta) -> balances.merge(accountId, delta, BigDecimal::add));
+        return balances;
+    }
+
+    /**
+     * Rewrites every balance row that differs from the projection and returns how many were corrected. Balance rows
+     * are locked for the duration, so transfers wait until the rebuild commits. Accounts without any ledger history
+     * are left untouched.
+     */
+    @Transactional
+    public int rebuildBalances() {
+        if (ledgerEngineEnabled) {
+            throw new LedgerUnavailableException("Balances cannot be rebuilt while the ledger engine is enabled");
+        }
+        Map<Long, BigDecimal> current = new HashMap<>();
+        ledgerEventRepository.lockAllBalances(current::put);
+
+        Map<Long, BigDecimal> corrections = new HashMap<>();
+        projectBalances().forEach((accountId, amount) -> {
+            BigDecimal stored = current.get(accountId);
+            if (stored != null && stored.compareTo(amount) != 0) {
+                corrections.put(accountId, amount);
+            }
+        });
+        transactionJdbcRepository.updateBalances(corrections);
+        if (!corrections.isEmpty()) {
+            LOGGER.warn("Rebuilt {} balances from the ledger", corrections.size());
+        }
+        return corrections.size();
+    }
+
+    /**
+     * Adds the events that have appeared in {@code gap} to {@code deltas} and collects the ids still missing into
+     * {@code open}, unless the gap was recorded before {@code expiry}.
+     */
+    private void fillGap(LedgerEventRepository.IdGap gap, Map<Long, BigDecimal> deltas,
+                         List<LedgerEventRepository.IdGap> open, LocalDateTime expiry) {
+        List<LedgerEventRepository.Event> events = new ArrayList<>();
+        ledgerEventRepository.readEvents(gap.firstId(), gap.lastId(), events::add);
+        List<LedgerEventRepository.IdGap> remaining = new ArrayList<>();
+        long next = gap.firstId();
+        for (LedgerEventRepository.Event event : events) {
+            deltas.merge(event.accountId(), event.amount(), BigDecimal::add);
+            if (event.id() > next) {
+                remaining.add(new LedgerEventRepository.IdGap(next, event.id() - 1, gap.recordedAt()));
+            }
+            next = event.id() + 1;
+        }
+        if (next <= gap.lastId()) {
+            remaining.add(new LedgerEventRepository.IdGap(next, gap.lastId(), gap.recordedAt()));
+        }
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (gap.recordedAt().isBefore(expiry)) {
+            LOGGER.warn("Dropping ledger event ids {} to {} from the snapshot gaps; still missing after {}",
+                    gap.firstId(), gap.lastId(), gapTimeout);
+            return;
+        }
+        open.addAll(remaining);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bank_app.Ledger;
+
+/**
+ * Open-addressing map from account id to balance in minor units, so a shard holds millions of balances without boxing.
+ * Not thread-safe; each instance is owned by one shard thread.
+ */
+final class LongLongHashMap {
+
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final long missingValue;
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    LongLongHashMap(long missingValue) {
+        this.missingValue = missingValue;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    long get(long key) {
+        int index = indexOf(key);
+        return used[index] ? values[index] : missingValue;
+    }
+
+    void put(long key, long value) {
+        int index = indexOf(key);
+        if (!used[index]) {
+            if (size + 1 > keys.length - (keys.length >> 2)) {
+                resize();
+                index = indexOf(key);
+            }
+            used[index] = true;
+            keys[index] = key;
+            size++;
+        }
+        values[index] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        long hash = key * HASH_MULTIPLIER;
+        int index = (int) (hash ^ (hash >>> Integer.SIZE)) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(oldKeys[i]);
+                used[index] = true;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+}
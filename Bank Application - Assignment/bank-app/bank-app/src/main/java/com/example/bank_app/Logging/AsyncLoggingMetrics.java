@@ -0,0 +1,56 @@
+package com.example.bank_app.Logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Publishes the state of every {@link CountingAsyncAppender} in the logging configuration: the
+ * {@code logging.async.queue.depth} and {@code logging.async.queue.remaining} gauges and the
+ * {@code logging.async.dropped} counter, tagged by appender and by {@code reason=discarded} or {@code overflow}.
+ * Configurations without such appenders publish nothing.
+ */
+@Component
+public class AsyncLoggingMetrics {
+
+    private static final String APPENDER = "appender";
+    private static final String DROPPED = "logging.async.dropped";
+
+    @Autowired
+    public AsyncLoggingMetrics(MeterRegistry meterRegistry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Set<String> appenders = new HashSet<>();
+        for (Logger logger : context.getLoggerList()) {
+            logger.iteratorForAppenders().forEachRemaining(appender -> {
+                if (appender instanceof CountingAsyncAppender async && appenders.add(async.getName())) {
+                    register(meterRegistry, async);
+                }
+            });
+        }
+    }
+
+    private static void register(MeterRegistry meterRegistry, CountingAsyncAppender appender) {
+        Gauge.builder("logging.async.queue.depth", appender, CountingAsyncAppender::getNumberOfElementsInQueue)
+                .tag(APPENDER, appender.getName())
+                .register(meterRegistry);
+        Gauge.builder("logging.async.queue.remaining", appender, CountingAsyncAppender::getRemainingCapacity)
+                .tag(APPENDER, appender.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder(DROPPED, appender, CountingAsyncAppender::getDiscardedCount)
+                .tags(APPENDER, appender.getName(), "reason", "discarded")
+                .register(meterRegistry);
+        FunctionCounter.builder(DROPPED, appender, CountingAsyncAppender::getOverflowCount)
+                .tags(APPENDER, appender.getName(), "reason", "overflow")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.bank_app.Logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling file appender that writes through its buffer and flushes it every {@code flushIntervalMillis} rather than
+ * after each event, so a burst of events costs a few large writes. Warnings and errors are flushed at once. Meant to
+ * sit behind a {@link CountingAsyncAppender}, whose single worker is then the only thread writing.
+ */
+public class BatchingRollingFileAppender extends RollingFileAppender<ILoggingEvent> {
+
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+    private ScheduledFuture<?> flusher;
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @Override
+    public void start() {
+        setImmediateFlush(false);
+        super.start();
+        if (isStarted()) {
+            flusher = getContext().getScheduledExecutorService().scheduleWithFixedDelay(this::flush,
+                    flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (flusher != null) {
+            flusher.cancel(false);
+            flusher = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    protected void subAppend(ILoggingEvent event) {
+        super.subAppend(event);
+        if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            flush();
+        }
+    }
+
+    void flush() {
+        streamWriteLock.lock();
+        try {
+            OutputStream out = getOutputStream();
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            addError("Could not flush " + getFile(), e);
+        } finally {
+            streamWriteLock.unlock();
+        }
+    }
+}
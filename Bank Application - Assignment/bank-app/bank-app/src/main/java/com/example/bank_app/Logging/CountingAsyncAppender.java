@@ -0,0 +1,79 @@
+package com.example.bank_app.Logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous appender that counts the events it drops. Once fewer than {@code discardingThreshold} slots are free,
+ * events at or below {@code discardLevel} are discarded; with {@code neverBlock} set, any event arriving at a full
+ * queue is dropped as well. The counts and queue depth are published by {@link AsyncLoggingMetrics}.
+ *
+ * <p>The queue depth is read as the event arrives, so an event the worker makes room for at that moment may be counted
+ * as dropped although it was queued.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final int DEFAULT_DISCARDING_DIVISOR = 5;
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private Level discardLevel = Level.INFO;
+    private int discardingThreshold = -1;
+
+    public void setDiscardLevel(String discardLevel) {
+        this.discardLevel = Level.toLevel(discardLevel, Level.INFO);
+    }
+
+    public String getDiscardLevel() {
+        return discardLevel.toString();
+    }
+
+    // the base class is left with no threshold of its own, so every discard goes through append and is counted
+    @Override
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    @Override
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    public long getOverflowCount() {
+        return overflowed.sum();
+    }
+
+    @Override
+    public void start() {
+        if (discardingThreshold < 0) {
+            discardingThreshold = getQueueSize() / DEFAULT_DISCARDING_DIVISOR;
+        }
+        super.setDiscardingThreshold(0);
+        super.start();
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= discardLevel.toInt();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining < discardingThreshold && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        if (remaining == 0 && isNeverBlock()) {
+            overflowed.increment();
+        }
+        super.append(event);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bank_app.Logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Writes each event as one line of JSON with the timestamp, level, thread, logger, message, MDC entries and stack
+ * trace as separate fields, so log shippers need no pattern parsing. Message and stack trace pass through
+ * {@link SecretMasker}.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+            json.writeStringField("level", event.getLevel().toString());
+            json.writeStringField("thread", event.getThreadName());
+            json.writeStringField("logger", event.getLoggerName());
+            json.writeStringField("message", SecretMasker.mask(event.getFormattedMessage()));
+            Map<String, String> mdc = event.getMDCPropertyMap();
+            if (mdc != null && !mdc.isEmpty()) {
+                json.writeObjectFieldStart("mdc");
+                for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                    json.writeStringField(entry.getKey(), entry.getValue());
+                }
+                json.writeEndObject();
+            }
+            IThrowableProxy throwable = event.getThrowableProxy();
+            if (throwable != null) {
+                json.writeStringField("exception", SecretMasker.mask(ThrowableProxyUtil.asString(throwable)));
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            addError("Could not encode a log event as JSON", e);
+            return new byte[0];
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+}
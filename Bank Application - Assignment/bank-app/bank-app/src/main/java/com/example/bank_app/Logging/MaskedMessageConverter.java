@@ -0,0 +1,15 @@
+package com.example.bank_app.Logging;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * The {@code %maskedMsg} pattern word: the formatted message with secrets masked by {@link SecretMasker}.
+ */
+public class MaskedMessageConverter extends MessageConverter {
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return SecretMasker.mask(super.convert(event));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bank_app.Logging;
+
+import java.util.regex.Pattern;
+
+/**
+ * Masks secrets that find their way into log messages: values of password, secret and token fields, bearer tokens,
+ * anything shaped like a JWT and BCrypt hashes. It is a safety net for every appender; code should not log secrets in
+ * the first place.
+ */
+public final class SecretMasker {
+
+    private static final String MASK = "****";
+    private static final Pattern SECRET_FIELD = Pattern.compile(
+            "(?i)(\"?\\w*(?:password|passwd|secret|token)\"?\\s*[:=]\\s*\"?)[^\\s\",}&]+");
+    private static final Pattern BEARER = Pattern.compile("(?i)(bearer\\s+)[A-Za-z0-9._~+/-]+=*");
+    private static final Pattern JWT = Pattern.compile("eyJ[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}");
+
+    private SecretMasker() {
+    }
+
+    public static String mask(String message) {
+        if (message == null || message.isEmpty()) {
+            return message;
+        }
+        String masked = SECRET_FIELD.matcher(message).replaceAll("$1" + MASK);
+        masked = BEARER.matcher(masked).replaceAll("$1" + MASK);
+        masked = JWT.matcher(masked).replaceAll(MASK);
+        return BCRYPT_HASH.matcher(masked).replaceAll(MASK);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bank_app.Persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pooled id generation shared by JPA and plain JDBC inserts. Entities take their ids from a table generator on
+ * {@link #TABLE}, one row per entity, reserving {@link #ALLOCATION_SIZE} ids per round trip, so Hibernate can batch
+ * their inserts. Code that inserts the same tables with JDBC takes ids here, from the same generator instance and so
+ * the same in-memory block, which keeps JDBC and JPA ids from colliding.
+ */
+@Component
+public class EntityIdAllocator {
+
+    public static final String TABLE = "id_sequence";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    @Autowired
+    public EntityIdAllocator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * Returns {@code count} new ids for the entity type. Blocks are reserved in a transaction of their own, so ids are
+     * never handed out twice even if the caller rolls back.
+     */
+    public long[] next(Class<?> entityType, int count) {
+        IdentifierGenerator generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(entityType).getGenerator();
+        long[] ids = new long[count];
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (int i = 0; i < count; i++) {
+                ids[i] = ((Number) generator.generate((SharedSessionContractImplementor) session, null)).longValue();
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.bank_app.Security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashes new passwords with BCrypt at a cost chosen at startup, so that one hash takes about the configured target
+ * latency on this machine, and verifies hashes of any cost or of any algorithm Spring Security knows by its
+ * {@code {id}} prefix. New hashes are written without a prefix, as all existing hashes are.
+ *
+ * <p>{@link #upgradeEncoding(String)} reports a hash of a lower cost or of another algorithm, so that it can be replaced
+ * when the user next logs in. A hash of a higher cost is kept, so instances that calibrated differently do not rehash
+ * the same password back and forth and a cost never goes down. Verification time is published as the
+ * {@code auth.password.verify} timer, tagged by algorithm and cost, and the cost in use as the
+ * {@code auth.password.cost} gauge.
+ */
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptivePasswordEncoder.class);
+    private static final String BCRYPT = "bcrypt";
+    private static final String VERIFY = "auth.password.verify";
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final Pattern ALGORITHM_PREFIX = Pattern.compile("\\{([^{}]+)}.*", Pattern.DOTALL);
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final int cost;
+    private final BCryptPasswordEncoder bcrypt;
+    private final DelegatingPasswordEncoder delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public AdaptivePasswordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.cost = properties.getCost() > 0 ? properties.getCost() : calibrate(properties);
+        this.bcrypt = new BCryptPasswordEncoder(cost);
+        this.delegate = (DelegatingPasswordEncoder) PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        this.delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("auth.password.cost", this, AdaptivePasswordEncoder::getCost).register(meterRegistry);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bcrypt.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long started = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        timer(encodedPassword).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    /**
+     * Returns true when the value is an unprefixed BCrypt hash of any version and cost.
+     */
+    public static boolean isBcryptHash(String value) {
+        return value != null && BCRYPT_HASH.matcher(value).matches();
+    }
+
+    /**
+     * Returns true unless the hash is an unprefixed BCrypt hash of at least the current cost.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+        return !matcher.matches() || Integer.parseInt(matcher.group(1)) < cost;
+    }
+
+    private Timer timer(String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : "";
+        Matcher bcryptHash = BCRYPT_HASH.matcher(hash);
+        Matcher prefixed = ALGORITHM_PREFIX.matcher(hash);
+        boolean isBcrypt = bcryptHash.matches();
+        String algorithm = isBcrypt ? BCRYPT : prefixed.matches() ? prefixed.group(1) : "unknown";
+        String hashCost = isBcrypt ? bcryptHash.group(1) : "none";
+        return timers.computeIfAbsent(algorithm + ':' + hashCost, key -> Timer.builder(VERIFY)
+                .tag("algorithm", algorithm)
+                .tag("cost", hashCost)
+                .register(meterRegistry));
+    }
+
+    // each step of the cost doubles the work, so one measurement at the lowest cost predicts the others
+    private static int calibrate(PasswordHashingProperties properties) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(properties.getMinCost());
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long started = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            fastest = Math.min(fastest, System.nanoTime() - started);
+        }
+        long target = properties.getTargetLatency().toNanos();
+        int chosen = properties.getMinCost();
+        long estimate = fastest;
+        while (chosen < properties.getMaxCost() && estimate * 2 <= target) {
+            chosen++;
+            estimate *= 2;
+        }
+        LOGGER.info("Password hashing cost {} chosen, about {} ms per hash against a target of {} ms", chosen,
+                TimeUnit.NANOSECONDS.toMillis(estimate), properties.getTargetLatency().toMillis());
+        return chosen;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bank_app.Security;
+
+import java.security.Principal;
+
+/**
+ * The caller of an authenticated request, as named by its access token. The account id is null for users without an
+ * account.
+ */
+public record JwtPrincipal(String username, Long accountId) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
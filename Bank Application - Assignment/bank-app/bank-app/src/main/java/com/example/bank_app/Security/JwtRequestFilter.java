@@ -1,7 +1,7 @@
 package com.example.bank_app.Security;
 
 
-import com.example.bank_app.User.CustomUserDetailsService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,49 +10,61 @@ import lombok.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates a request from its bearer token. The principal and authorities are taken from the token's claims,
+ * without a database lookup, and a token seen before is answered from the {@link VerifiedTokenCache}. Every request is
+ * then checked against the {@link TokenRevocationList}, in memory, since a cached token may have been revoked since. A
+ * token that fails verification or has been revoked leaves the request unauthenticated, so protected endpoints answer
+ * 401.
+ */
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
-    private CustomUserDetailsService service;
+    private TokenRevocationList tokenRevocationList;
 
-    private static final int BEARER_PREFIX_LENGTH = 7;
+    private static final String BEARER_PREFIX = "Bearer ";
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest httpServletRequest, @NonNull HttpServletResponse httpServletResponse,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        String authorizationHeader = httpServletRequest.getHeader("Authorization");
+        String token = bearerToken(httpServletRequest);
 
-        String token = null;
-        String userName = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            token = authorizationHeader.substring(BEARER_PREFIX_LENGTH);
-            userName = jwtUtil.extractUsername(token);
-        }
-
-        if (userName != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = service.loadUserByUsername(userName);
-
-            if (jwtUtil.validateToken(token, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken
-                        .setDetails(new WebAuthenticationDetailsSource().buildDetails(httpServletRequest));
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.verify(token);
+                if (tokenRevocationList.isRevoked(verified.tokenId())) {
+                    logger.debug("Ignoring a revoked bearer token for " + verified.principal().getName());
+                } else {
+                    UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
+                            new UsernamePasswordAuthenticationToken(verified.principal(), null, verified.authorities());
+                    usernamePasswordAuthenticationToken
+                            .setDetails(new WebAuthenticationDetailsSource().buildDetails(httpServletRequest));
+                    SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Ignoring an invalid bearer token: " + e.getMessage());
             }
         }
         filterChain.doFilter(httpServletRequest, httpServletResponse);
     }
+
+    /**
+     * Returns the bearer token of the request, or null when it has none.
+     */
+    static String bearerToken(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader("Authorization");
+        return authorizationHeader != null && authorizationHeader.startsWith(BEARER_PREFIX)
+                ? authorizationHeader.substring(BEARER_PREFIX.length())
+                : null;
+    }
 }
@@ -1,47 +1,76 @@
 package com.example.bank_app.Security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.Date;
+import java.util.UUID;
 
 
+/**
+ * Issues and verifies access tokens. A token carries the user's roles and account id as claims, so a request can be
+ * authorized from the token alone; a change of roles takes effect when the user next logs in. Each token gets a
+ * random id, by which it can be revoked before it expires.
+ */
 @Service
 public class JwtUtil {
 
+    public static final String ROLES_CLAIM = "roles";
+    public static final String ACCOUNT_ID_CLAIM = "accountId";
+    public static final String SESSION_ID_CLAIM = "sid";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationInMillis;
 
+    /**
+     * Issues a token that names the user but grants no authorities.
+     */
     public String generateToken(String username) {
-        return Jwts.builder()
+        return generateToken(username, null, null);
+    }
+
+    /**
+     * Issues a token for the user with the given comma-separated roles and account id, either of which may be null.
+     */
+    public String generateToken(String username, String roles, Long accountId) {
+        return generateToken(username, roles, accountId, null);
+    }
+
+    /**
+     * Issues a token as above that also names the refresh session it belongs to, so logging out can end the session.
+     */
+    public String generateToken(String username, String roles, Long accountId, String sessionId) {
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMillis))
-                .signWith(SignatureAlgorithm.HS256, secretKey)
-                .compact();
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMillis));
+        if (roles != null) {
+            builder.claim(ROLES_CLAIM, roles);
+        }
+        if (accountId != null) {
+            builder.claim(ACCOUNT_ID_CLAIM, accountId);
+        }
+        if (sessionId != null) {
+            builder.claim(SESSION_ID_CLAIM, sessionId);
+        }
+        return builder.signWith(SignatureAlgorithm.HS256, secretKey).compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token and returns its claims. Throws
+     * {@link io.jsonwebtoken.JwtException} when the token is malformed, forged or expired.
+     */
     public Claims extractClaims(String token) {
         return Jwts.parser()
                 .setSigningKey(secretKey)
                 .parseClaimsJws(token)
                 .getBody();
     }
-
-    public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
-    }
-
-    public boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
-    }
-
-    public boolean validateToken(String token, String username) {
-        return username.equals(extractUsername(token)) && !isTokenExpired(token);
-    }
 }
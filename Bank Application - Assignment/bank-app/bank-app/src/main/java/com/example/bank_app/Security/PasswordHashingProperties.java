@@ -0,0 +1,26 @@
+package com.example.bank_app.Security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.password")
+public class PasswordHashingProperties {
+
+    private static final long DEFAULT_TARGET_LATENCY_MILLIS = 250;
+    private static final int DEFAULT_MIN_COST = 10;
+    private static final int DEFAULT_MAX_COST = 16;
+
+    /**
+     * BCrypt cost for new hashes; zero means the highest cost between the bounds that hashes within the target
+     * latency on this machine, measured at startup.
+     */
+    private int cost;
+    private Duration targetLatency = Duration.ofMillis(DEFAULT_TARGET_LATENCY_MILLIS);
+    private int minCost = DEFAULT_MIN_COST;
+    private int maxCost = DEFAULT_MAX_COST;
+}
@@ -0,0 +1,67 @@
+package com.example.bank_app.Security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class RefreshTokenJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A stored refresh token together with what a new access token needs about its user. The account id is null for
+     * users without an account.
+     */
+    public record StoredRefreshToken(long id, String sessionId, long userId, long expiresAt, boolean used,
+                                     String username, String roles, Long accountId) {
+    }
+
+    @Autowired
+    public RefreshTokenJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(String tokenHash, String sessionId, long userId, long expiresAt) {
+        jdbcTemplate.update("INSERT INTO refresh_token (token_hash, session_id, user_id, expires_at, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                tokenHash, sessionId, userId, new Timestamp(expiresAt), new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * Looks the token up by its hash, joined with its user and account in the same statement. Returns null when there
+     * is no such token or its user has been deleted.
+     */
+    public StoredRefreshToken findByHash(String tokenHash) {
+        List<StoredRefreshToken> tokens = jdbcTemplate.query(
+                "SELECT r.id, r.session_id, r.user_id, r.expires_at, r.used_at, u.username, u.roles, a.id AS account_id "
+                        + "FROM refresh_token r JOIN users u ON u.id = r.user_id "
+                        + "LEFT JOIN account a ON a.user_id = u.id WHERE r.token_hash = ?",
+                (rs, rowNum) -> new StoredRefreshToken(rs.getLong("id"), rs.getString("session_id"),
+                        rs.getLong("user_id"), rs.getTimestamp("expires_at").getTime(),
+                        rs.getTimestamp("used_at") != null, rs.getString("username"), rs.getString("roles"),
+                        rs.getObject("account_id", Long.class)),
+                tokenHash);
+        return tokens.isEmpty() ? null : tokens.get(0);
+    }
+
+    /**
+     * Marks the token used. Returns false when it already was, so of two concurrent refreshes with the same token only
+     * one succeeds.
+     */
+    public boolean markUsed(long id) {
+        return jdbcTemplate.update("UPDATE refresh_token SET used_at = ? WHERE id = ? AND used_at IS NULL",
+                new Timestamp(System.currentTimeMillis()), id) == 1;
+    }
+
+    public int deleteSession(String sessionId) {
+        return jdbcTemplate.update("DELETE FROM refresh_token WHERE session_id = ?", sessionId);
+    }
+
+    public int deleteExpired(long now) {
+        return jdbcTemplate.update("DELETE FROM refresh_token WHERE expires_at < ?", new Timestamp(now));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.bank_app.Security;
+
+import com.example.bank_app.User.User;
+import com.example.bank_app.exceptionhandling.InvalidRefreshTokenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens, so a client renews its short-lived access token with one indexed lookup and an
+ * HMAC instead of sending the password through BCrypt again. Refresh tokens are random and stored only as an HMAC of
+ * their value. Each login starts a session, named by the access token's {@code sid} claim; every refresh uses up the
+ * presented token and hands out the next one in the same session.
+ *
+ * <p>A refresh token presented a second time means it was copied, so the whole session is ended and both holders have
+ * to log in again. Outcomes are counted as {@code auth.refresh}, tagged {@code result=success}, {@code invalid} or
+ * {@code reused}.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String REFRESHES = "auth.refresh";
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenJdbcRepository refreshTokenJdbcRepository;
+    private final JwtUtil jwtUtil;
+    private final SecretKeySpec hashKey;
+    private final long expirationMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final Counter succeeded;
+    private final Counter invalid;
+    private final Counter reused;
+
+    /**
+     * A new access token and the refresh token to renew it with.
+     */
+    public record IssuedTokens(String accessToken, String refreshToken) {
+    }
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenJdbcRepository refreshTokenJdbcRepository, JwtUtil jwtUtil,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.refresh.secret:${jwt.secret}}") String secret,
+                               @Value("${jwt.refresh.expiration:1209600000}") long expirationMillis) {
+        this.refreshTokenJdbcRepository = refreshTokenJdbcRepository;
+        this.jwtUtil = jwtUtil;
+        this.hashKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.expirationMillis = expirationMillis;
+        this.succeeded = meterRegistry.counter(REFRESHES, "result", "success");
+        this.invalid = meterRegistry.counter(REFRESHES, "result", "invalid");
+        this.reused = meterRegistry.counter(REFRESHES, "result", "reused");
+    }
+
+    /**
+     * Starts a session for a user who has just logged in.
+     */
+    public IssuedTokens issue(User user, Long accountId) {
+        String sessionId = UUID.randomUUID().toString();
+        String refreshToken = newRefreshToken(sessionId, user.getId());
+        return new IssuedTokens(jwtUtil.generateToken(user.getUsername(), user.getRoles(), accountId, sessionId),
+                refreshToken);
+    }
+
+    /**
+     * Uses up the refresh token and returns a new access token and the next refresh token. Throws
+     * {@link InvalidRefreshTokenException} when the token is unknown, expired or has been used before; in the last
+     * case the session is ended as well.
+     */
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public IssuedTokens refresh(String refreshToken) {
+        RefreshTokenJdbcRepository.StoredRefreshToken stored = refreshToken != null && !refreshToken.isBlank()
+                ? refreshTokenJdbcRepository.findByHash(hash(refreshToken))
+                : null;
+        if (stored == null || stored.expiresAt() <= System.currentTimeMillis()) {
+            invalid.increment();
+            throw new InvalidRefreshTokenException("Invalid or expired refresh token");
+        }
+        if (stored.used() || !refreshTokenJdbcRepository.markUsed(stored.id())) {
+            refreshTokenJdbcRepository.deleteSession(stored.sessionId());
+            reused.increment();
+            LOGGER.warn("Refresh token reused for user: {}, ending the session", stored.username());
+            throw new InvalidRefreshTokenException("Refresh token has already been used, log in again");
+        }
+
+        String next = newRefreshToken(stored.sessionId(), stored.userId());
+        succeeded.increment();
+        return new IssuedTokens(jwtUtil.generateToken(stored.username(), stored.roles(), stored.accountId(),
+                stored.sessionId()), next);
+    }
+
+    /**
+     * Ends the session, so none of its refresh tokens can be used again.
+     */
+    public void endSession(String sessionId) {
+        refreshTokenJdbcRepository.deleteSession(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = refreshTokenJdbcRepository.deleteExpired(System.currentTimeMillis());
+        if (purged > 0) {
+            LOGGER.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private String newRefreshToken(String sessionId, long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenJdbcRepository.insert(hash(refreshToken), sessionId, userId,
+                System.currentTimeMillis() + expirationMillis);
+        return refreshToken;
+    }
+
+    private String hash(String refreshToken) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hashKey);
+            return HexFormat.of().formatHex(mac.doFinal(refreshToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
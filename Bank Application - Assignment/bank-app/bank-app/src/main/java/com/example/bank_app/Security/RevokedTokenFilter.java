@@ -0,0 +1,89 @@
+package com.example.bank_app.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Blocked Bloom filter over revoked token ids, ten bits per expected token. Each id maps to one 512-bit block, so a
+ * token that was never revoked is usually cleared after reading a single cache line. Unlike the account number index
+ * the filter takes additions while it is being read; past its capacity it still answers correctly, only with more
+ * false positives, until the owner builds a larger one.
+ */
+final class RevokedTokenFilter {
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final int BITS_PER_KEY = 10;
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * Long.SIZE;
+    private static final int PROBES = 7;
+    private static final int PROBE_BITS = 9;
+    private static final int PROBE_MASK = BLOCK_BITS - 1;
+    private static final int WORD_SHIFT = 6;
+    private static final int MIX_SHIFT = 33;
+    private static final long MIX_MULTIPLIER_1 = 0xFF51AFD7ED558CCDL;
+    private static final long MIX_MULTIPLIER_2 = 0xC4CEB9FE1A85EC53L;
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final AtomicLongArray words;
+    private final int blocks;
+    private final long capacity;
+
+    RevokedTokenFilter(long expectedTokens) {
+        this.capacity = Math.max(expectedTokens, MIN_CAPACITY);
+        this.blocks = (int) ((capacity * BITS_PER_KEY + BLOCK_BITS - 1) / BLOCK_BITS);
+        this.words = new AtomicLongArray(blocks * BLOCK_WORDS);
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    boolean mightContain(String tokenId) {
+        long hash = hash(tokenId);
+        int base = blockOf(hash);
+        long probes = mix(hash);
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (int) (probes >>> (i * PROBE_BITS)) & PROBE_MASK;
+            if ((words.get(base + (bit >>> WORD_SHIFT)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void add(String tokenId) {
+        long hash = hash(tokenId);
+        int base = blockOf(hash);
+        long probes = mix(hash);
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (int) (probes >>> (i * PROBE_BITS)) & PROBE_MASK;
+            long mask = 1L << bit;
+            words.getAndUpdate(base + (bit >>> WORD_SHIFT), word -> word | mask);
+        }
+    }
+
+    private int blockOf(long hash) {
+        return (int) (((hash >>> Integer.SIZE) * blocks) >>> Integer.SIZE) * BLOCK_WORDS;
+    }
+
+    // FNV-1a over the id's bytes, then a finalizer so that ids differing in one character spread over all bits
+    private static long hash(String tokenId) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : tokenId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & BYTE_MASK;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_2;
+        return hash ^ hash >>> MIX_SHIFT;
+    }
+}
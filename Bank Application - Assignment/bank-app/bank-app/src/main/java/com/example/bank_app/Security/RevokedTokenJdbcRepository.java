@@ -0,0 +1,57 @@
+package com.example.bank_app.Security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+@Repository
+public class RevokedTokenJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A row of the revocation table: the token's id and when the token itself expires, in epoch milliseconds.
+     */
+    public record RevokedToken(long id, String tokenId, long expiresAt) {
+    }
+
+    @Autowired
+    public RevokedTokenJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records the token as revoked. Returns false when it already was, for instance by another instance.
+     */
+    public boolean insert(String tokenId, long expiresAt) {
+        try {
+            jdbcTemplate.update("INSERT INTO revoked_token (token_id, expires_at, revoked_at) VALUES (?, ?, ?)",
+                    tokenId, new Timestamp(expiresAt), new Timestamp(System.currentTimeMillis()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Streams every revoked token with a row id above {@code afterId}.
+     */
+    public void loadRevokedTokens(long afterId, Consumer<RevokedToken> consumer) {
+        jdbcTemplate.query("SELECT id, token_id, expires_at FROM revoked_token WHERE id > ?",
+                rs -> {
+                    consumer.accept(new RevokedToken(rs.getLong("id"), rs.getString("token_id"),
+                            rs.getTimestamp("expires_at").getTime()));
+                }, afterId);
+    }
+
+    /**
+     * Deletes the rows of tokens that expired before {@code now}; they are rejected on expiry alone.
+     */
+    public int deleteExpired(long now) {
+        return jdbcTemplate.update("DELETE FROM revoked_token WHERE expires_at < ?", new Timestamp(now));
+    }
+}
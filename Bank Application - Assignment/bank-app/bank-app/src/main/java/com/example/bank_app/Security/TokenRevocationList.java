@@ -0,0 +1,175 @@
+package com.example.bank_app.Security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tokens revoked before they expire, kept in the {@code revoked_token} table and mirrored in memory so that a request
+ * is checked without a database round trip. A {@link RevokedTokenFilter} answers for almost every token; only a filter
+ * hit consults the exact set of revoked ids behind it.
+ *
+ * <p>Revocations made on this instance take effect at once. Those made on other instances are picked up by a frequent
+ * scan of the rows added since the last one, and the whole list is reloaded now and then, which also drops tokens that
+ * have expired since. Checks are counted as {@code jwt.revocation.checks}, tagged {@code result=clear}, {@code revoked}
+ * or {@code false_positive}.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationList.class);
+    private static final String CHECKS = "jwt.revocation.checks";
+    private static final int GROWTH_FACTOR = 2;
+
+    private final RevokedTokenJdbcRepository revokedTokenJdbcRepository;
+    private final long refreshOverlap;
+    private final Counter clear;
+    private final Counter revoked;
+    private final Counter falsePositives;
+    private final Object lock = new Object();
+    private volatile Revocations revocations = Revocations.of(new ConcurrentHashMap<>());
+    private volatile long highestId;
+
+    /**
+     * The filter and the exact set of revoked token ids, mapped to when each token expires. Both are only added to
+     * while holding the lock; readers take neither.
+     */
+    private record Revocations(RevokedTokenFilter filter, Map<String, Long> tokens) {
+
+        static Revocations of(Map<String, Long> tokens) {
+            RevokedTokenFilter filter = new RevokedTokenFilter((long) tokens.size() * GROWTH_FACTOR);
+            tokens.keySet().forEach(filter::add);
+            return new Revocations(filter, tokens);
+        }
+
+        void add(String tokenId, long expiresAt) {
+            tokens.put(tokenId, expiresAt);
+            filter.add(tokenId);
+        }
+    }
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenJdbcRepository revokedTokenJdbcRepository, MeterRegistry meterRegistry,
+                               @Value("${jwt.revocation.refresh-overlap:1000}") long refreshOverlap) {
+        this.revokedTokenJdbcRepository = revokedTokenJdbcRepository;
+        this.refreshOverlap = refreshOverlap;
+        this.clear = meterRegistry.counter(CHECKS, "result", "clear");
+        this.revoked = meterRegistry.counter(CHECKS, "result", "revoked");
+        this.falsePositives = meterRegistry.counter(CHECKS, "result", "false_positive");
+        Gauge.builder("jwt.revocation.size", this, TokenRevocationList::size).register(meterRegistry);
+    }
+
+    /**
+     * Loads the list before the first request is served, since an empty list would let revoked tokens through.
+     */
+    @PostConstruct
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Returns whether the token with the given id has been revoked. A token without an id cannot be revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Revocations current = revocations;
+        if (!current.filter().mightContain(tokenId)) {
+            clear.increment();
+            return false;
+        }
+        if (current.tokens().containsKey(tokenId)) {
+            revoked.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revokes the token with the given id until it expires, in epoch milliseconds.
+     */
+    public void revoke(String tokenId, long expiresAt) {
+        if (revocations.tokens().containsKey(tokenId)) {
+            return;
+        }
+        revokedTokenJdbcRepository.insert(tokenId, expiresAt);
+        synchronized (lock) {
+            revocations.add(tokenId, expiresAt);
+        }
+    }
+
+    public long size() {
+        return revocations.tokens().size();
+    }
+
+    /**
+     * Picks up tokens revoked on other instances since the last scan. Row ids are assigned at insert but become visible
+     * at commit, so the scan starts {@code refresh-overlap} ids below the highest id seen. When the list has outgrown
+     * its filter, a larger one is built from the exact set.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:PT5S}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        AtomicLong highest = new AtomicLong(highestId);
+        revokedTokenJdbcRepository.loadRevokedTokens(Math.max(0L, highest.get() - refreshOverlap), token -> {
+            highest.accumulateAndGet(token.id(), Math::max);
+            if (token.expiresAt() > now && !revocations.tokens().containsKey(token.tokenId())) {
+                synchronized (lock) {
+                    revocations.add(token.tokenId(), token.expiresAt());
+                }
+            }
+        });
+        synchronized (lock) {
+            highestId = Math.max(highestId, highest.get());
+            if (revocations.tokens().size() > revocations.filter().capacity()) {
+                revocations = Revocations.of(revocations.tokens());
+            }
+        }
+    }
+
+    /**
+     * Deletes the rows of expired tokens and reloads the rest into a fresh filter and set. Tokens revoked on this
+     * instance while the table was read are carried over, so none is lost when the new list replaces the old.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:PT1H}",
+            initialDelayString = "${jwt.revocation.rebuild-interval:PT1H}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        int purged = revokedTokenJdbcRepository.deleteExpired(now);
+        Map<String, Long> tokens = new ConcurrentHashMap<>();
+        AtomicLong highest = new AtomicLong();
+        revokedTokenJdbcRepository.loadRevokedTokens(0L, token -> {
+            highest.accumulateAndGet(token.id(), Math::max);
+            if (token.expiresAt() > now) {
+                tokens.put(token.tokenId(), token.expiresAt());
+            }
+        });
+
+        synchronized (lock) {
+            revocations.tokens().forEach((tokenId, expiresAt) -> {
+                if (expiresAt > now) {
+                    tokens.putIfAbsent(tokenId, expiresAt);
+                }
+            });
+            revocations = Revocations.of(tokens);
+            highestId = Math.max(highestId, highest.get());
+        }
+        LOGGER.info("Token revocation list loaded {} tokens and purged {} expired in {} ms", tokens.size(), purged,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+}
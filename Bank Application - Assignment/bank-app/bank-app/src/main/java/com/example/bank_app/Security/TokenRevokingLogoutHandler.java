@@ -0,0 +1,54 @@
+package com.example.bank_app.Security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revokes the bearer token a logout request carries, so it cannot be used again even though it has not expired, and
+ * ends the refresh session it belongs to. Only a token that verifies is revoked; a logout without one still succeeds,
+ * with nothing to revoke.
+ */
+@Component
+public class TokenRevokingLogoutHandler implements LogoutHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevokingLogoutHandler.class);
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenService refreshTokenService;
+
+    @Autowired
+    public TokenRevokingLogoutHandler(VerifiedTokenCache verifiedTokenCache, TokenRevocationList tokenRevocationList,
+                                      RefreshTokenService refreshTokenService) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        String token = JwtRequestFilter.bearerToken(request);
+        if (token == null) {
+            return;
+        }
+        try {
+            VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.verify(token);
+            if (verified.tokenId() != null) {
+                tokenRevocationList.revoke(verified.tokenId(), verified.expiresAt());
+                LOGGER.info("Revoked the token of user: {}", verified.principal().getName());
+            }
+            if (verified.sessionId() != null) {
+                refreshTokenService.endSession(verified.sessionId());
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            LOGGER.debug("Nothing to revoke for an invalid bearer token: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.bank_app.Security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens that passed verification, so a client calling many times with the same token pays for the
+ * signature check and claim decoding once. Entries are keyed by a SHA-256 digest of the token rather than the token
+ * itself, expire when the token does, and are bounded by {@code jwt.cache.max-size}. A token that fails verification is
+ * never cached.
+ *
+ * <p>Hits, misses, evictions and size are published as the {@code cache.*} meters tagged {@code cache=jwt.tokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<TokenDigest, VerifiedToken> tokens;
+
+    /**
+     * The first 128 bits of the token's SHA-256 digest.
+     */
+    private record TokenDigest(long high, long low) {
+    }
+
+    /**
+     * A verified token: its id, who it names, what it grants, when it expires, in epoch milliseconds, and the refresh
+     * session it belongs to. Tokens issued before ids were added have none, and only tokens from a login have a
+     * session.
+     */
+    public record VerifiedToken(String tokenId, JwtPrincipal principal, List<GrantedAuthority> authorities,
+                                long expiresAt, String sessionId) {
+    }
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil, MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.max-size:100000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<TokenDigest, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+                        long remaining = value.expiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "jwt.tokens");
+    }
+
+    /**
+     * Returns the verified contents of the token, checking it only if it is not cached. Throws
+     * {@link io.jsonwebtoken.JwtException} when the token is malformed, forged or expired.
+     */
+    public VerifiedToken verify(String token) {
+        return tokens.get(digest(token), key -> {
+            Claims claims = jwtUtil.extractClaims(token);
+            return new VerifiedToken(claims.getId(),
+                    new JwtPrincipal(claims.getSubject(), claims.get(JwtUtil.ACCOUNT_ID_CLAIM, Long.class)),
+                    AuthorityUtils.commaSeparatedStringToAuthorityList(claims.get(JwtUtil.ROLES_CLAIM, String.class)),
+                    claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE,
+                    claims.get(JwtUtil.SESSION_ID_CLAIM, String.class));
+        });
+    }
+
+    public long size() {
+        return tokens.estimatedSize();
+    }
+
+    private static TokenDigest digest(String token) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
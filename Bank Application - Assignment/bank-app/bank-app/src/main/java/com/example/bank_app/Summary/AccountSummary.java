@@ -0,0 +1,20 @@
+package com.example.bank_app.Summary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Debit and credit totals of an account over the days {@code from} to {@code to}, both inclusive.
+ */
+public record AccountSummary(LocalDate from, LocalDate to, BigDecimal debitTotal, long debitCount,
+                             BigDecimal creditTotal, long creditCount) {
+
+    static AccountSummary empty(LocalDate from, LocalDate to) {
+        return new AccountSummary(from, to, BigDecimal.ZERO, 0L, BigDecimal.ZERO, 0L);
+    }
+
+    AccountSummary add(AccountSummary other) {
+        return new AccountSummary(from, to, debitTotal.add(other.debitTotal), debitCount + other.debitCount,
+                creditTotal.add(other.creditTotal), creditCount + other.creditCount);
+    }
+}
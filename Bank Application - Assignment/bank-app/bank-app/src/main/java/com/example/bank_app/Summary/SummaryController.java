@@ -0,0 +1,59 @@
+package com.example.bank_app.Summary;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/v2")
+public class SummaryController {
+
+    private static final int DEFAULT_DAILY_DAYS = 30;
+
+    private final SummaryService summaryService;
+
+    @Autowired
+    public SummaryController(SummaryService summaryService) {
+        this.summaryService = Objects.requireNonNull(summaryService, "SummaryService must not be null");
+    }
+
+    @GetMapping("/accounts/{accountId}/summary")
+    public ResponseEntity<AccountSummary> getSummary(@PathVariable Long accountId,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        return ResponseEntity.ok(summaryService.getSummary(accountId, start, end));
+    }
+
+    @GetMapping("/accounts/{accountId}/summary/daily")
+    public ResponseEntity<List<AccountSummary>> getDailySummaries(@PathVariable Long accountId,
+                                                                  @RequestParam(required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                                  LocalDate from,
+                                                                  @RequestParam(required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                                  LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAILY_DAYS - 1);
+        return ResponseEntity.ok(summaryService.getDailySummaries(accountId, start, end));
+    }
+
+    @GetMapping("/accounts/{accountId}/summary/monthly")
+    public ResponseEntity<List<AccountSummary>> getMonthlySummaries(@PathVariable Long accountId,
+                                                                    @RequestParam(required = false) Integer year) {
+        int summaryYear = year != null ? year : LocalDate.now().getYear();
+        return ResponseEntity.ok(summaryService.getMonthlySummaries(accountId, summaryYear));
+    }
+}
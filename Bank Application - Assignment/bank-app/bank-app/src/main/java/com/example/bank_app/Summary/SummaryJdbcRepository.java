@@ -0,0 +1,128 @@
+package com.example.bank_app.Summary;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class SummaryJdbcRepository {
+
+    private static final String DAILY_TOTALS = "SUM(CASE WHEN indicator = 'DB' THEN amount ELSE 0 END) AS debit_total, "
+            + "SUM(CASE WHEN indicator = 'DB' THEN 1 ELSE 0 END) AS debit_count, "
+            + "SUM(CASE WHEN indicator = 'DB' THEN 0 ELSE amount END) AS credit_total, "
+            + "SUM(CASE WHEN indicator = 'DB' THEN 0 ELSE 1 END) AS credit_count";
+
+    private static final RowMapper<AccountSummary> DAY_MAPPER = (rs, rowNum) -> {
+        LocalDate day = rs.getDate("posting_day").toLocalDate();
+        return new AccountSummary(day, day, rs.getBigDecimal("debit_total"), rs.getLong("debit_count"),
+                rs.getBigDecimal("credit_total"), rs.getLong("credit_count"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SummaryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long findWatermark() {
+        Long transactionId = jdbcTemplate.queryForObject("SELECT transaction_id FROM summary_watermark WHERE id = 1",
+                Long.class);
+        return transactionId != null ? transactionId : 0L;
+    }
+
+    /**
+     * Reads the watermark and locks it, so only one rollup runs at a time across instances.
+     */
+    public long lockWatermark() {
+        Long transactionId = jdbcTemplate.queryForObject(
+                "SELECT transaction_id FROM summary_watermark WHERE id = 1 FOR UPDATE", Long.class);
+        return transactionId != null ? transactionId : 0L;
+    }
+
+    public void saveWatermark(long transactionId) {
+        jdbcTemplate.update("UPDATE summary_watermark SET transaction_id = ? WHERE id = 1", transactionId);
+    }
+
+    /**
+     * Returns the highest id after {@code afterId} such that no transaction in between is dated after {@code cutoff},
+     * or {@code afterId} when there is none. The first younger transaction ends the range, even when later ids are
+     * older, so rows written with an earlier clock on another instance cannot carry the range past it. Only the primary
+     * key after {@code afterId} is read.
+     */
+    public long lastTransactionIdBefore(long afterId, LocalDateTime cutoff) {
+        Long young = jdbcTemplate.queryForObject("SELECT MIN(id) FROM transaction WHERE id > ? AND date > ?",
+                Long.class, afterId, Timestamp.valueOf(cutoff));
+        if (young != null) {
+            return young - 1;
+        }
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(id) FROM transaction WHERE id > ?", Long.class, afterId);
+        return last != null ? last : afterId;
+    }
+
+    /**
+     * Aggregates transactions with {@code afterId < id <= upToId} per account and day.
+     */
+    public void sumTransactions(long afterId, long upToId, Map<Long, List<AccountSummary>> days) {
+        jdbcTemplate.query("SELECT account_id, CAST(date AS DATE) AS posting_day, " + DAILY_TOTALS
+                        + " FROM transaction WHERE id > ? AND id <= ? GROUP BY account_id, CAST(date AS DATE)",
+                rs -> {
+                    days.computeIfAbsent(rs.getLong("account_id"), id -> new ArrayList<>())
+                            .add(DAY_MAPPER.mapRow(rs, 0));
+                }, afterId, upToId);
+    }
+
+    /**
+     * Aggregates one account's transactions after {@code afterId} per day. The scan runs on the account's entries in
+     * {@code idx_transaction_account_date_balance} (account_id, date, id, balance_after) for the date range. The id is
+     * in the index, so the entries are checked against {@code afterId} there, and only rows not yet rolled up are read
+     * from the table.
+     */
+    public List<AccountSummary> sumTail(long accountId, long afterId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT CAST(date AS DATE) AS posting_day, " + DAILY_TOTALS
+                        + " FROM transaction WHERE id > ? AND account_id = ? AND date >= ? AND date < ?"
+                        + " GROUP BY CAST(date AS DATE)",
+                DAY_MAPPER, afterId, accountId, Timestamp.valueOf(from.atStartOfDay()),
+                Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Adds the totals onto the existing daily rows, creating rows for days seen for the first time.
+     */
+    public void addDays(Map<Long, List<AccountSummary>> days) {
+        List<Object[]> args = new ArrayList<>();
+        days.forEach((accountId, summaries) -> summaries.forEach(day -> args.add(new Object[] {
+                day.debitTotal(), day.debitCount(), day.creditTotal(), day.creditCount(), accountId,
+                Date.valueOf(day.from())})));
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE account_daily_summary SET debit_total = debit_total + ?, "
+                + "debit_count = debit_count + ?, credit_total = credit_total + ?, credit_count = credit_count + ? "
+                + "WHERE account_id = ? AND posting_day = ?", args);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                inserts.add(args.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO account_daily_summary (debit_total, debit_count, credit_total, "
+                    + "credit_count, account_id, posting_day) VALUES (?, ?, ?, ?, ?, ?)", inserts);
+        }
+    }
+
+    public List<AccountSummary> findDays(long accountId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT posting_day, debit_total, debit_count, credit_total, credit_count "
+                        + "FROM account_daily_summary WHERE account_id = ? AND posting_day >= ? AND posting_day <= ? "
+                        + "ORDER BY posting_day",
+                DAY_MAPPER, accountId, Date.valueOf(from), Date.valueOf(to));
+    }
+}
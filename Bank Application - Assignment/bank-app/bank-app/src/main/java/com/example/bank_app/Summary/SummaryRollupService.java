@@ -0,0 +1,70 @@
+package com.example.bank_app.Summary;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds new transactions into the per-account daily rollup. The job follows transaction ids with a watermark and
+ * commits one id range at a time, so the first run also backfills existing history in bounded chunks.
+ *
+ * <p>Transactions younger than {@code summary.rollup.lag}, and every id after the first of them, are left for a later
+ * run so an id that was assigned but not yet committed is not skipped. Edits to already rolled up transactions are not reflected.
+ */
+@Service
+public class SummaryRollupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SummaryRollupService.class);
+
+    private final SummaryJdbcRepository summaryJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lag;
+    private final int batchSize;
+
+    @Autowired
+    public SummaryRollupService(SummaryJdbcRepository summaryJdbcRepository, PlatformTransactionManager transactionManager,
+                                @Value("${summary.rollup.lag:PT1M}") Duration lag,
+                                @Value("${summary.rollup.batch-size:50000}") int batchSize) {
+        this.summaryJdbcRepository = summaryJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lag = lag;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${summary.rollup.interval:PT1M}")
+    public void rollUp() {
+        boolean more;
+        do {
+            more = Boolean.TRUE.equals(transactionTemplate.execute(status -> rollUpBatch()));
+        } while (more);
+    }
+
+    /**
+     * Rolls up the next id range and returns whether eligible transactions remain.
+     */
+    private boolean rollUpBatch() {
+        long watermark = summaryJdbcRepository.lockWatermark();
+        long eligible = summaryJdbcRepository.lastTransactionIdBefore(watermark, LocalDateTime.now().minus(lag));
+        if (eligible <= watermark) {
+            return false;
+        }
+        long upTo = Math.min(eligible, watermark + batchSize);
+        Map<Long, List<AccountSummary>> days = new HashMap<>();
+        summaryJdbcRepository.sumTransactions(watermark, upTo, days);
+        summaryJdbcRepository.addDays(days);
+        summaryJdbcRepository.saveWatermark(upTo);
+        LOGGER.debug("Rolled up transactions {} to {} for {} accounts", watermark + 1, upTo, days.size());
+        return upTo < eligible;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bank_app.Summary;
+
+import com.example.bank_app.exceptionhandling.InvalidPageRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers summary queries from the daily rollup plus the transactions it has not picked up yet, so results are
+ * current while the cost stays proportional to the number of days.
+ */
+@Service
+public class SummaryService {
+
+    private static final int MAX_DAILY_RANGE_DAYS = 366;
+
+    private final SummaryJdbcRepository summaryJdbcRepository;
+
+    @Autowired
+    public SummaryService(SummaryJdbcRepository summaryJdbcRepository) {
+        this.summaryJdbcRepository = summaryJdbcRepository;
+    }
+
+    public AccountSummary getSummary(Long accountId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        AccountSummary summary = AccountSummary.empty(from, to);
+        for (AccountSummary day : days(accountId, from, to).values()) {
+            summary = summary.add(day);
+        }
+        return summary;
+    }
+
+    public List<AccountSummary> getDailySummaries(Long accountId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (from.plusDays(MAX_DAILY_RANGE_DAYS).isBefore(to)) {
+            throw new InvalidPageRequestException("Daily summaries cover at most " + MAX_DAILY_RANGE_DAYS + " days");
+        }
+        return new ArrayList<>(days(accountId, from, to).values());
+    }
+
+    public List<AccountSummary> getMonthlySummaries(Long accountId, int year) {
+        Map<YearMonth, AccountSummary> months = new TreeMap<>();
+        for (YearMonth month = YearMonth.of(year, 1); month.getYear() == year; month = month.plusMonths(1)) {
+            months.put(month, AccountSummary.empty(month.atDay(1), month.atEndOfMonth()));
+        }
+        LocalDate firstDay = LocalDate.ofYearDay(year, 1);
+        days(accountId, firstDay, firstDay.with(TemporalAdjusters.lastDayOfYear()))
+                .forEach((day, summary) -> months.merge(YearMonth.from(day), summary, AccountSummary::add));
+        return new ArrayList<>(months.values());
+    }
+
+    /**
+     * Merges the rolled up days with the tail after the watermark. If the rollup advanced while reading, the two
+     * reads may overlap, so they are repeated.
+     */
+    private TreeMap<LocalDate, AccountSummary> days(Long accountId, LocalDate from, LocalDate to) {
+        TreeMap<LocalDate, AccountSummary> days = new TreeMap<>();
+        long watermark;
+        do {
+            days.clear();
+            watermark = summaryJdbcRepository.findWatermark();
+            for (AccountSummary day : summaryJdbcRepository.findDays(accountId, from, to)) {
+                days.put(day.from(), day);
+            }
+            for (AccountSummary day : summaryJdbcRepository.sumTail(accountId, watermark, from, to)) {
+                days.merge(day.from(), day, AccountSummary::add);
+            }
+        } while (summaryJdbcRepository.findWatermark() != watermark);
+        return days;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidPageRequestException("'from' must not be after 'to'");
+        }
+    }
+}
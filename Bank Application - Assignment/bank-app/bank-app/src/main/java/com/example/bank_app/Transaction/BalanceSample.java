@@ -0,0 +1,10 @@
+package com.example.bank_app.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The running balance recorded on one posting.
+ */
+public record BalanceSample(Long transactionId, LocalDateTime date, BigDecimal balanceAfter) {
+}
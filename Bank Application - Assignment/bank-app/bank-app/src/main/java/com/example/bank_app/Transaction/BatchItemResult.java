@@ -0,0 +1,25 @@
+package com.example.bank_app.Transaction;
+
+import lombok.Getter;
+
+@Getter
+public class BatchItemResult {
+
+    public enum Status {
+        POSTED,
+        REJECTED,
+        NOT_POSTED
+    }
+
+    private final int index;
+    private final Status status;
+    private final Long transactionId;
+    private final String message;
+
+    public BatchItemResult(int index, Status status, Long transactionId, String message) {
+        this.index = index;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.message = message;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bank_app.Transaction;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class BatchTransferResponse {
+
+    private final boolean posted;
+    private final List<BatchItemResult> results;
+
+    public BatchTransferResponse(boolean posted, List<BatchItemResult> results) {
+        this.posted = posted;
+        this.results = List.copyOf(results);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bank_app.Transaction;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> content;
+
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = List.copyOf(content);
+        this.nextCursor = nextCursor;
+    }
+}
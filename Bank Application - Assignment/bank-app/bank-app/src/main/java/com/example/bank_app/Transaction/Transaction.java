@@ -2,6 +2,7 @@ package com.example.bank_app.Transaction;
 
 import com.example.bank_app.Account.Account;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -18,6 +19,8 @@ import java.time.LocalDateTime;
 @Entity(name = "transaction")
 public class Transaction {
 
+    // an identity column rather than a pooled block, so ids stay close to insert order across instances; concurrent
+    // commits still make them visible out of order, so the highest id read is never a watermark on its own
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,7 +35,9 @@ public class Transaction {
 
     private String indicator;
 
-    @ManyToOne
+    private BigDecimal balanceAfter;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
 
@@ -55,6 +60,7 @@ public class Transaction {
         this.amount = other.amount;
         this.receiverAccountNumber = other.receiverAccountNumber;
         this.indicator = other.indicator;
+        this.balanceAfter = other.balanceAfter;
         this.account = other.account != null ? new Account(other.account) : null;
     }
 }
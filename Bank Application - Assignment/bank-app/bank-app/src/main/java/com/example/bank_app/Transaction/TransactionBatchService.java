@@ -0,0 +1,181 @@
+package com.example.bank_app.Transaction;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Ledger.LedgerEventRepository;
+import com.example.bank_app.exceptionhandling.InvalidBatchRequestException;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Posts a list of transfers in one database transaction with the same rules as
+ * {@link TransactionService#saveTransaction}. Items are applied in order against running balances, so a later item
+ * may spend funds credited by an earlier one. Either every item is posted or none is.
+ */
+@Service
+public class TransactionBatchService {
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final LedgerEventRepository ledgerEventRepository;
+    private final int maxBatchSize;
+    private final boolean ledgerEngineEnabled;
+
+    @Autowired
+    public TransactionBatchService(TransactionJdbcRepository transactionJdbcRepository,
+                                   LedgerEventRepository ledgerEventRepository,
+                                   @Value("${transactions.batch.max-size:10000}") int maxBatchSize,
+                                   @Value("${ledger.engine.enabled:false}") boolean ledgerEngineEnabled) {
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.maxBatchSize = maxBatchSize;
+        this.ledgerEngineEnabled = ledgerEngineEnabled;
+    }
+
+    @Transactional
+    public BatchTransferResponse saveTransactions(List<Transaction> transactions) {
+        if (ledgerEngineEnabled) {
+            throw new InvalidBatchRequestException("Batch transfers are not available while the ledger engine is enabled");
+        }
+        if (transactions == null || transactions.isEmpty()) {
+            throw new InvalidBatchRequestException("Batch must contain at least one transaction");
+        }
+        if (transactions.size() > maxBatchSize) {
+            throw new InvalidBatchRequestException("Batch must not contain more than " + maxBatchSize + " transactions");
+        }
+
+        Set<Long> senderIds = new HashSet<>();
+        Set<String> receiverNumbers = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            Long senderId = senderIdOf(transaction);
+            if (senderId != null) {
+                senderIds.add(senderId);
+            }
+            if (transaction.getReceiverAccountNumber() != null) {
+                receiverNumbers.add(transaction.getReceiverAccountNumber());
+            }
+        }
+
+        Map<Long, String> senderNumbers = transactionJdbcRepository.findAccountNumbersByIds(senderIds);
+        Map<String, Long> receiverIds = transactionJdbcRepository.findAccountIdsByNumbers(receiverNumbers);
+        Set<Long> accountIds = new HashSet<>(senderNumbers.keySet());
+        accountIds.addAll(receiverIds.values());
+        Map<Long, BigDecimal> openingBalances = transactionJdbcRepository.lockBalances(accountIds);
+
+        Map<Long, BigDecimal> balances = new HashMap<>(openingBalances);
+        List<Transaction> rows = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        boolean rejected = false;
+        for (Transaction transaction : transactions) {
+            String error = apply(transaction, senderNumbers, receiverIds, balances, rows, now);
+            errors.add(error);
+            rejected |= error != null;
+        }
+
+        if (rejected) {
+            List<BatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < errors.size(); i++) {
+                results.add(errors.get(i) != null
+                        ? new BatchItemResult(i, BatchItemResult.Status.REJECTED, null, errors.get(i))
+                        : new BatchItemResult(i, BatchItemResult.Status.NOT_POSTED, null, null));
+            }
+            return new BatchTransferResponse(false, results);
+        }
+
+        balances.entrySet().removeIf(entry -> entry.getValue().compareTo(openingBalances.get(entry.getKey())) == 0);
+        transactionJdbcRepository.updateBalances(balances);
+        transactionJdbcRepository.insertTransactions(rows);
+        ledgerEventRepository.appendPostings(rows);
+
+        List<BatchItemResult> results = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            results.add(new BatchItemResult(i, BatchItemResult.Status.POSTED, transactions.get(i).getId(), null));
+        }
+        return new BatchTransferResponse(true, results);
+    }
+
+    /**
+     * Validates one transfer against the running balances and, when valid, applies it and queues its rows. Returns the
+     * rejection message, or null when the transfer was applied.
+     */
+    private String apply(Transaction transaction, Map<Long, String> senderNumbers, Map<String, Long> receiverIds,
+                         Map<Long, BigDecimal> balances, List<Transaction> rows, LocalDateTime now) {
+        BigDecimal amount = transaction.getAmount();
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return "Transaction amount must be greater than zero.";
+        }
+        Long senderId = senderIdOf(transaction);
+        if (senderId == null || !senderNumbers.containsKey(senderId)) {
+            return "Account not found";
+        }
+        BigDecimal senderBalance = balances.get(senderId);
+        if (senderBalance == null) {
+            return "Balance not found for the account";
+        }
+
+        BigDecimal newSenderBalance;
+        if ("DB".equals(transaction.getIndicator())) {
+            if (senderBalance.compareTo(amount) < 0) {
+                return "Insufficient balance for the transaction";
+            }
+            newSenderBalance = senderBalance.subtract(amount);
+        } else if ("CR".equals(transaction.getIndicator())) {
+            newSenderBalance = senderBalance.add(amount);
+        } else {
+            return "Invalid transaction indicator";
+        }
+
+        Long receiverId = null;
+        if (transaction.getReceiverAccountNumber() != null) {
+            receiverId = receiverIds.get(transaction.getReceiverAccountNumber());
+            if (receiverId == null) {
+                return "Receiver account not found";
+            }
+            if (!balances.containsKey(receiverId)) {
+                return "Balance not found for the receiver account";
+            }
+        }
+
+        balances.put(senderId, newSenderBalance);
+        transaction.setDate(now);
+        transaction.setBalanceAfter(newSenderBalance);
+        transaction.setAccount(accountRef(senderId));
+        rows.add(transaction);
+
+        if (receiverId != null) {
+            balances.merge(receiverId, amount, BigDecimal::add);
+
+            Transaction receiverTransaction = new Transaction();
+            receiverTransaction.setAccount(accountRef(receiverId));
+            receiverTransaction.setAmount(amount);
+            receiverTransaction.setIndicator("CR");
+            receiverTransaction.setReceiverAccountNumber(senderNumbers.get(senderId));
+            receiverTransaction.setDescription(transaction.getDescription());
+            receiverTransaction.setDate(now);
+            receiverTransaction.setBalanceAfter(balances.get(receiverId));
+            rows.add(receiverTransaction);
+        }
+        return null;
+    }
+
+    private static Long senderIdOf(Transaction transaction) {
+        Account account = transaction.getAccount();
+        return account != null ? account.getId() : null;
+    }
+
+    private static Account accountRef(Long accountId) {
+        Account account = new Account();
+        account.setId(accountId);
+        return account;
+    }
+}
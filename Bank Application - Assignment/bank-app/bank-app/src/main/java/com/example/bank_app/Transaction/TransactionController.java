@@ -1,10 +1,18 @@
 package com.example.bank_app.Transaction;
 
+import com.example.bank_app.Idempotency.IdempotencyService;
+import com.example.bank_app.Transfer.TransferCommand;
+import com.example.bank_app.Transfer.TransferCommandService;
 import com.example.bank_app.exceptionhandling.AccountNotFoundException;
 import com.example.bank_app.exceptionhandling.InsufficientBalanceException;
 import com.example.bank_app.exceptionhandling.InvalidTransactionAmountException;
+import com.example.bank_app.exceptionhandling.InvalidTransactionDetailsException;
 import com.example.bank_app.exceptionhandling.InvalidTransactionIndicatorException;
+import com.example.bank_app.exceptionhandling.LedgerUnavailableException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -13,10 +21,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.security.Principal;
 import java.util.List;
 import java.util.Objects;
 
@@ -25,17 +37,32 @@ import java.util.Objects;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionBatchService transactionBatchService;
+    private final IdempotencyService idempotencyService;
+    private final TransferCommandService transferCommandService;
+    private final boolean asyncTransfers;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionExportService transactionExportService,
+                                 TransactionBatchService transactionBatchService, IdempotencyService idempotencyService,
+                                 TransferCommandService transferCommandService,
+                                 @Value("${transactions.async.enabled:false}") boolean asyncTransfers) {
         this.transactionService = Objects.requireNonNull(transactionService, "TransactionService must not be null");
+        this.transactionExportService = Objects.requireNonNull(transactionExportService, "TransactionExportService must not be null");
+        this.transactionBatchService = Objects.requireNonNull(transactionBatchService, "TransactionBatchService must not be null");
+        this.idempotencyService = Objects.requireNonNull(idempotencyService, "IdempotencyService must not be null");
+        this.transferCommandService = Objects.requireNonNull(transferCommandService, "TransferCommandService must not be null");
+        this.asyncTransfers = asyncTransfers;
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN')")
     @GetMapping("/transactions")
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = transactionService.getAllTransactions();
-        if (transactions.isEmpty()) {
+    public ResponseEntity<CursorPage<TransactionView>> getAllTransactions(TransactionFilter filter,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<TransactionView> transactions = transactionService.getTransactions(null, filter, cursor, limit);
+        if (transactions.getContent().isEmpty()) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.ok(transactions);
@@ -53,15 +80,42 @@ public class TransactionController {
     }
 
     @GetMapping("/accounts/{accountId}/transactions")
-    public ResponseEntity<List<Transaction>> getAllTransactionsByAccountId(@PathVariable Long accountId) {
-        List<Transaction> transactions = transactionService.getAllTransactionsByAccountId(accountId);
-        if (transactions.isEmpty()) {
+    public ResponseEntity<CursorPage<TransactionView>> getAllTransactionsByAccountId(@PathVariable Long accountId, TransactionFilter filter,
+                                                                                     @RequestParam(required = false) String cursor,
+                                                                                     @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<TransactionView> transactions = transactionService.getTransactions(accountId, filter, cursor, limit);
+        if (transactions.getContent().isEmpty()) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.ok(transactions);
     }
+
+    @GetMapping("/accounts/{accountId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionsByAccountId(@PathVariable Long accountId, TransactionFilter filter,
+                                                                               @RequestParam(defaultValue = "ndjson") String format) {
+        TransactionExportFormat exportFormat = TransactionExportFormat.parse(format);
+        StreamingResponseBody body = transactionExportService.export(accountId, filter, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions-" + accountId + "." + exportFormat.getExtension()).build().toString())
+                .body(body);
+    }
+
     @PostMapping("/transactions")
-    public ResponseEntity<?> createTransaction(@RequestBody Transaction transaction) {
+    public ResponseEntity<?> createTransaction(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                               @RequestBody Transaction transaction, Principal principal) {
+        if (idempotencyKey == null) {
+            return postTransaction(transaction);
+        }
+        return idempotencyService.execute(principal.getName(), idempotencyKey, transaction, () -> postTransaction(transaction));
+    }
+
+    private ResponseEntity<?> postTransaction(Transaction transaction) {
+        if (asyncTransfers) {
+            TransferCommand command = transferCommandService.submit(transaction);
+            return ResponseEntity.accepted().location(URI.create("/api/v2/transfers/" + command.getId())).body(command);
+        }
         try {
             Transaction createdTransaction = transactionService.saveTransaction(transaction);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdTransaction);
@@ -73,11 +127,21 @@ public class TransactionController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (InvalidTransactionAmountException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (InvalidTransactionDetailsException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (LedgerUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
         }
     }
 
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<BatchTransferResponse> createTransactions(@RequestBody List<Transaction> transactions) {
+        BatchTransferResponse response = transactionBatchService.saveTransactions(transactions);
+        return ResponseEntity.status(response.isPosted() ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+    }
+
     @PutMapping("/transactions/{id}")
     public ResponseEntity<?> updateTransaction(@PathVariable Long id, @RequestBody Transaction transaction) {
         Transaction existingTransaction = transactionService.getTransactionById(id);
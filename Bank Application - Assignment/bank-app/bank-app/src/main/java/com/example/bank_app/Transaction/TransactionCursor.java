@@ -0,0 +1,58 @@
+package com.example.bank_app.Transaction;
+
+import com.example.bank_app.exceptionhandling.InvalidPageRequestException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (date, id) ordering of transaction history, exchanged with clients as an opaque string.
+ */
+@Getter
+public class TransactionCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime date;
+    private final Long id;
+
+    /**
+     * Both parts are required: a position without a date could not be written out and read back.
+     */
+    public TransactionCursor(LocalDateTime date, Long id) {
+        if (date == null || id == null) {
+            throw new IllegalArgumentException("Cursor needs a date and an id");
+        }
+        this.date = date;
+        this.id = id;
+    }
+
+    public static TransactionCursor of(TransactionView transaction) {
+        return new TransactionCursor(transaction.date(), transaction.id());
+    }
+
+    public String encode() {
+        String raw = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidPageRequestException("Invalid cursor");
+            }
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+}
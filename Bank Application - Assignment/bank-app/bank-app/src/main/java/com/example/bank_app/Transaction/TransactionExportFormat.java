@@ -0,0 +1,29 @@
+package com.example.bank_app.Transaction;
+
+import com.example.bank_app.exceptionhandling.InvalidPageRequestException;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+@Getter
+public enum TransactionExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TransactionExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public static TransactionExportFormat parse(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Unsupported export format: " + format);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.bank_app.Transaction;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes transaction history straight from a forward-only database cursor to the response, one row at a time, so
+ * memory use does not depend on the size of the history.
+ */
+@Service
+public class TransactionExportService {
+
+    // the fields of TransactionView, in the order the NDJSON rows carry them
+    private static final String CSV_HEADER =
+            "id,date,description,amount,indicator,receiverAccountNumber,accountId,balanceAfter";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+
+    @Autowired
+    public TransactionExportService(TransactionRepository transactionRepository, PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper, @Value("${transactions.export.fetch-size:1000}") int fetchSize) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rowWriter = objectMapper.writerFor(TransactionView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.fetchSize = fetchSize;
+    }
+
+    public StreamingResponseBody export(Long accountId, TransactionFilter filter, TransactionExportFormat format) {
+        filter.validate();
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<TransactionView> rows = transactionRepository.streamViews(accountId, filter, fetchSize)) {
+                if (format == TransactionExportFormat.CSV) {
+                    writeCsv(rows.iterator(), out);
+                } else {
+                    writeNdjson(rows.iterator(), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(Iterator<TransactionView> rows, OutputStream out) throws IOException {
+        try (JsonGenerator generator = rowWriter.createGenerator(out)) {
+            while (rows.hasNext()) {
+                rowWriter.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<TransactionView> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            TransactionView row = rows.next();
+            writer.write(String.valueOf(row.id()));
+            writer.write(',');
+            writer.write(String.valueOf(row.date()));
+            writer.write(',');
+            writer.write(csvText(row.description()));
+            writer.write(',');
+            writer.write(row.amount().toPlainString());
+            writer.write(',');
+            writer.write(csvText(row.indicator()));
+            writer.write(',');
+            writer.write(csvText(row.receiverAccountNumber()));
+            writer.write(',');
+            writer.write(String.valueOf(row.accountId()));
+            writer.write(',');
+            writer.write(row.balanceAfter() != null ? row.balanceAfter().toPlainString() : "");
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value;
+        // keep spreadsheet applications from evaluating user-supplied text as a formula
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            text = '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.bank_app.Transaction;
+
+import com.example.bank_app.exceptionhandling.InvalidPageRequestException;
+import com.example.bank_app.exceptionhandling.InvalidTransactionIndicatorException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional server-side filters for transaction history. Date range is [from, to), amount range is inclusive.
+ */
+@Getter
+@Setter
+public class TransactionFilter {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private BigDecimal minAmount;
+
+    private BigDecimal maxAmount;
+
+    private String indicator;
+
+    public void validate() {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidPageRequestException("'from' must be before 'to'");
+        }
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new InvalidPageRequestException("'minAmount' must not exceed 'maxAmount'");
+        }
+        if (indicator != null && !"DB".equals(indicator) && !"CR".equals(indicator)) {
+            throw new InvalidTransactionIndicatorException("Invalid transaction indicator");
+        }
+    }
+}
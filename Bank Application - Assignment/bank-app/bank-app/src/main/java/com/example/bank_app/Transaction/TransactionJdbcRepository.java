@@ -0,0 +1,125 @@
+package com.example.bank_app.Transaction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based JDBC access used by the bulk posting paths, where per-row repository calls would cost one round trip each.
+ */
+@Repository
+public class TransactionJdbcRepository {
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transaction "
+            + "(date, description, amount, receiver_account_number, indicator, balance_after, account_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    public TransactionJdbcRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public Map<Long, String> findAccountNumbersByIds(Collection<Long> accountIds) {
+        Map<Long, String> numbers = new HashMap<>();
+        if (!accountIds.isEmpty()) {
+            namedJdbcTemplate.query("SELECT id, account_number FROM account WHERE id IN (:ids)", Map.of("ids", accountIds),
+                    rs -> {
+                        numbers.put(rs.getLong("id"), rs.getString("account_number"));
+                    });
+        }
+        return numbers;
+    }
+
+    public Map<String, Long> findAccountIdsByNumbers(Collection<String> accountNumbers) {
+        Map<String, Long> ids = new HashMap<>();
+        if (!accountNumbers.isEmpty()) {
+            namedJdbcTemplate.query("SELECT id, account_number FROM account WHERE account_number IN (:numbers)",
+                    Map.of("numbers", accountNumbers), rs -> {
+                        ids.put(rs.getString("account_number"), rs.getLong("id"));
+                    });
+        }
+        return ids;
+    }
+
+    /**
+     * Reads and row-locks the balances of the given accounts until the surrounding transaction ends. Rows are locked in
+     * account id order so concurrent batches cannot deadlock on each other.
+     */
+    public Map<Long, BigDecimal> lockBalances(Collection<Long> accountIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        if (!accountIds.isEmpty()) {
+            namedJdbcTemplate.query("SELECT account_id, amount FROM balance WHERE account_id IN (:ids) ORDER BY account_id FOR UPDATE",
+                    Map.of("ids", accountIds), rs -> {
+                        balances.put(rs.getLong("account_id"), rs.getBigDecimal("amount"));
+                    });
+        }
+        return balances;
+    }
+
+    public void updateBalances(Map<Long, BigDecimal> balances) {
+        List<Map.Entry<Long, BigDecimal>> entries = new ArrayList<>(balances.entrySet());
+        jdbcTemplate.batchUpdate("UPDATE balance SET amount = ? WHERE account_id = ?", new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setBigDecimal(1, entries.get(i).getValue());
+                ps.setLong(2, entries.get(i).getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+
+    /**
+     * Inserts the transactions as one JDBC batch and assigns the generated ids back onto them.
+     */
+    public void insertTransactions(List<Transaction> transactions) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_TRANSACTION, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Transaction transaction = transactions.get(i);
+                        int column = 1;
+                        ps.setTimestamp(column++, Timestamp.valueOf(transaction.getDate()));
+                        ps.setString(column++, transaction.getDescription());
+                        ps.setBigDecimal(column++, transaction.getAmount());
+                        ps.setString(column++, transaction.getReceiverAccountNumber());
+                        ps.setString(column++, transaction.getIndicator());
+                        ps.setBigDecimal(column++, transaction.getBalanceAfter());
+                        ps.setLong(column, transaction.getAccount().getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return transactions.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < transactions.size(); i++) {
+            transactions.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
@@ -1,9 +1,35 @@
 package com.example.bank_app.Transaction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
     List<Transaction> findByAccountId(Long accountId);
-}
 
+    @Override
+    @EntityGraph(attributePaths = "account")
+    List<Transaction> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"account", "account.user"})
+    Optional<Transaction> findById(Long id);
+
+    /**
+     * Latest posting at or before {@code asOf}; a single seek on the (account_id, date, id, balance_after) index.
+     */
+    @Query("SELECT new com.example.bank_app.Transaction.BalanceSample(t.id, t.date, t.balanceAfter) FROM transaction t "
+            + "WHERE t.account.id = :accountId AND t.date <= :asOf ORDER BY t.date DESC, t.id DESC LIMIT 1")
+    Optional<BalanceSample> findBalanceAsOf(@Param("accountId") Long accountId, @Param("asOf") LocalDateTime asOf);
+
+    @Query("SELECT new com.example.bank_app.Transaction.BalanceSample(t.id, t.date, t.balanceAfter) FROM transaction t "
+            + "WHERE t.account.id = :accountId AND t.date >= :from AND t.date < :to AND t.balanceAfter IS NOT NULL "
+            + "ORDER BY t.date, t.id")
+    Stream<BalanceSample> streamBalances(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,21 @@
+package com.example.bank_app.Transaction;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} transactions ordered by (date, id) descending, starting strictly after
+     * {@code after}. A null {@code accountId} or {@code after} means all accounts or the first page. Rows are
+     * selected as views, so no account or user is loaded.
+     */
+    List<TransactionView> findPage(Long accountId, TransactionFilter filter, TransactionCursor after, int limit);
+
+    /**
+     * Streams matching rows in chronological order through a forward-only cursor. Must be consumed and closed inside
+     * a transaction. The fetch size only applies to this statement; on MySQL {@link Integer#MIN_VALUE} streams rows
+     * one at a time.
+     */
+    Stream<TransactionView> streamViews(Long accountId, TransactionFilter filter, int fetchSize);
+}
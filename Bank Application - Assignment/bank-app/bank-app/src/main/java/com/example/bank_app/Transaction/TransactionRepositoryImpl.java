@@ -0,0 +1,81 @@
+package com.example.bank_app.Transaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final String VIEW_SELECT = "SELECT new com.example.bank_app.Transaction.TransactionView("
+            + "t.id, t.date, t.description, t.amount, t.indicator, t.receiverAccountNumber, t.account.id, t.balanceAfter) "
+            + "FROM transaction t";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionView> findPage(Long accountId, TransactionFilter filter, TransactionCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(VIEW_SELECT);
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(jpql, params, accountId, filter);
+
+        if (after != null) {
+            jpql.append(" AND (t.date < :cursorDate OR (t.date = :cursorDate AND t.id < :cursorId))");
+            params.put("cursorDate", after.getDate());
+            params.put("cursorId", after.getId());
+        }
+        jpql.append(" ORDER BY t.date DESC, t.id DESC");
+
+        TypedQuery<TransactionView> query = entityManager.createQuery(jpql.toString(), TransactionView.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<TransactionView> streamViews(Long accountId, TransactionFilter filter, int fetchSize) {
+        StringBuilder jpql = new StringBuilder(VIEW_SELECT);
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(jpql, params, accountId, filter);
+        jpql.append(" ORDER BY t.date, t.id");
+
+        TypedQuery<TransactionView> query = entityManager.createQuery(jpql.toString(), TransactionView.class);
+        params.forEach(query::setParameter);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    private void appendFilters(StringBuilder jpql, Map<String, Object> params, Long accountId, TransactionFilter filter) {
+        jpql.append(" WHERE 1 = 1");
+        if (accountId != null) {
+            jpql.append(" AND t.account.id = :accountId");
+            params.put("accountId", accountId);
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" AND t.date >= :from");
+            params.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND t.date < :to");
+            params.put("to", filter.getTo());
+        }
+        if (filter.getMinAmount() != null) {
+            jpql.append(" AND t.amount >= :minAmount");
+            params.put("minAmount", filter.getMinAmount());
+        }
+        if (filter.getMaxAmount() != null) {
+            jpql.append(" AND t.amount <= :maxAmount");
+            params.put("maxAmount", filter.getMaxAmount());
+        }
+        if (filter.getIndicator() != null) {
+            jpql.append(" AND t.indicator = :indicator");
+            params.put("indicator", filter.getIndicator());
+        }
+    }
+}
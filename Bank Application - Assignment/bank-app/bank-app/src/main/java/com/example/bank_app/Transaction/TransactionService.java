@@ -1,121 +1,164 @@
 package com.example.bank_app.Transaction;
 
 import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountDirectory;
 import com.example.bank_app.Account.AccountRepository;
-import com.example.bank_app.Balance.Balance;
 import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Ledger.LedgerEngine;
+import com.example.bank_app.Ledger.LedgerEventRepository;
 import com.example.bank_app.exceptionhandling.AccountNotFoundException;
 import com.example.bank_app.exceptionhandling.InsufficientBalanceException;
 import com.example.bank_app.exceptionhandling.InvalidTransactionAmountException;
+import com.example.bank_app.exceptionhandling.InvalidTransactionDetailsException;
 import com.example.bank_app.exceptionhandling.InvalidTransactionIndicatorException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 public class TransactionService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final AccountDirectory accountDirectory;
     private final BalanceRepository balanceRepository;
+    private final LedgerEventRepository ledgerEventRepository;
+    private final ObjectProvider<LedgerEngine> ledgerEngine;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository,
-    BalanceRepository balanceRepository) {
+    AccountDirectory accountDirectory, BalanceRepository balanceRepository, LedgerEventRepository ledgerEventRepository,
+    ObjectProvider<LedgerEngine> ledgerEngine, PlatformTransactionManager transactionManager) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
+        this.accountDirectory = accountDirectory;
         this.balanceRepository = balanceRepository;
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.ledgerEngine = ledgerEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+    public CursorPage<TransactionView> getTransactions(Long accountId, TransactionFilter filter, String cursor, int limit) {
+        filter.validate();
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<TransactionView> rows = transactionRepository.findPage(accountId, filter, TransactionCursor.decode(cursor), pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<TransactionView> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, TransactionCursor.of(page.get(pageSize - 1)).encode());
     }
 
-//    public List<Transaction> getAllTransactionsV2(int page, int size) {
-//        Pageable pageable = PageRequest.of(page, size);
-//        return transactionRepository.findAll(pageable).getContent();
-//    }
-
     public Transaction getTransactionById(Long id) {
         return transactionRepository.findById(id).orElse(null);
     }
 
-    public List<Transaction> getAllTransactionsByAccountId(Long accountId) {
-        return transactionRepository.findByAccountId(accountId);
-    }
-
-//    public List<Transaction> getAllTransactionsByAccountIdV2(Long accountId, int page, int size) {
-//        List<Transaction> allTransactions = transactionRepository.findByAccountId(accountId);
-//
-//        Pageable pageable = PageRequest.of(page, size);
-//        int start = Math.min((int) pageable.getOffset(), allTransactions.size());
-//        int end = Math.min((start + pageable.getPageSize()), allTransactions.size());
-//
-//        return allTransactions.subList(start, end);
-//    }
-
+    /**
+     * Checks the amount, indicator, receiver and description, then hands the transfer to the ledger engine when it is enabled and posts it to
+     * the database otherwise. Only the database path runs in a transaction, so no connection is held while the engine
+     * sequences and journals the transfer.
+     */
     public Transaction saveTransaction(Transaction transaction) throws Exception {
         if (transaction.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidTransactionAmountException("Transaction amount must be greater than zero.");
         }
-
-        Account account = transaction.getAccount();
-        Long senderAccountId = transaction.getAccount().getId();
-        Optional<Account> anotherTransactionAccount = accountRepository.findById(senderAccountId);
-        Account optionalAcc = anotherTransactionAccount.get();
-        Balance balance = balanceRepository.findByAccount(account);
-
-        if (balance == null) {
-            throw new AccountNotFoundException("Balance not found for the account");
-        }
-
-        if ("DB".equals(transaction.getIndicator())) {
-            if (balance.getAmount().compareTo(transaction.getAmount()) < 0) {
-                throw new InsufficientBalanceException("Insufficient balance for the transaction");
-            }
-            balance.setAmount(balance.getAmount().subtract(transaction.getAmount()));
-        } else if ("CR".equals(transaction.getIndicator())) {
-            balance.setAmount(balance.getAmount().add(transaction.getAmount()));
-        } else {
+        boolean debit = "DB".equals(transaction.getIndicator());
+        if (!debit && !"CR".equals(transaction.getIndicator())) {
             throw new InvalidTransactionIndicatorException("Invalid transaction indicator");
         }
+        // both are NOT NULL columns; the ledger engine journals a transfer long before its row is written
+        if (transaction.getReceiverAccountNumber() == null) {
+            throw new InvalidTransactionDetailsException("Receiver account number is required");
+        }
+        if (transaction.getDescription() == null) {
+            throw new InvalidTransactionDetailsException("Description is required");
+        }
+        LedgerEngine engine = ledgerEngine.getIfAvailable();
+        if (engine != null) {
+            return engine.post(transaction);
+        }
+        return transactionTemplate.execute(status -> postToDatabase(transaction, debit));
+    }
 
+    /**
+     * Posts a transfer with conditional delta updates, so concurrent transfers cannot overwrite each other's balance
+     * changes. Balance rows are updated in account id order to keep two opposite transfers from deadlocking. The
+     * receiver is resolved through the {@link AccountDirectory}, so an unknown receiver costs no query.
+     */
+    private Transaction postToDatabase(Transaction transaction, boolean debit) {
+        Long senderAccountId = transaction.getAccount().getId();
+        Long receiverAccountId = null;
         if (transaction.getReceiverAccountNumber() != null) {
-            Account receiverAccount = accountRepository.findByAccountNumber(transaction.getReceiverAccountNumber());
-            if (receiverAccount == null) {
+            receiverAccountId = accountDirectory.findAccountId(transaction.getReceiverAccountNumber());
+            if (receiverAccountId == null) {
                 throw new AccountNotFoundException("Receiver account not found");
             }
-            Balance receiverBalance = balanceRepository.findByAccount(receiverAccount);
-            if (receiverBalance == null) {
-                throw new AccountNotFoundException("Balance not found for the receiver account");
+        }
+
+        if (receiverAccountId != null && receiverAccountId < senderAccountId) {
+            creditReceiver(receiverAccountId, transaction.getAmount());
+            applyToSender(senderAccountId, transaction.getAmount(), debit);
+        } else {
+            applyToSender(senderAccountId, transaction.getAmount(), debit);
+            if (receiverAccountId != null) {
+                creditReceiver(receiverAccountId, transaction.getAmount());
             }
-            receiverBalance.setAmount(receiverBalance.getAmount().add(transaction.getAmount()));
-            balanceRepository.save(receiverBalance);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> postings = new ArrayList<>(2);
+        if (receiverAccountId != null) {
+            Account senderAccount = accountRepository.findById(senderAccountId)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found"));
 
+            // only the id is needed for the foreign key, so the receiver account is not loaded
+            Account receiverAccount = new Account();
+            receiverAccount.setId(receiverAccountId);
             Transaction receiverTransaction = new Transaction();
             receiverTransaction.setAccount(receiverAccount);
             receiverTransaction.setAmount(transaction.getAmount());
             receiverTransaction.setIndicator("CR");
-            receiverTransaction.setReceiverAccountNumber(optionalAcc.getAccountNumber());
+            receiverTransaction.setReceiverAccountNumber(senderAccount.getAccountNumber());
             receiverTransaction.setDescription(transaction.getDescription());
-            receiverTransaction.setDate(LocalDateTime.now());
-            transactionRepository.save(receiverTransaction);
+            receiverTransaction.setDate(now);
+            receiverTransaction.setBalanceAfter(balanceRepository.findAmountByAccountId(receiverAccountId));
+            postings.add(transactionRepository.save(receiverTransaction));
         }
 
-        balanceRepository.save(balance);
-
-        transaction.setDate(LocalDateTime.now());
-        transactionRepository.save(transaction);
+        transaction.setDate(now);
+        transaction.setBalanceAfter(balanceRepository.findAmountByAccountId(senderAccountId));
+        postings.add(transactionRepository.save(transaction));
+        ledgerEventRepository.appendPostings(postings);
 
         return transaction;
     }
 
+    private void applyToSender(Long accountId, BigDecimal amount, boolean debit) {
+        int updated = debit ? balanceRepository.debit(accountId, amount) : balanceRepository.credit(accountId, amount);
+        if (updated == 0) {
+            if (debit && balanceRepository.existsByAccountId(accountId)) {
+                throw new InsufficientBalanceException("Insufficient balance for the transaction");
+            }
+            throw new AccountNotFoundException("Balance not found for the account");
+        }
+    }
+
+    private void creditReceiver(Long accountId, BigDecimal amount) {
+        if (balanceRepository.credit(accountId, amount) == 0) {
+            throw new AccountNotFoundException("Balance not found for the receiver account");
+        }
+    }
+
     public void deleteTransaction(Long id) {
         transactionRepository.deleteById(id);
     }
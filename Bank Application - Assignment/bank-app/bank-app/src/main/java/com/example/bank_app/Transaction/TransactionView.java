@@ -0,0 +1,11 @@
+package com.example.bank_app.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read-only view of a transaction row, selected column by column instead of loading the entity graph.
+ */
+public record TransactionView(Long id, LocalDateTime date, String description, BigDecimal amount, String indicator,
+                              String receiverAccountNumber, Long accountId, BigDecimal balanceAfter) {
+}
@@ -0,0 +1,32 @@
+package com.example.bank_app.Transfer;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TransferCommandRepository extends JpaRepository<TransferCommand, Long> {
+
+    /**
+     * Locks due commands, skipping rows another worker has already locked ({@code FOR UPDATE SKIP LOCKED}; a lock
+     * timeout of -2 is Hibernate's skip-locked marker). Databases without skip-locked support fall back to waiting.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT c FROM transfer_command c WHERE c.status IN :statuses AND c.nextAttemptAt <= :now ORDER BY c.id")
+    List<TransferCommand> findDue(@Param("statuses") Collection<TransferStatus> statuses, @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM transfer_command c WHERE c.id = :id")
+    Optional<TransferCommand> findByIdForUpdate(@Param("id") Long id);
+}
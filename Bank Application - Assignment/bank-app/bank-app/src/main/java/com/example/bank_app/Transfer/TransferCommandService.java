@@ -0,0 +1,210 @@
+package com.example.bank_app.Transfer;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountDirectory;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionService;
+import com.example.bank_app.exceptionhandling.AccountNotFoundException;
+import com.example.bank_app.exceptionhandling.InsufficientBalanceException;
+import com.example.bank_app.exceptionhandling.InvalidTransactionAmountException;
+import com.example.bank_app.exceptionhandling.InvalidTransactionDetailsException;
+import com.example.bank_app.exceptionhandling.InvalidTransactionIndicatorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Accepts transfers for asynchronous posting and moves them through their states. Workers claim due commands in
+ * batches under a lease, then post each command in its own transaction together with its status change, so a command
+ * is posted at most once even if its worker dies and the lease expires.
+ *
+ * <p>Validation failures reject a command immediately; any other failure is retried with exponential backoff until
+ * {@code transactions.async.max-attempts}, after which the command is dead-lettered.
+ */
+@Service
+@EnableConfigurationProperties(TransferProperties.class)
+public class TransferCommandService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferCommandService.class);
+    private static final List<TransferStatus> CLAIMABLE = List.of(TransferStatus.PENDING, TransferStatus.PROCESSING);
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final TransferCommandRepository transferCommandRepository;
+    private final TransactionService transactionService;
+    private final AccountDirectory accountDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties properties;
+
+    @Autowired
+    public TransferCommandService(TransferCommandRepository transferCommandRepository,
+                                  TransactionService transactionService,
+                                  AccountDirectory accountDirectory,
+                                  PlatformTransactionManager transactionManager,
+                                  TransferProperties properties) {
+        this.transferCommandRepository = transferCommandRepository;
+        this.transactionService = transactionService;
+        this.accountDirectory = accountDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    public TransferCommand submit(Transaction transaction) {
+        if (transaction.getAmount() == null || transaction.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidTransactionAmountException("Transaction amount must be greater than zero.");
+        }
+        if (!"DB".equals(transaction.getIndicator()) && !"CR".equals(transaction.getIndicator())) {
+            throw new InvalidTransactionIndicatorException("Invalid transaction indicator");
+        }
+        if (transaction.getReceiverAccountNumber() == null) {
+            throw new InvalidTransactionDetailsException("Receiver account number is required");
+        }
+        if (transaction.getDescription() == null) {
+            throw new InvalidTransactionDetailsException("Description is required");
+        }
+        if (transaction.getAccount() == null || transaction.getAccount().getId() == null) {
+            throw new AccountNotFoundException("Account not found");
+        }
+        if (accountDirectory.findAccountId(transaction.getReceiverAccountNumber()) == null) {
+            throw new AccountNotFoundException("Receiver account not found");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        TransferCommand command = new TransferCommand();
+        command.setAccountId(transaction.getAccount().getId());
+        command.setReceiverAccountNumber(transaction.getReceiverAccountNumber());
+        command.setAmount(transaction.getAmount());
+        command.setIndicator(transaction.getIndicator());
+        command.setDescription(transaction.getDescription());
+        command.setStatus(TransferStatus.PENDING);
+        command.setNextAttemptAt(now);
+        command.setCreatedAt(now);
+        command.setUpdatedAt(now);
+        return transferCommandRepository.save(command);
+    }
+
+    public TransferCommand getCommand(Long id) {
+        return transferCommandRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Claims up to {@code batchSize} due commands: pending ones whose backoff has passed and processing ones whose
+     * lease expired. Each claim counts as an attempt.
+     */
+    public List<TransferCommand> claim(int batchSize) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<TransferCommand> due = transferCommandRepository.findDue(CLAIMABLE, now, PageRequest.of(0, batchSize));
+            for (TransferCommand command : due) {
+                command.setStatus(TransferStatus.PROCESSING);
+                command.setAttempts(command.getAttempts() + 1);
+                command.setNextAttemptAt(now.plus(properties.getLease()));
+                command.setUpdatedAt(now);
+            }
+            return transferCommandRepository.saveAll(due);
+        });
+    }
+
+    public void process(TransferCommand claimed) {
+        Exception failure;
+        try {
+            failure = transactionTemplate.execute(status -> {
+                TransferCommand command = lockIfStillClaimed(claimed);
+                if (command == null) {
+                    return null;
+                }
+                try {
+                    Transaction posted = transactionService.saveTransaction(toTransaction(command));
+                    command.setStatus(TransferStatus.POSTED);
+                    command.setTransactionId(posted.getId());
+                    command.setLastError(null);
+                    command.setUpdatedAt(LocalDateTime.now());
+                    return null;
+                } catch (Exception e) {
+                    status.setRollbackOnly();
+                    return e;
+                }
+            });
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        if (failure != null) {
+            recordFailure(claimed, failure);
+        }
+    }
+
+    private void recordFailure(TransferCommand claimed, Exception failure) {
+        transactionTemplate.executeWithoutResult(status -> {
+            TransferCommand command = lockIfStillClaimed(claimed);
+            if (command == null) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            command.setLastError(truncate(failure.getMessage()));
+            command.setUpdatedAt(now);
+            if (isRejection(failure)) {
+                command.setStatus(TransferStatus.REJECTED);
+            } else if (command.getAttempts() >= properties.getMaxAttempts()) {
+                command.setStatus(TransferStatus.DEAD_LETTER);
+                LOGGER.warn("Transfer command {} dead-lettered after {} attempts", command.getId(), command.getAttempts(),
+                        failure);
+            } else {
+                command.setStatus(TransferStatus.PENDING);
+                command.setNextAttemptAt(now.plus(backoff(command.getAttempts())));
+            }
+        });
+    }
+
+    /**
+     * Re-reads the command under a row lock and returns it only if this worker's claim is still current.
+     */
+    private TransferCommand lockIfStillClaimed(TransferCommand claimed) {
+        TransferCommand command = transferCommandRepository.findByIdForUpdate(claimed.getId()).orElse(null);
+        if (command == null || command.getStatus() != TransferStatus.PROCESSING
+                || command.getAttempts() != claimed.getAttempts()) {
+            return null;
+        }
+        return command;
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = properties.getBackoff().multipliedBy(1L << Math.min(attempts - 1, MAX_BACKOFF_SHIFT));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private static boolean isRejection(Exception failure) {
+        return failure instanceof InsufficientBalanceException
+                || failure instanceof AccountNotFoundException
+                || failure instanceof InvalidTransactionAmountException
+                || failure instanceof InvalidTransactionIndicatorException
+                || failure instanceof InvalidTransactionDetailsException;
+    }
+
+    private static Transaction toTransaction(TransferCommand command) {
+        Account account = new Account();
+        account.setId(command.getAccountId());
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setReceiverAccountNumber(command.getReceiverAccountNumber());
+        transaction.setAmount(command.getAmount());
+        transaction.setIndicator(command.getIndicator());
+        transaction.setDescription(command.getDescription());
+        return transaction;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
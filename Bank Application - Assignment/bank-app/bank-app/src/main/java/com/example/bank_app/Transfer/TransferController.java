@@ -0,0 +1,33 @@
+package com.example.bank_app.Transfer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/v2")
+public class TransferController {
+
+    private final TransferCommandService transferCommandService;
+
+    @Autowired
+    public TransferController(TransferCommandService transferCommandService) {
+        this.transferCommandService = Objects.requireNonNull(transferCommandService,
+                "TransferCommandService must not be null");
+    }
+
+    @GetMapping("/transfers/{id}")
+    public ResponseEntity<TransferCommand> getTransfer(@PathVariable Long id) {
+        TransferCommand command = transferCommandService.getCommand(id);
+        if (command != null) {
+            return ResponseEntity.ok(command);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
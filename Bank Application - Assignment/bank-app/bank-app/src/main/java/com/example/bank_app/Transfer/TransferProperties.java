@@ -0,0 +1,28 @@
+package com.example.bank_app.Transfer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "transactions.async")
+public class TransferProperties {
+
+    private static final int DEFAULT_WORKERS = 4;
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final long DEFAULT_POLL_INTERVAL_MILLIS = 100;
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long DEFAULT_MAX_BACKOFF_MINUTES = 5;
+
+    private boolean enabled;
+    private int workers = DEFAULT_WORKERS;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Duration pollInterval = Duration.ofMillis(DEFAULT_POLL_INTERVAL_MILLIS);
+    private Duration lease = Duration.ofMinutes(1);
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private Duration backoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(DEFAULT_MAX_BACKOFF_MINUTES);
+}
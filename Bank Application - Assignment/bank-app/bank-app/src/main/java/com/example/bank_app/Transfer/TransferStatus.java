@@ -0,0 +1,9 @@
+package com.example.bank_app.Transfer;
+
+public enum TransferStatus {
+    PENDING,
+    PROCESSING,
+    POSTED,
+    REJECTED,
+    DEAD_LETTER
+}
@@ -0,0 +1,101 @@
+package com.example.bank_app.Transfer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool of threads that each claim a batch of due transfer commands and post them one by one. Claims skip rows locked
+ * by other workers, so threads and application instances never wait on each other's batches. Workers are virtual
+ * threads when {@code spring.threads.virtual.enabled} is set.
+ *
+ * <p>Cannot run with the ledger engine: the engine journals a transfer outside the worker's database transaction, so a
+ * command whose lease expires after the post but before it is marked posted would be posted twice.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transactions.async", name = "enabled", havingValue = "true")
+public class TransferWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferWorker.class);
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final TransferCommandService transferCommandService;
+    private final TransferProperties properties;
+    private final boolean virtualThreads;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public TransferWorker(TransferCommandService transferCommandService, TransferProperties properties,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                          @Value("${ledger.engine.enabled:false}") boolean ledgerEngineEnabled) {
+        if (ledgerEngineEnabled) {
+            throw new IllegalStateException("transactions.async.enabled cannot be combined with ledger.engine.enabled");
+        }
+        this.transferCommandService = transferCommandService;
+        this.properties = properties;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        running = true;
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        builder.name("transfer-worker-", 0);
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            threads.add(builder.start(this::run));
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join(STOP_TIMEOUT_MILLIS);
+        }
+        threads.clear();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<TransferCommand> claimed = transferCommandService.claim(properties.getBatchSize());
+                if (claimed.isEmpty()) {
+                    Thread.sleep(properties.getPollInterval().toMillis());
+                }
+                for (TransferCommand command : claimed) {
+                    transferCommandService.process(command);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Transfer worker failed to claim or post commands; claims expire after their lease", e);
+                if (!pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPollInterval().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
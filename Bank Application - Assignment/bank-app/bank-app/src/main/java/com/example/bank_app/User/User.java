@@ -1,23 +1,41 @@
 package com.example.bank_app.User;
 
+import com.example.bank_app.Config.EntityCacheConfiguration;
+import com.example.bank_app.Persistence.EntityIdAllocator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.TableGenerator;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Getter
 @Setter
 @Entity(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfiguration.USER_REGION)
+@NaturalIdCache(region = EntityCacheConfiguration.USERNAME_REGION)
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = EntityIdAllocator.TABLE, pkColumnName = EntityIdAllocator.NAME_COLUMN,
+            valueColumnName = EntityIdAllocator.VALUE_COLUMN, pkColumnValue = "users",
+            allocationSize = EntityIdAllocator.ALLOCATION_SIZE)
     private Long id;
 
+    @NaturalId(mutable = true)
     private String username;
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     private String email;
@@ -30,13 +48,18 @@ public class User {
 
     }
 
+    /**
+     * Copies {@code other}, loading it first if it is an unfetched reference. Outside a session that throws
+     * {@link org.hibernate.LazyInitializationException} rather than returning a copy with only the id set.
+     */
     public User(User other) {
-        this.id = other.id;
-        this.username = other.username;
-        this.password = other.password;
-        this.email = other.email;
-        this.address = other.address;
-        this.roles = other.roles;
+        User source = (User) Hibernate.unproxy(other);
+        this.id = source.id;
+        this.username = source.username;
+        this.password = source.password;
+        this.email = source.email;
+        this.address = source.address;
+        this.roles = source.roles;
     }
 
 }
@@ -7,6 +7,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,6 +18,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -24,12 +29,14 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN')")
@@ -57,7 +64,6 @@ public class UserController {
     @PostMapping("/users")
     public ResponseEntity<?> createUser(@RequestBody User user) {
         try {
-            LOGGER.info("Password in controller is " + user.getPassword());
             User createdUser = userService.saveUser(user);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
         } catch (DataIntegrityViolationException e) {
@@ -69,6 +75,12 @@ public class UserController {
         }
     }
 
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping(value = "/users/import", consumes = "text/csv", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserImportResponse> importUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(new InputStreamReader(body, StandardCharsets.UTF_8)));
+    }
+
     @PreAuthorize("hasAnyAuthority('ADMIN')")
     @PutMapping("/users/{id}")
     public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody User user) {
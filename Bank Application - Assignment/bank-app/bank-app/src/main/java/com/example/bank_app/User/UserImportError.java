@@ -0,0 +1,17 @@
+package com.example.bank_app.User;
+
+import lombok.Getter;
+
+@Getter
+public class UserImportError {
+
+    private final int line;
+    private final String username;
+    private final String message;
+
+    public UserImportError(int line, String username, String message) {
+        this.line = line;
+        this.username = username;
+        this.message = message;
+    }
+}
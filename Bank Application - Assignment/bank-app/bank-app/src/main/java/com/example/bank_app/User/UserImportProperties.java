@@ -0,0 +1,19 @@
+package com.example.bank_app.User;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.import")
+public class UserImportProperties {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    /**
+     * Threads hashing passwords; zero means one per available core.
+     */
+    private int hashingThreads;
+}
@@ -0,0 +1,19 @@
+package com.example.bank_app.User;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class UserImportResponse {
+
+    private final int imported;
+    private final int rejected;
+    private final List<UserImportError> errors;
+
+    public UserImportResponse(int imported, List<UserImportError> errors) {
+        this.imported = imported;
+        this.rejected = errors.size();
+        this.errors = List.copyOf(errors);
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.bank_app.User;
+
+import com.example.bank_app.Security.AdaptivePasswordEncoder;
+import com.example.bank_app.exceptionhandling.InvalidImportFileException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Onboards users from a CSV stream with the header {@code username,email,password,address}. Each user gets the account
+ * holder role, a new account and a zero balance, as with {@link UserService#saveUser}, and a password that is already
+ * a BCrypt hash of any version is stored as given. A password that starts like one but is not a whole hash is
+ * reported rather than hashed again.
+ *
+ * <p>Rows are read and imported a chunk at a time, so the file is never held in memory. For each chunk the duplicate
+ * checks run as one query per column, passwords are hashed in parallel on a pool of platform threads sized to the
+ * cores, and {@link UserImportWriter} inserts the chunk in one transaction. An invalid or duplicate row is reported
+ * with its line number and skipped; the rest of the file is still imported.
+ *
+ * <p>Usernames and emails are compared without regard to case, as the unique keys on MySQL's default collation compare
+ * them. If a chunk still fails to insert after its duplicates are dropped again, its rows are inserted one at a time so
+ * that only the conflicting ones are rejected.
+ */
+@Service
+@EnableConfigurationProperties(UserImportProperties.class)
+public class UserImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserImportService.class);
+    private static final List<String> COLUMNS = List.of("username", "email", "password", "address");
+    private static final int REQUIRED_COLUMNS = 3;
+    private static final int MAX_LENGTH = 255;
+    private static final Pattern HASH_PREFIX = Pattern.compile("\\$2[a-z]?\\$.*", Pattern.DOTALL);
+    private static final String ROLE = "ACCOUNTHOLDER";
+    private static final long STOP_TIMEOUT_SECONDS = 5;
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final UserImportWriter userImportWriter;
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService hashingPool;
+    private final int chunkSize;
+
+    private record Row(int line, String username, String email, String password, String address) {
+    }
+
+    @Autowired
+    public UserImportService(UserJdbcRepository userJdbcRepository, UserImportWriter userImportWriter,
+                             PasswordEncoder passwordEncoder, UserImportProperties properties) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.userImportWriter = userImportWriter;
+        this.passwordEncoder = passwordEncoder;
+        this.chunkSize = properties.getChunkSize();
+        int threads = properties.getHashingThreads() > 0
+                ? properties.getHashingThreads()
+                : Runtime.getRuntime().availableProcessors();
+        this.hashingPool = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("user-import-hash-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        hashingPool.shutdownNow();
+        hashingPool.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public UserImportResponse importUsers(Reader reader) throws IOException {
+        long started = System.nanoTime();
+        BufferedReader lines = new BufferedReader(reader);
+        checkHeader(lines.readLine());
+
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<UserImportError> errors = new ArrayList<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        int imported = 0;
+        int lineNumber = 1;
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Row row = parse(lineNumber, line, errors);
+            if (row != null && isFirstInFile(row, usernames, emails, errors)) {
+                chunk.add(row);
+            }
+            if (chunk.size() == chunkSize) {
+                imported += importChunk(chunk, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, errors);
+        }
+
+        errors.sort(Comparator.comparingInt(UserImportError::getLine));
+        LOGGER.info("Imported {} users, rejected {}, in {} ms", imported, errors.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return new UserImportResponse(imported, errors);
+    }
+
+    private static void checkHeader(String header) {
+        if (header == null) {
+            throw new InvalidImportFileException("Import file is empty");
+        }
+        List<String> columns = parseLine(header.replace("\uFEFF", ""));
+        if (columns == null || !COLUMNS.equals(columns.stream().map(c -> c.trim().toLowerCase(Locale.ROOT)).toList())) {
+            throw new InvalidImportFileException("Import file must start with the header " + String.join(",", COLUMNS));
+        }
+    }
+
+    /**
+     * Parses and validates one line. Returns null, after recording the error, when the row cannot be imported.
+     */
+    private static Row parse(int lineNumber, String line, List<UserImportError> errors) {
+        List<String> fields = parseLine(line);
+        if (fields == null || fields.size() < REQUIRED_COLUMNS || fields.size() > COLUMNS.size()) {
+            errors.add(new UserImportError(lineNumber, null, "Expected the columns " + String.join(",", COLUMNS)));
+            return null;
+        }
+        Row row = new Row(lineNumber, fields.get(0), fields.get(1), fields.get(2),
+                fields.size() > REQUIRED_COLUMNS ? fields.get(REQUIRED_COLUMNS) : null);
+        String error = validate(row);
+        if (error != null) {
+            errors.add(new UserImportError(lineNumber, row.username(), error));
+            return null;
+        }
+        return row;
+    }
+
+    private static String validate(Row row) {
+        if (row.username().isBlank()) {
+            return "Username is required";
+        }
+        if (!UserService.EMAIL_PATTERN.matcher(row.email()).matches()) {
+            return "Invalid email format";
+        }
+        if (HASH_PREFIX.matcher(row.password()).matches()) {
+            if (!AdaptivePasswordEncoder.isBcryptHash(row.password())) {
+                return "Password is not a valid BCrypt hash";
+            }
+        } else if (row.password().length() < UserService.MIN_PASSWORD_LENGTH) {
+            return "Password must be at least " + UserService.MIN_PASSWORD_LENGTH + " characters long.";
+        }
+        if (row.username().length() > MAX_LENGTH || row.email().length() > MAX_LENGTH
+                || row.address() != null && row.address().length() > MAX_LENGTH) {
+            return "Username, email and address must not be longer than " + MAX_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static boolean isFirstInFile(Row row, Set<String> usernames, Set<String> emails,
+                                         List<UserImportError> errors) {
+        if (!usernames.add(key(row.username()))) {
+            errors.add(new UserImportError(row.line(), row.username(), "Username appears earlier in the file"));
+            return false;
+        }
+        if (!emails.add(key(row.email()))) {
+            errors.add(new UserImportError(row.line(), row.username(), "Email appears earlier in the file"));
+            return false;
+        }
+        return true;
+    }
+
+    private int importChunk(List<Row> rows, List<UserImportError> errors) {
+        List<Row> fresh = withoutExisting(rows, errors);
+        Map<Integer, String> hashes = hash(fresh);
+        try {
+            userImportWriter.write(toUsers(fresh, hashes));
+            return fresh.size();
+        } catch (DataIntegrityViolationException e) {
+            // a user with the same name or email was committed after the check; drop it and try the rest once more
+            List<Row> remaining = withoutExisting(fresh, errors);
+            try {
+                userImportWriter.write(toUsers(remaining, hashes));
+                return remaining.size();
+            } catch (DataIntegrityViolationException retryFailure) {
+                LOGGER.warn("A chunk of {} users still conflicts; importing it row by row", remaining.size(),
+                        retryFailure);
+                return importEach(remaining, hashes, errors);
+            }
+        }
+    }
+
+    private int importEach(List<Row> rows, Map<Integer, String> hashes, List<UserImportError> errors) {
+        int imported = 0;
+        for (Row row : rows) {
+            try {
+                userImportWriter.write(toUsers(List.of(row), hashes));
+                imported++;
+            } catch (DataIntegrityViolationException e) {
+                errors.add(new UserImportError(row.line(), row.username(), "Username or email already in use"));
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Drops the rows whose username or email is already taken, checking the whole chunk with one query per column. The
+     * database finds the stored values by its own collation, which may return them in a different case.
+     */
+    private List<Row> withoutExisting(List<Row> rows, List<UserImportError> errors) {
+        Set<String> takenUsernames = keys(userJdbcRepository.findExistingUsernames(
+                rows.stream().map(Row::username).toList()));
+        Set<String> takenEmails = keys(userJdbcRepository.findExistingEmails(rows.stream().map(Row::email).toList()));
+        List<Row> fresh = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (takenUsernames.contains(key(row.username()))) {
+                errors.add(new UserImportError(row.line(), row.username(), "Username already in use"));
+            } else if (takenEmails.contains(key(row.email()))) {
+                errors.add(new UserImportError(row.line(), row.username(), "Email already in use"));
+            } else {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> keys(Set<String> values) {
+        Set<String> keys = new HashSet<>();
+        for (String value : values) {
+            keys.add(key(value));
+        }
+        return keys;
+    }
+
+    /**
+     * Hashes the passwords of the rows on the hashing pool and returns them by line number.
+     */
+    private Map<Integer, String> hash(List<Row> rows) {
+        List<Future<String>> futures = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            futures.add(AdaptivePasswordEncoder.isBcryptHash(row.password())
+                    ? CompletableFuture.completedFuture(row.password())
+                    : hashingPool.submit(() -> passwordEncoder.encode(row.password())));
+        }
+        Map<Integer, String> hashes = new HashMap<>();
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                hashes.put(rows.get(i).line(), futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return hashes;
+    }
+
+    private static List<User> toUsers(List<Row> rows, Map<Integer, String> hashes) {
+        List<User> users = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            User user = new User();
+            user.setUsername(row.username());
+            user.setEmail(row.email());
+            user.setPassword(hashes.get(row.line()));
+            user.setRoles(ROLE);
+            user.setAddress(row.address());
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Splits one CSV line into fields. A field may be quoted, with a doubled quote standing for a quote inside it.
+     * Returns null when a quote is left open.
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bank_app.User;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountDirectory;
+import com.example.bank_app.Account.AccountNumberAllocator;
+import com.example.bank_app.Balance.Balance;
+import com.example.bank_app.Persistence.EntityIdAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts one chunk of imported users together with their accounts and zero balances, as JDBC batches in a single
+ * transaction. Ids come from the pooled entity id generators, so they never collide with ids handed out by JPA.
+ *
+ * <p>The rows bypass Hibernate and its listeners, so the new accounts are logged for the {@link AccountDirectory} of
+ * other instances in the same transaction. After commit the query cache is evicted, since a cached result may cover
+ * the new rows, and the accounts are registered with this instance's directory. The entity and natural id caches need
+ * no eviction: they hold nothing for ids and numbers that did not exist.
+ */
+@Component
+class UserImportWriter {
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final EntityIdAllocator entityIdAllocator;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountDirectory accountDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    UserImportWriter(UserJdbcRepository userJdbcRepository, EntityIdAllocator entityIdAllocator,
+                     AccountNumberAllocator accountNumberAllocator, AccountDirectory accountDirectory,
+                     PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.entityIdAllocator = entityIdAllocator;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.accountDirectory = accountDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Inserts the users, which must have their password already hashed, and returns their new accounts. Throws
+     * {@link org.springframework.dao.DataIntegrityViolationException} and inserts nothing if a row conflicts with one
+     * committed since the duplicate check.
+     */
+    List<Account> write(List<User> users) {
+        long[] userIds = entityIdAllocator.next(User.class, users.size());
+        long[] accountIds = entityIdAllocator.next(Account.class, users.size());
+        long[] balanceIds = entityIdAllocator.next(Balance.class, users.size());
+        List<Account> accounts = new ArrayList<>(users.size());
+        List<Balance> balances = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            user.setId(userIds[i]);
+
+            Account account = new Account();
+            account.setId(accountIds[i]);
+            account.setAccountNumber(accountNumberAllocator.next());
+            account.setUser(user);
+            accounts.add(account);
+
+            Balance balance = new Balance();
+            balance.setId(balanceIds[i]);
+            balance.setAccount(account);
+            balance.setAmount(BigDecimal.ZERO);
+            balances.add(balance);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userJdbcRepository.insertUsers(users);
+            userJdbcRepository.insertAccounts(accounts);
+            userJdbcRepository.insertBalances(balances);
+            accountDirectory.publishCreated(accounts);
+        });
+
+        sessionFactory.getCache().evictQueryRegions();
+        for (Account account : accounts) {
+            accountDirectory.added(account.getId(), account.getAccountNumber());
+        }
+        return accounts;
+    }
+}
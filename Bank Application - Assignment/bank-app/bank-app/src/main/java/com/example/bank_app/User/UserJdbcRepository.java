@@ -0,0 +1,79 @@
+package com.example.bank_app.User;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Balance.Balance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based JDBC access used by the bulk user import, which checks and inserts users, accounts and balances a chunk at
+ * a time. Callers supply the ids, taken from the pooled entity id generators.
+ */
+@Repository
+public class UserJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    public UserJdbcRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        Set<String> existing = new HashSet<>();
+        if (!usernames.isEmpty()) {
+            namedJdbcTemplate.query("SELECT username FROM users WHERE username IN (:usernames)",
+                    Map.of("usernames", usernames), rs -> {
+                        existing.add(rs.getString("username"));
+                    });
+        }
+        return existing;
+    }
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        if (!emails.isEmpty()) {
+            namedJdbcTemplate.query("SELECT email FROM users WHERE email IN (:emails)", Map.of("emails", emails), rs -> {
+                existing.add(rs.getString("email"));
+            });
+        }
+        return existing;
+    }
+
+    public void insertUsers(List<User> users) {
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (User user : users) {
+            rows.add(new Object[] {user.getId(), user.getUsername(), user.getPassword(), user.getEmail(), user.getRoles(),
+                    user.getAddress()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, password, email, roles, address) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    public void insertAccounts(List<Account> accounts) {
+        List<Object[]> rows = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            rows.add(new Object[] {account.getId(), account.getAccountNumber(), account.getUser().getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account (id, account_number, user_id) VALUES (?, ?, ?)", rows);
+    }
+
+    public void insertBalances(List<Balance> balances) {
+        List<Object[]> rows = new ArrayList<>(balances.size());
+        for (Balance balance : balances) {
+            rows.add(new Object[] {balance.getId(), balance.getAmount(), balance.getAccount().getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO balance (id, amount, account_id) VALUES (?, ?, ?)", rows);
+    }
+}
@@ -1,9 +1,24 @@
 package com.example.bank_app.User;
 
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    User findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     User findByEmail(String email);
+
+    /**
+     * Reads the user from the database rather than the second-level cache, and refreshes the cached entry with it. The
+     * cache is per instance, so a password changed or a user deleted on another instance must not be trusted from it
+     * when checking credentials.
+     */
+    @QueryHints({
+            @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"),
+            @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "REFRESH")
+    })
+    @Query("SELECT u FROM users u WHERE u.username = :username")
+    User findCurrentByUsername(@Param("username") String username);
 }
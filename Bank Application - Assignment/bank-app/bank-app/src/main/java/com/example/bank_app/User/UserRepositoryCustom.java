@@ -0,0 +1,18 @@
+package com.example.bank_app.User;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Resolves a user by username through the natural-id cache. Renaming a user moves the cached entry in the same
+     * transaction, so the old name stops resolving as soon as the rename commits. Returns null when no user has the
+     * name. Entries are not shared between instances, so credentials are checked against
+     * {@link UserRepository#findCurrentByUsername} instead.
+     */
+    User findByUsername(String username);
+
+    /**
+     * Replaces the password hash of {@code user} only if it is still {@code user.getPassword()}. Returns 0 when the
+     * password was changed in the meantime. Only this user's cache entries are evicted, after commit.
+     */
+    int replacePassword(User user, String newHash);
+}
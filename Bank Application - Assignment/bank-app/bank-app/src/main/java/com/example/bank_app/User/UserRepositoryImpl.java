@@ -0,0 +1,67 @@
+package com.example.bank_app.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public User findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).load(username);
+    }
+
+    /**
+     * Runs as plain JDBC: a JPQL bulk update, or a native query Hibernate cannot attribute to tables, makes Hibernate
+     * invalidate the whole user and username regions. Right after the cost is raised most logins rehash, so that
+     * would empty the cache over and over.
+     */
+    @Override
+    public int replacePassword(User user, String newHash) {
+        int updated = jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ? AND password = ?",
+                newHash, user.getId(), user.getPassword());
+        if (updated > 0) {
+            evictAfterCommit(user);
+        }
+        return updated;
+    }
+
+    private void evictAfterCommit(User user) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        SessionFactoryImplementor sessionFactory = session.getFactory();
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        NaturalIdDataAccess naturalIdAccess = persister.getNaturalIdMapping().getCacheAccess();
+        Object naturalIdKey = naturalIdAccess.generateCacheKey(user.getUsername(), persister, session);
+
+        Runnable evict = () -> {
+            sessionFactory.getCache().evictEntityData(User.class, user.getId());
+            naturalIdAccess.evict(naturalIdKey);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.bank_app.User;
 
 import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountNumberAllocator;
 import com.example.bank_app.Account.AccountRepository;
 import com.example.bank_app.Balance.Balance;
 import com.example.bank_app.Balance.BalanceRepository;
@@ -18,29 +19,30 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.regex.Pattern;
 
 @Service
 public class UserService {
     private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
-    private static final int MIN_PASSWORD_LENGTH = 8;
-    private static final int ACCOUNT_NUMBER_LENGTH = 10;
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+    static final int MIN_PASSWORD_LENGTH = 8;
+    static final Pattern EMAIL_PATTERN = Pattern.compile(
             "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
 
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
     private final BalanceRepository balanceRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
 
     @Autowired
     public UserService(UserRepository userRepository, AccountRepository accountRepository,
-                       PasswordEncoder passwordEncoder, BalanceRepository balanceRepository) {
+                       PasswordEncoder passwordEncoder, BalanceRepository balanceRepository,
+                       AccountNumberAllocator accountNumberAllocator) {
         this.userRepository = userRepository;
         this.accountRepository = accountRepository;
         this.passwordEncoder = passwordEncoder;
         this.balanceRepository = balanceRepository;
+        this.accountNumberAllocator = accountNumberAllocator;
     }
 
 //    public List<User> getAllUsers() {
@@ -85,7 +87,7 @@ public class UserService {
             Account existingAccount = accountRepository.findByUserId(newUser.getId());
             if (existingAccount == null) {
                 Account account = new Account();
-                account.setAccountNumber(generateUniqueAccountNumber());
+                account.setAccountNumber(accountNumberAllocator.next());
                 account.setUser(newUser);
                 accountRepository.save(account);
             } else {
@@ -110,6 +112,7 @@ public class UserService {
         }
     }
 
+    @Transactional
     public User updateUser(User user, Long id) {
         Optional<User> existingUser = userRepository.findById(id);
         if (existingUser.isPresent()) {
@@ -164,9 +167,4 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
     }
-
-
-    private String generateUniqueAccountNumber() {
-        return UUID.randomUUID().toString().replaceAll("-", "").substring(0, ACCOUNT_NUMBER_LENGTH);
-    }
 }
@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class InvalidBatchRequestException extends RuntimeException {
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
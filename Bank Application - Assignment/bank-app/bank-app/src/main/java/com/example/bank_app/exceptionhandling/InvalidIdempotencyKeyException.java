@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
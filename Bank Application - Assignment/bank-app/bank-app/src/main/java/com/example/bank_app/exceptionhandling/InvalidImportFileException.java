@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class InvalidImportFileException extends RuntimeException {
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
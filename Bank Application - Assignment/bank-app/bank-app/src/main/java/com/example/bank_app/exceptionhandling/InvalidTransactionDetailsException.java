@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class InvalidTransactionDetailsException extends RuntimeException {
+    public InvalidTransactionDetailsException(String message) {
+        super(message);
+    }
+}
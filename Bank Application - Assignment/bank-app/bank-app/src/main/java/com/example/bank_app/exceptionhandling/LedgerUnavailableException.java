@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class LedgerUnavailableException extends RuntimeException {
+    public LedgerUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bank_app.exceptionhandling;
+
+public class LoginRejectedException extends RuntimeException {
+    public LoginRejectedException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,7 @@
 package com.example.bank_app;
 
 import com.example.bank_app.Account.Account;
-import com.example.bank_app.Account.AccountRepository;
 import com.example.bank_app.User.User;
-import com.example.bank_app.User.UserRepository;
-import jakarta.transaction.Transactional;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,40 +26,26 @@ public class AccountApiTest {
     private MockMvc mockMvc;
 
     @Autowired
-    private AccountRepository accountRepository;
-
-    @Autowired
-    private UserRepository userRepository;
+    private TestData testData;
 
     private Long testUserId;
     private Long testAccountId;
 
     @BeforeEach
-    @Transactional
     public void setUp() {
-        accountRepository.deleteAll();
-        userRepository.deleteAll();
+        testData.deleteAll();
 
-        User user = new User();
-        user.setUsername("testuser");
-        user.setPassword("password");
-        user.setEmail("testuser@example.com");
-        user.setRoles("USER");
-        user.setAddress("123 Test St.");
-        User savedUser = userRepository.save(user);
-        testUserId = savedUser.getId();
+        User user = testData.createUser("testuser", "password");
+        testUserId = user.getId();
 
-        Account account = new Account();
-        account.setAccountNumber("1234567890");
-        account.setUser(savedUser);
-        Account savedAccount = accountRepository.save(account);
-        testAccountId = savedAccount.getId();
+        Account account = testData.createAccount(user, "1234567890");
+        testAccountId = account.getId();
     }
 
     @Order(1)
     @Test
     public void testGetAllAccountsSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/accounts/get-all-accounts")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -74,7 +57,7 @@ public class AccountApiTest {
     @Order(2)
     @Test
     public void testGetAccountByIdSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/accounts/" + testAccountId)
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + testAccountId)
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -87,7 +70,7 @@ public class AccountApiTest {
     @Order(3)
     @Test
     public void testGetAccountByIdNotFound() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/accounts/999")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/999")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -97,7 +80,7 @@ public class AccountApiTest {
     @Order(4)
     @Test
     public void testGetAccountByUserIdSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/accounts/user/" + testUserId)
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/users/" + testUserId + "/accounts")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -110,7 +93,7 @@ public class AccountApiTest {
     @Order(5)
     @Test
     public void testGetAccountByUserIdNotFound() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/accounts/user/999")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/users/999/accounts")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -120,7 +103,7 @@ public class AccountApiTest {
     @Order(6)
     @Test
     public void testDeleteAccountSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.delete("/api/accounts/" + testAccountId)
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v2/accounts/" + testAccountId)
                         .with(SecurityMockMvcRequestPostProcessors.csrf())
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
@@ -131,7 +114,7 @@ public class AccountApiTest {
     @Order(7)
     @Test
     public void testDeleteAccountNotFound() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.delete("/api/accounts/999")
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v2/accounts/999")
                         .with(SecurityMockMvcRequestPostProcessors.csrf())
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
@@ -0,0 +1,232 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountDirectory;
+import com.example.bank_app.Account.AccountRepository;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionService;
+import com.example.bank_app.exceptionhandling.AccountNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduling is off, so the directory is only rebuilt and refreshed when a test asks for it. Rows inserted with plain
+ * JDBC stand in for accounts created by another instance; they get every other id, leaving gaps like the unused ids of
+ * another instance's block.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountDirectoryTest {
+
+    private static final int LOADED_ACCOUNTS = 2000;
+    private static final long FIRST_ID = 5_000_000L;
+
+    @Autowired
+    private AccountDirectory accountDirectory;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < LOADED_ACCOUNTS; i++) {
+            rows.add(new Object[] {FIRST_ID + 2L * i, String.valueOf(1212100000L + i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account (id, account_number) VALUES (?, ?)", rows);
+        accountDirectory.rebuild();
+    }
+
+    private void changedElsewhere(long accountId, String accountNumber, boolean removed) {
+        if (removed) {
+            jdbcTemplate.update("DELETE FROM account WHERE id = ?", accountId);
+        } else {
+            jdbcTemplate.update("INSERT INTO account (id, account_number) VALUES (?, ?)", accountId, accountNumber);
+        }
+        jdbcTemplate.update("INSERT INTO account_change (account_id, account_number, removed, changed_at) "
+                + "VALUES (?, ?, ?, CURRENT_TIMESTAMP)", accountId, accountNumber, removed);
+    }
+
+    private Long idOf(String accountNumber) {
+        return jdbcTemplate.queryForObject("SELECT id FROM account WHERE account_number = ?", Long.class, accountNumber);
+    }
+
+    private double databaseLookups() {
+        Counter counter = meterRegistry.find("account.directory.lookups").tag("result", "database").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    public void testRebuildLoadsEveryAccount() {
+        Assertions.assertTrue(accountDirectory.isLoaded());
+        for (int i = 0; i < LOADED_ACCOUNTS; i += 97) {
+            String accountNumber = String.valueOf(1212100000L + i);
+            Assertions.assertEquals(idOf(accountNumber), accountDirectory.findAccountId(accountNumber));
+        }
+        Assertions.assertNull(accountDirectory.findAccountId("1212199999"));
+        Assertions.assertNull(accountDirectory.findAccountId("01212100000"));
+    }
+
+    @Test
+    public void testUnknownReceiverIsRejectedWithoutQuery() {
+        Transaction transaction = new Transaction();
+        Account sender = new Account();
+        sender.setId(idOf("1212100000"));
+        transaction.setAccount(sender);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setIndicator("DB");
+        transaction.setReceiverAccountNumber("1212199999");
+        transaction.setDescription("Transfer");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        double databaseLookups = databaseLookups();
+        Assertions.assertThrows(AccountNotFoundException.class, () -> transactionService.saveTransaction(transaction));
+        Assertions.assertEquals(0L, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(databaseLookups, databaseLookups());
+    }
+
+    @Test
+    public void testMistypedReceiverIsRejectedWithoutQuery() {
+        Transaction transaction = new Transaction();
+        Account sender = new Account();
+        sender.setId(idOf("1212100000"));
+        transaction.setAccount(sender);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setIndicator("DB");
+        transaction.setReceiverAccountNumber("12121000000");
+        transaction.setDescription("Transfer");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        double databaseLookups = databaseLookups();
+        Assertions.assertThrows(AccountNotFoundException.class, () -> transactionService.saveTransaction(transaction));
+        Assertions.assertEquals(0L, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(databaseLookups, databaseLookups());
+    }
+
+    @Test
+    public void testCommittedCreateAndDeleteAreVisibleImmediately() {
+        Account account = new Account();
+        account.setAccountNumber("1212188888");
+        account = accountRepository.save(account);
+        Assertions.assertEquals(account.getId(), accountDirectory.findAccountId("1212188888"));
+
+        accountRepository.deleteById(account.getId());
+        Assertions.assertNull(accountDirectory.findAccountId("1212188888"));
+    }
+
+    @Test
+    public void testRolledBackCreateIsNotVisible() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Account account = new Account();
+            account.setAccountNumber("1212177777");
+            accountRepository.save(account);
+            status.setRollbackOnly();
+        });
+        Assertions.assertNull(accountDirectory.findAccountId("1212177777"));
+    }
+
+    @Test
+    public void testCreatesAndDeletesAreLogged() {
+        Account account = new Account();
+        account.setAccountNumber("1212188889");
+        account = accountRepository.save(account);
+        accountRepository.deleteById(account.getId());
+
+        List<Boolean> logged = jdbcTemplate.queryForList(
+                "SELECT removed FROM account_change WHERE account_id = ? ORDER BY id", Boolean.class, account.getId());
+        Assertions.assertEquals(List.of(false, true), logged);
+    }
+
+    @Test
+    public void testRefreshPicksUpAccountsCreatedElsewhere() {
+        changedElsewhere(FIRST_ID + 2L * LOADED_ACCOUNTS + 100, "1212166666", false);
+        accountDirectory.refresh();
+
+        double databaseLookups = databaseLookups();
+        Assertions.assertEquals(idOf("1212166666"), accountDirectory.findAccountId("1212166666"));
+        Assertions.assertEquals(databaseLookups, databaseLookups());
+    }
+
+    @Test
+    public void testRefreshPicksUpAccountFromAnOldBlock() {
+        long oldBlockId = FIRST_ID - 10_000;
+        changedElsewhere(oldBlockId, "1212166668", false);
+        accountDirectory.refresh();
+
+        double databaseLookups = databaseLookups();
+        Assertions.assertEquals(oldBlockId, accountDirectory.findAccountId("1212166668"));
+        Assertions.assertEquals(databaseLookups, databaseLookups());
+    }
+
+    @Test
+    public void testRefreshPicksUpAccountsDeletedElsewhere() {
+        long accountId = idOf("1212100005");
+        changedElsewhere(accountId, "1212100005", true);
+        accountDirectory.refresh();
+        Assertions.assertNull(accountDirectory.findAccountId("1212100005"));
+
+        changedElsewhere(FIRST_ID - 20_000, "1212166669", false);
+        changedElsewhere(FIRST_ID - 20_000, "1212166669", true);
+        accountDirectory.refresh();
+        accountDirectory.refresh();
+        Assertions.assertNull(accountDirectory.findAccountId("1212166669"));
+    }
+
+    @Test
+    public void testRebuildPurgesOldLogRows() {
+        changedElsewhere(FIRST_ID - 30_000, "1212166670", false);
+        jdbcTemplate.update("UPDATE account_change SET changed_at = ?", LocalDateTime.now().minusDays(2));
+        accountDirectory.rebuild();
+
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_change", Integer.class));
+        Assertions.assertEquals(FIRST_ID - 30_000, accountDirectory.findAccountId("1212166670"));
+    }
+
+    @Test
+    public void testNumbersOutsideTheEncodingGoToTheDatabase() {
+        jdbcTemplate.update("INSERT INTO account (id, account_number) VALUES (?, 'Dir-0001')", FIRST_ID - 1);
+        double databaseLookups = databaseLookups();
+
+        Assertions.assertEquals(idOf("Dir-0001"), accountDirectory.findAccountId("Dir-0001"));
+        Assertions.assertNull(accountDirectory.findAccountId("Dir-0002"));
+        Assertions.assertEquals(databaseLookups + 2, databaseLookups());
+    }
+}
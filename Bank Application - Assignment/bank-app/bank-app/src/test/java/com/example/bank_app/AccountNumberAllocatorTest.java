@@ -0,0 +1,135 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountDirectory;
+import com.example.bank_app.Account.AccountNumberAllocator;
+import com.example.bank_app.Account.AccountRepository;
+import com.example.bank_app.User.User;
+import com.example.bank_app.User.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest(properties = {
+        "accounts.numbers.block-size=50"
+})
+@ActiveProfiles("test")
+public class AccountNumberAllocatorTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 500;
+    private static final int BLOCK_SIZE = 50;
+
+    @Autowired
+    private AccountNumberAllocator allocator;
+
+    @Autowired
+    private AccountDirectory accountDirectory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+    }
+
+    private long nextSerial() {
+        return jdbcTemplate.queryForObject("SELECT next_value FROM account_number_sequence WHERE id = 1", Long.class);
+    }
+
+    @Test
+    public void testConcurrentAllocationIsUniqueAndLeasesWholeBlocks() throws Exception {
+        long before = nextSerial();
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tasks.add(() -> {
+                    for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                        Assertions.assertTrue(numbers.add(allocator.next()));
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(THREADS * NUMBERS_PER_THREAD, numbers.size());
+        for (String number : numbers) {
+            Assertions.assertEquals(AccountNumberAllocator.LENGTH, number.length());
+            Assertions.assertFalse(AccountNumberAllocator.isMistyped(number), number);
+        }
+        long leased = nextSerial() - before;
+        Assertions.assertEquals(0, leased % BLOCK_SIZE);
+        Assertions.assertTrue(leased <= THREADS * NUMBERS_PER_THREAD + BLOCK_SIZE);
+    }
+
+    @Test
+    public void testCheckDigitCatchesTyposAndIgnoresLegacyNumbers() {
+        String number = allocator.next();
+        for (int i = 0; i < number.length(); i++) {
+            char digit = number.charAt(i);
+            String typo = number.substring(0, i) + (char) ('0' + (digit - '0' + 1) % 10) + number.substring(i + 1);
+            Assertions.assertTrue(AccountNumberAllocator.isMistyped(typo), typo);
+        }
+        Assertions.assertTrue(AccountNumberAllocator.isMistyped("79927398710"));
+        Assertions.assertFalse(AccountNumberAllocator.isMistyped("79927398713"));
+        Assertions.assertFalse(AccountNumberAllocator.isMistyped("1234567890"));
+        Assertions.assertFalse(AccountNumberAllocator.isMistyped("3f9a0c12be"));
+    }
+
+    @Test
+    public void testMistypedReceiverIsRejectedBeforeLookup() {
+        double before = meterRegistry.counter("account.directory.lookups", "result", "mistyped").count();
+        Assertions.assertNull(accountDirectory.findAccountId("79927398710"));
+        Assertions.assertEquals(before + 1,
+                meterRegistry.counter("account.directory.lookups", "result", "mistyped").count());
+    }
+
+    @Test
+    public void testOnboardingAssignsAllocatedNumber() {
+        User user = new User();
+        user.setUsername("allocatoruser");
+        user.setPassword("password123");
+        user.setEmail("allocatoruser@example.com");
+        user.setAddress("1 Allocator St.");
+        User saved = userService.saveUser(user);
+
+        Account account = accountRepository.findByUserId(saved.getId());
+        Assertions.assertEquals(AccountNumberAllocator.LENGTH, account.getAccountNumber().length());
+        Assertions.assertFalse(AccountNumberAllocator.isMistyped(account.getAccountNumber()));
+        Assertions.assertEquals(account.getId(), accountDirectory.findAccountId(account.getAccountNumber()));
+    }
+}
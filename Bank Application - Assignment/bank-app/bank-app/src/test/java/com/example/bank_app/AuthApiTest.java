@@ -1,9 +1,8 @@
 package com.example.bank_app;
 import com.example.bank_app.Authentication.AuthenticationRequest;
+import com.example.bank_app.Authentication.LoginService;
 import com.example.bank_app.User.User;
-import com.example.bank_app.User.UserRepository;
-import com.example.bank_app.User.CustomUserDetailsService;
-import com.example.bank_app.Security.JwtUtil;
+import com.example.bank_app.Security.RefreshTokenService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
@@ -12,14 +11,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.ArrayList;
-
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,16 +28,10 @@ public class AuthApiTest {
     private MockMvc mockMvc;
 
     @MockBean
-    private AuthenticationManager authenticationManager;
-
-    @MockBean
-    private JwtUtil jwtUtil;
-
-    @MockBean
-    private CustomUserDetailsService userDetailsService;
+    private LoginService loginService;
 
     @MockBean
-    private UserRepository userRepository;
+    private RefreshTokenService refreshTokenService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -66,14 +55,12 @@ public class AuthApiTest {
     @Test
     public void testLoginSuccess() throws Exception {
         String token = "mockJwtToken";
-        Mockito.when(authenticationManager.authenticate(Mockito.any()))
-                .thenReturn(new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword()));
-        Mockito.when(userDetailsService.loadUserByUsername(authRequest.getUsername()))
-                .thenReturn(new org.springframework.security.core.userdetails.User(testUser.getUsername(), testUser.getPassword(), new ArrayList<>()));
-        Mockito.when(jwtUtil.generateToken(Mockito.anyString())).thenReturn(token);
-        Mockito.when(userRepository.findByUsername(authRequest.getUsername())).thenReturn(testUser);
+        Mockito.when(loginService.authenticate(authRequest.getUsername(), authRequest.getPassword()))
+                .thenReturn(testUser);
+        Mockito.when(refreshTokenService.issue(Mockito.eq(testUser), Mockito.any()))
+                .thenReturn(new RefreshTokenService.IssuedTokens(token, "mockRefreshToken"));
 
-        mockMvc.perform(post("/api/v1/auth/login")
+        mockMvc.perform(post("/api/v2/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isOk())
@@ -85,10 +72,10 @@ public class AuthApiTest {
     @Order(2)
     @Test
     public void testLoginFailureBadCredentials() throws Exception {
-        Mockito.when(authenticationManager.authenticate(Mockito.any()))
+        Mockito.when(loginService.authenticate(Mockito.any(), Mockito.any()))
                 .thenThrow(new BadCredentialsException("Incorrect username or password"));
 
-        mockMvc.perform(post("/api/v1/auth/login")
+        mockMvc.perform(post("/api/v2/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isUnauthorized())
@@ -98,10 +85,10 @@ public class AuthApiTest {
     @Order(3)
     @Test
     public void testLoginFailureUnexpectedError() throws Exception {
-        Mockito.when(authenticationManager.authenticate(Mockito.any()))
+        Mockito.when(loginService.authenticate(Mockito.any(), Mockito.any()))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
-        mockMvc.perform(post("/api/v1/auth/login")
+        mockMvc.perform(post("/api/v2/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isInternalServerError())
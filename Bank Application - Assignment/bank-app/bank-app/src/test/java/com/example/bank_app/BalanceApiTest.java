@@ -1,10 +1,7 @@
 package com.example.bank_app;
 
 import com.example.bank_app.Account.Account;
-import com.example.bank_app.Account.AccountRepository;
-import com.example.bank_app.Balance.Balance;
 import com.example.bank_app.Balance.BalanceRepository;
-import jakarta.transaction.Transactional;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
@@ -23,7 +20,6 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @SpringBootTest
@@ -39,34 +35,24 @@ public class BalanceApiTest {
     private BalanceRepository balanceRepository;
 
     @Autowired
-    private AccountRepository accountRepository;
+    private TestData testData;
 
     private Long testAccountId;
     private Long testBalanceId;
 
     @BeforeEach
-    @Transactional
     public void setUp() {
-        balanceRepository.deleteAll();
-        accountRepository.deleteAll();
-
-        Account account = new Account();
-        account.setAccountNumber("1234567890");
-        Account savedAccount = accountRepository.save(account);
-        testAccountId = savedAccount.getId();
-
-        Balance balance = new Balance();
-        //balance.setDate(LocalDateTime.now());
-        balance.setAmount(BigDecimal.valueOf(1000.00));
-        balance.setAccount(savedAccount);
-        Balance savedBalance = balanceRepository.save(balance);
-        testBalanceId = savedBalance.getId();
+        testData.deleteAll();
+
+        Account account = testData.createAccount("testuser", "1234567890", "1000.00");
+        testAccountId = account.getId();
+        testBalanceId = balanceRepository.findByAccountId(testAccountId).getId();
     }
 
     @Order(1)
     @Test
     public void testGetAllBalancesSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/balances")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/balances")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -78,7 +64,7 @@ public class BalanceApiTest {
     @Order(2)
     @Test
     public void testGetBalanceByIdSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/balances/" + testBalanceId)
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/balances/" + testBalanceId)
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -91,7 +77,7 @@ public class BalanceApiTest {
     @Order(3)
     @Test
     public void testGetBalanceByIdNotFound() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/balances/999")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/balances/999")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -101,7 +87,7 @@ public class BalanceApiTest {
     @Order(4)
     @Test
     public void testGetBalanceByAccountIdSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/balances/account/" + testAccountId)
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + testAccountId + "/balances")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -114,7 +100,7 @@ public class BalanceApiTest {
     @Order(5)
     @Test
     public void testGetBalanceByAccountIdNotFound() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/balances/account/999")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/999/balances")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -126,7 +112,7 @@ public class BalanceApiTest {
     public void testUpdateBalanceSuccess() throws Exception {
         String updatedBalanceJson = "{ \"date\": \"" + LocalDateTime.now() + "\", \"amount\": 1500.00, \"account\": { \"id\": " + testAccountId + "} }";
 
-        mockMvc.perform(MockMvcRequestBuilders.put("/api/balances/" + testBalanceId)
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v2/balances/" + testBalanceId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(updatedBalanceJson)
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
@@ -142,7 +128,7 @@ public class BalanceApiTest {
     public void testUpdateBalanceNotFound() throws Exception {
         String updatedBalanceJson = "{ \"date\": \"" + LocalDateTime.now() + "\", \"amount\": 1500.00, \"account\": { \"id\": " + testAccountId + "} }";
 
-        mockMvc.perform(MockMvcRequestBuilders.put("/api/balances/999")
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v2/balances/999")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(updatedBalanceJson)
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
@@ -154,7 +140,7 @@ public class BalanceApiTest {
     @Order(8)
     @Test
     public void testDeleteBalanceSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.delete("/api/balances/" + testBalanceId)
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v2/balances/" + testBalanceId)
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -0,0 +1,120 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionRepository;
+import com.example.bank_app.Transaction.TransactionService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BalanceHistoryApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Account payer;
+    private Account payee;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        testData.deleteAll();
+        payer = testData.createAccount("historypayer", "2222200001", "500.00");
+        payee = testData.createAccount("historypayee", "2222200002", "0.00");
+        for (String amount : new String[] {"100.00", "150.00", "50.00"}) {
+            Transaction transaction = new Transaction();
+            transaction.setAccount(payer);
+            transaction.setAmount(new BigDecimal(amount));
+            transaction.setIndicator("DB");
+            transaction.setReceiverAccountNumber(payee.getAccountNumber());
+            transaction.setDescription("History transfer");
+            transactionService.saveTransaction(transaction);
+        }
+    }
+
+    private List<Transaction> postingsOf(Account account) {
+        return transactionRepository.findByAccountId(account.getId()).stream()
+                .sorted(Comparator.comparing(Transaction::getId))
+                .toList();
+    }
+
+    @Test
+    public void testPostingsRecordRunningBalance() {
+        List<BigDecimal> payerBalances = postingsOf(payer).stream().map(Transaction::getBalanceAfter).toList();
+        List<BigDecimal> payeeBalances = postingsOf(payee).stream().map(Transaction::getBalanceAfter).toList();
+
+        Assertions.assertEquals(List.of(new BigDecimal("400.00"), new BigDecimal("250.00"), new BigDecimal("200.00")),
+                payerBalances);
+        Assertions.assertEquals(List.of(new BigDecimal("100.00"), new BigDecimal("250.00"), new BigDecimal("300.00")),
+                payeeBalances);
+    }
+
+    @Test
+    public void testBalanceAsOf() throws Exception {
+        Transaction second = postingsOf(payer).get(1);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + payer.getId() + "/balances")
+                        .param("asOf", second.getDate().toString())
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.amount", Matchers.is(250.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactionId", Matchers.is(second.getId().intValue())));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + payer.getId() + "/balances")
+                        .param("asOf", postingsOf(payer).get(0).getDate().minusDays(1).toString())
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testDownsampledHistory() throws Exception {
+        Transaction first = postingsOf(payer).get(0);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + payer.getId() + "/balances/history")
+                        .param("from", first.getDate().minusHours(1).toString())
+                        .param("to", first.getDate().plusHours(1).toString())
+                        .param("points", "4")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].close", Matchers.is(200.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].min", Matchers.is(200.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].max", Matchers.is(400.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].close", Matchers.is(200.0)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + payer.getId() + "/balances/history")
+                        .param("points", "0")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
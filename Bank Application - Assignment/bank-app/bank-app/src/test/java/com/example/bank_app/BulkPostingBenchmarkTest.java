@@ -0,0 +1,122 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionJdbcRepository;
+import com.example.bank_app.Transaction.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persists the same bulk posting once through JPA and once through the JDBC batch insert, and logs the time each took.
+ * Transaction ids come from an identity column, so Hibernate inserts each row on its own to learn its id, while the
+ * JDBC insert sends {@code batch_size} rows per round trip and reads the generated keys back. Run with
+ * {@code mvn test -Pbenchmark}; the number of postings can be changed with {@code -Dbenchmark.postings}.
+ *
+ * <p>The test profile uses in-memory H2, where a round trip is nearly free; point {@code spring.datasource.url} at
+ * MySQL to see the full gain.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+public class BulkPostingBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkPostingBenchmarkTest.class);
+    private static final int WARMUP_POSTINGS = 1000;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    @Value("${benchmark.postings:20000}")
+    private int postings;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static Transaction posting(Account account, int i) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setDate(LocalDateTime.of(2024, 6, 1, 9, 0).plusSeconds(i));
+        transaction.setAmount(new BigDecimal("1.00"));
+        transaction.setIndicator("CR");
+        transaction.setDescription("Bulk posting");
+        transaction.setReceiverAccountNumber("0000000000");
+        return transaction;
+    }
+
+    private long persist(Account account, int count) {
+        long started = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                entityManager.persist(posting(account, i));
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        return System.nanoTime() - started;
+    }
+
+    private long insert(Account account, int count) {
+        long started = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Transaction> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < count; i++) {
+                batch.add(posting(account, i));
+                if (batch.size() == batchSize || i == count - 1) {
+                    transactionJdbcRepository.insertTransactions(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        });
+        return System.nanoTime() - started;
+    }
+
+    @Test
+    public void benchmarkBulkPosting() {
+        testData.deleteAll();
+        Account account = testData.createAccount(null, "1414100001");
+
+        persist(account, WARMUP_POSTINGS);
+        insert(account, WARMUP_POSTINGS);
+        long unbatched = persist(account, postings);
+        long batched = insert(account, postings);
+
+        LOGGER.info("bulk posting of {} transactions: {} ms through JPA, {} ms in JDBC batches of {}, {}x",
+                postings, unbatched / NANOS_PER_MILLI, batched / NANOS_PER_MILLI, batchSize,
+                String.format("%.2f", (double) unbatched / batched));
+        Assertions.assertEquals(2L * (WARMUP_POSTINGS + postings), transactionRepository.count());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountRepository;
+import com.example.bank_app.Account.AccountService;
+import com.example.bank_app.Config.EntityCacheConfiguration;
+import com.example.bank_app.User.User;
+import com.example.bank_app.User.UserRepository;
+import com.example.bank_app.User.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+/**
+ * Checks that repeated account and user lookups are answered from the second-level cache, that renames and deletes
+ * leave no stale entries behind, and that the cache counters are published as meters.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class EntityCacheTest {
+
+    private static final String ACCOUNT_NUMBER = "3333300001";
+    private static final String USERNAME = "cacheuser";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TestData testData;
+
+    private Statistics statistics;
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        testData.deleteAll();
+        user = testData.createUser(USERNAME, "password");
+        account = testData.createAccount(user, ACCOUNT_NUMBER);
+    }
+
+    @Test
+    public void testRepeatedLookupsAreServedFromCache() {
+        Assertions.assertEquals(account.getId(), accountRepository.findByAccountNumber(ACCOUNT_NUMBER).getId());
+        Assertions.assertEquals(user.getId(), userRepository.findByUsername(USERNAME).getId());
+
+        statistics.clear();
+        Assertions.assertEquals(account.getId(), accountRepository.findByAccountNumber(ACCOUNT_NUMBER).getId());
+        Assertions.assertEquals(user.getId(), userRepository.findByUsername(USERNAME).getId());
+        Assertions.assertEquals(USERNAME, userRepository.findById(user.getId()).orElseThrow().getUsername());
+
+        Assertions.assertEquals(0L, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(2L, statistics.getNaturalIdCacheHitCount());
+        Assertions.assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    public void testCachedAccountIsServedWithItsUser() throws Exception {
+        for (String url : List.of("/api/v2/accounts/" + account.getId(),
+                "/api/v2/users/" + user.getId() + "/accounts")) {
+            // the second read of each finds the account in the cache, where the entity graph does not apply
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(MockMvcRequestBuilders.get(url)
+                                .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                        .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                        .andExpect(MockMvcResultMatchers.status().isOk())
+                        .andExpect(MockMvcResultMatchers.jsonPath("$.user.username").value(USERNAME));
+            }
+        }
+    }
+
+    @Test
+    public void testMissingNaturalIdReturnsNull() {
+        Assertions.assertNull(accountRepository.findByAccountNumber("3333399999"));
+        Assertions.assertNull(userRepository.findByUsername("nosuchcacheuser"));
+    }
+
+    @Test
+    public void testRenameMovesNaturalIdEntry() {
+        Assertions.assertNotNull(userRepository.findByUsername(USERNAME));
+
+        User rename = new User();
+        rename.setUsername("renamedcacheuser");
+        userService.updateUser(rename, user.getId());
+
+        Assertions.assertNull(userRepository.findByUsername(USERNAME));
+        Assertions.assertEquals(user.getId(), userRepository.findByUsername("renamedcacheuser").getId());
+        Assertions.assertEquals("renamedcacheuser", userRepository.findById(user.getId()).orElseThrow().getUsername());
+    }
+
+    @Test
+    public void testDeleteEvictsAccountAndUser() {
+        Assertions.assertNotNull(accountRepository.findByAccountNumber(ACCOUNT_NUMBER));
+        Assertions.assertNotNull(userRepository.findByUsername(USERNAME));
+
+        accountService.deleteAccount(account.getId());
+
+        Assertions.assertTrue(accountRepository.findById(account.getId()).isEmpty());
+        Assertions.assertNull(accountRepository.findByAccountNumber(ACCOUNT_NUMBER));
+        Assertions.assertTrue(userRepository.findById(user.getId()).isEmpty());
+        Assertions.assertNull(userRepository.findByUsername(USERNAME));
+    }
+
+    @Test
+    public void testCacheCountersArePublished() throws Exception {
+        accountRepository.findByAccountNumber(ACCOUNT_NUMBER);
+        accountRepository.findByAccountNumber(ACCOUNT_NUMBER);
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", EntityCacheConfiguration.ACCOUNT_REGION, "result", "hit")
+                .functionCounter();
+        Assertions.assertNotNull(hits);
+        Assertions.assertTrue(hits.count() >= 1);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/hibernate.cache.natural.id.requests")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.availableTags[*].tag", Matchers.hasItem("result")));
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountRepository;
+import com.example.bank_app.Balance.Balance;
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the JDBC statements behind each read endpoint with Hibernate statistics and checks that the count does not
+ * grow with the number of accounts and users in the result. Scheduling is off, so no background job shares the
+ * statistics, and the second-level cache is off, so every read reaches the database.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class FetchPlanStatementCountTest {
+
+    private static final int POSTINGS_PER_ACCOUNT = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Statistics statistics;
+    private final List<Account> accounts = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        testData.deleteAll();
+        accounts.clear();
+    }
+
+    private void createAccounts(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = accounts.size();
+            Account account = testData.createAccount("fetchplan" + n, String.valueOf(7700000000L + n), "100.00");
+            accounts.add(account);
+
+            for (int p = 0; p < POSTINGS_PER_ACCOUNT; p++) {
+                Transaction transaction = new Transaction();
+                transaction.setAccount(account);
+                transaction.setDate(LocalDateTime.of(2024, 6, 1, 9, 0).plusMinutes(n * POSTINGS_PER_ACCOUNT + p));
+                transaction.setAmount(new BigDecimal("1.00"));
+                transaction.setIndicator("CR");
+                transaction.setDescription("Fetch plan posting");
+                transaction.setReceiverAccountNumber("0000000000");
+                transactionRepository.save(transaction);
+            }
+        }
+    }
+
+    private Map<String, Long> countStatementsPerEndpoint() throws Exception {
+        Account account = accounts.get(accounts.size() - 1);
+        Balance balance = balanceRepository.findByAccountId(account.getId());
+        Transaction transaction = transactionRepository.findByAccountId(account.getId()).get(0);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String url : List.of(
+                "/api/v2/accounts",
+                "/api/v2/balances",
+                "/api/v2/transactions",
+                "/api/v2/accounts/" + account.getId() + "/transactions",
+                "/api/v2/accounts/" + account.getId(),
+                "/api/v2/users/" + account.getUser().getId() + "/accounts",
+                "/api/v2/balances/" + balance.getId(),
+                "/api/v2/accounts/" + account.getId() + "/balances",
+                "/api/v2/transactions/" + transaction.getId())) {
+            statistics.clear();
+            mockMvc.perform(MockMvcRequestBuilders.get(url)
+                            .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                    .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+            counts.put(url.replaceAll("/\\d+", "/{id}"), statistics.getPrepareStatementCount());
+        }
+        return counts;
+    }
+
+    @Test
+    public void testEachReadEndpointIssuesOneStatementWhateverTheResultSize() throws Exception {
+        createAccounts(1);
+        Map<String, Long> single = countStatementsPerEndpoint();
+
+        createAccounts(4);
+        Map<String, Long> several = countStatementsPerEndpoint();
+
+        Assertions.assertEquals(single, several);
+        several.forEach((endpoint, count) -> Assertions.assertEquals(1L, count, endpoint));
+    }
+
+    @Test
+    public void testFindAllFetchesAssociationsInOneStatement() {
+        createAccounts(4);
+
+        statistics.clear();
+        List<Transaction> transactions = transactionRepository.findAll();
+        Assertions.assertEquals(4 * POSTINGS_PER_ACCOUNT, transactions.size());
+        transactions.forEach(t -> Assertions.assertNotNull(t.getAccount().getAccountNumber()));
+        Assertions.assertEquals(1L, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        balanceRepository.findAll().forEach(b -> Assertions.assertNotNull(b.getAccount().getAccountNumber()));
+        accountRepository.findAll().forEach(a -> Assertions.assertNotNull(a.getUser().getUsername()));
+        Assertions.assertEquals(2L, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testUnfetchedAssociationIsLoadedOrRefused() {
+        createAccounts(1);
+        String accountNumber = accounts.get(0).getAccountNumber();
+
+        // outside a session the copy cannot be filled in, and a copy with only the id would pass for real data
+        Account account = accountRepository.findByAccountNumber(accountNumber);
+        Assertions.assertThrows(LazyInitializationException.class, account::getUser);
+
+        String username = new TransactionTemplate(transactionManager).execute(status ->
+                accountRepository.findByAccountNumber(accountNumber).getUser().getUsername());
+        Assertions.assertEquals(accounts.get(0).getUser().getUsername(), username);
+    }
+
+    @Test
+    public void testBalanceAdjustmentReturnsTheAccountAndItsUser() throws Exception {
+        createAccounts(1);
+        Account account = accounts.get(0);
+        Balance balance = balanceRepository.findByAccountId(account.getId());
+
+        // the body is written after the transaction commits, so everything it reads must come with the locked row
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v2/balances/" + balance.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 150.00}")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(balance.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.amount").value(150.00))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.account.accountNumber").value(account.getAccountNumber()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.account.user.username")
+                        .value(account.getUser().getUsername()));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Security.JwtUtil;
+import com.example.bank_app.Security.VerifiedTokenCache;
+import com.example.bank_app.User.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Date;
+
+/**
+ * Requests carry real bearer tokens here, so the filter is exercised end to end.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class JwtAuthorizationTest {
+
+    private static final String METRICS = "/actuator/metrics";
+    private static final long SHORT_LIFE_MILLIS = 1500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestData testData;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    public void testLoginPutsRolesAndAccountIdInTheToken() throws Exception {
+        User user = testData.createUser("jwtuser", passwordEncoder.encode("password123"));
+        Account account = testData.createAccount(user, "1515100001");
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"jwtuser\", \"password\": \"password123\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Claims claims = jwtUtil.extractClaims(objectMapper.readTree(body).get("token").asText());
+        Assertions.assertEquals("jwtuser", claims.getSubject());
+        Assertions.assertEquals("ACCOUNTHOLDER", claims.get(JwtUtil.ROLES_CLAIM, String.class));
+        Assertions.assertEquals(account.getId(), claims.get(JwtUtil.ACCOUNT_ID_CLAIM, Long.class));
+    }
+
+    @Test
+    public void testRequestIsAuthorizedFromClaimsWithoutDatabaseAccess() throws Exception {
+        // the user does not exist, so any lookup would fail the request
+        String token = jwtUtil.generateToken("nosuchjwtuser", "ADMIN", 42L);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.get(METRICS).header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Assertions.assertEquals(0L, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testForgedAndExpiredTokensAreUnauthorized() throws Exception {
+        String token = jwtUtil.generateToken("jwtuser", "ADMIN", null);
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String expired = Jwts.builder()
+                .setSubject("jwtuser")
+                .claim(JwtUtil.ROLES_CLAIM, "ADMIN")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .compact();
+
+        for (String bad : new String[] {forged, expired, "not-a-token"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get(METRICS).header("Authorization", "Bearer " + bad))
+                    .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        }
+    }
+
+    private double cacheGets(String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets").tags("cache", "jwt.tokens", "result", result)
+                .functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    public void testRepeatedRequestsVerifyTheTokenOnce() throws Exception {
+        String token = jwtUtil.generateToken("chattyjwtuser", "ADMIN", null);
+        double misses = cacheGets("miss");
+        double hits = cacheGets("hit");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get(METRICS).header("Authorization", "Bearer " + token))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        Assertions.assertEquals(misses + 1, cacheGets("miss"));
+        Assertions.assertEquals(hits + 2, cacheGets("hit"));
+    }
+
+    @Test
+    public void testCachedTokenStopsWorkingWhenItExpires() throws Exception {
+        String token = Jwts.builder()
+                .setSubject("jwtuser")
+                .claim(JwtUtil.ROLES_CLAIM, "ADMIN")
+                .setExpiration(new Date(System.currentTimeMillis() + SHORT_LIFE_MILLIS))
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .compact();
+        mockMvc.perform(MockMvcRequestBuilders.get(METRICS).header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Thread.sleep(SHORT_LIFE_MILLIS + 1000);
+        mockMvc.perform(MockMvcRequestBuilders.get(METRICS).header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void testRejectedTokensAreNotCached() throws Exception {
+        long size = verifiedTokenCache.size();
+        mockMvc.perform(MockMvcRequestBuilders.get(METRICS).header("Authorization", "Bearer not-a-token"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        Assertions.assertEquals(size, verifiedTokenCache.size());
+    }
+
+    @Test
+    public void testOnlyAdminsReadActuatorEndpointsOtherThanHealth() throws Exception {
+        String token = jwtUtil.generateToken("holderjwtuser", "ACCOUNTHOLDER", null);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(METRICS).header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health").header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Balance.BalanceAsOf;
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Balance.BalanceService;
+import com.example.bank_app.Ledger.LedgerEngine;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionRepository;
+import com.example.bank_app.Transaction.TransactionService;
+import com.example.bank_app.exceptionhandling.InsufficientBalanceException;
+import com.example.bank_app.exceptionhandling.InvalidTransactionDetailsException;
+import com.example.bank_app.exceptionhandling.LedgerUnavailableException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs against the Liquibase schema, so a row the engine flushes has to satisfy the same constraints as in production.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "ledger.engine.enabled=true",
+        "ledger.engine.journal-dir=target/ledger-journal-test/${random.uuid}",
+        "ledger.engine.fsync=false",
+        "ledger.engine.flush-interval=PT1H"
+})
+@ActiveProfiles("test")
+public class LedgerEngineTest {
+
+    @Autowired
+    private LedgerEngine ledgerEngine;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private Account payer;
+    private Account payee;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        flushAll();
+        testData.deleteAll();
+        payer = testData.createAccount("ledgerpayer", "4444400001", "500.00");
+        payee = testData.createAccount("ledgerpayee", "4444400002", "0.00");
+        // the engine caches account numbers, so reload it after the previous test's accounts were deleted
+        ledgerEngine.stop();
+        ledgerEngine.start();
+    }
+
+    private void flushAll() throws InterruptedException {
+        for (int attempt = 0; attempt < 100 && ledgerEngine.unflushedRecords() > 0; attempt++) {
+            ledgerEngine.flush();
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, ledgerEngine.unflushedRecords());
+    }
+
+    private Transaction transfer(String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(payer);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setIndicator("DB");
+        transaction.setReceiverAccountNumber("4444400002");
+        transaction.setDescription("Ledger transfer");
+        return transaction;
+    }
+
+    @Test
+    public void testTransfersAreFlushedToTheDatabase() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> {
+                try {
+                    transactionService.saveTransaction(transfer("50"));
+                    return true;
+                } catch (InsufficientBalanceException e) {
+                    return false;
+                }
+            });
+        }
+        int posted = 0;
+        for (Future<Boolean> result : executor.invokeAll(tasks)) {
+            posted += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        Assertions.assertEquals(10, posted);
+
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payer.getId()).getAmount().compareTo(new BigDecimal("500")));
+        flushAll();
+
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payer.getId()).getAmount().compareTo(BigDecimal.ZERO));
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payee.getId()).getAmount().compareTo(new BigDecimal("500")));
+        Assertions.assertEquals(10, transactionRepository.findByAccountId(payer.getId()).size());
+        Assertions.assertEquals(10, transactionRepository.findByAccountId(payee.getId()).size());
+        Assertions.assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ledger_checkpoint", Integer.class) > 0);
+    }
+
+    @Test
+    public void testBalancesSurviveRestart() throws Exception {
+        transactionService.saveTransaction(transfer("200"));
+        ledgerEngine.stop();
+        ledgerEngine.start();
+
+        transactionService.saveTransaction(transfer("300"));
+        Assertions.assertThrows(InsufficientBalanceException.class, () -> transactionService.saveTransaction(transfer("1")));
+        flushAll();
+
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payer.getId()).getAmount().compareTo(BigDecimal.ZERO));
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payee.getId()).getAmount().compareTo(new BigDecimal("500")));
+    }
+
+    @Test
+    public void testAdjustmentsAreRejected() {
+        Long balanceId = balanceRepository.findByAccountId(payer.getId()).getId();
+        Assertions.assertThrows(LedgerUnavailableException.class,
+                () -> balanceService.adjustBalance(balanceId, new BigDecimal("900.00")));
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payer.getId()).getAmount().compareTo(new BigDecimal("500")));
+    }
+
+    @Test
+    public void testReceiverBalancesFollowPostingOrder() throws Exception {
+        Account secondPayer = testData.createAccount("ledgerpayer2", "4444400003", "500.00");
+        ledgerEngine.stop();
+        ledgerEngine.start();
+        transactionService.saveTransaction(transfer("100"));
+        Transaction second = transfer("50");
+        second.setAccount(secondPayer);
+        transactionService.saveTransaction(second);
+        flushAll();
+
+        // the two credits may come from different shards, yet the rows keep the order they were applied in
+        List<Transaction> credits = transactionRepository.findByAccountId(payee.getId()).stream()
+                .sorted(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId))
+                .toList();
+        Assertions.assertEquals(2, credits.size());
+        Assertions.assertEquals(0, credits.get(0).getAmount().compareTo(new BigDecimal("100")));
+        Assertions.assertEquals(0, credits.get(0).getBalanceAfter().compareTo(new BigDecimal("100")));
+        Assertions.assertEquals(0, credits.get(1).getBalanceAfter().compareTo(new BigDecimal("150")));
+        Assertions.assertTrue(credits.get(0).getId() < credits.get(1).getId());
+        Assertions.assertEquals(0, credits.get(1).getBalanceAfter().compareTo(balanceRepository.findByAccountId(payee.getId()).getAmount()));
+
+        BalanceAsOf asOf = balanceService.getBalanceAsOf(payee.getId(), credits.get(0).getDate());
+        Assertions.assertEquals(credits.get(0).getId(), asOf.transactionId());
+        Assertions.assertEquals(0, asOf.amount().compareTo(new BigDecimal("100")));
+    }
+
+    @Test
+    public void testTransferWithoutDescriptionIsNotJournaled() {
+        Transaction transaction = transfer("100");
+        transaction.setDescription(null);
+        Assertions.assertThrows(InvalidTransactionDetailsException.class,
+                () -> transactionService.saveTransaction(transaction));
+
+        Assertions.assertEquals(0, ledgerEngine.unflushedRecords());
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payer.getId()).getAmount().compareTo(new BigDecimal("500")));
+    }
+
+    @Test
+    public void testRejectedRecordIsQuarantined() throws Exception {
+        // bypasses the service checks, as a record journaled before they existed would on replay
+        Transaction invalid = transfer("100");
+        invalid.setDescription(null);
+        ledgerEngine.post(invalid);
+        transactionService.saveTransaction(transfer("50"));
+        flushAll();
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_dead_letter WHERE account_id = ? AND description IS NULL", Integer.class,
+                payer.getId()));
+        List<Transaction> rows = transactionRepository.findByAccountId(payer.getId());
+        Assertions.assertEquals(1, rows.size());
+        Assertions.assertEquals(0, rows.get(0).getBalanceAfter().compareTo(new BigDecimal("350")));
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payer.getId()).getAmount().compareTo(new BigDecimal("350")));
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payee.getId()).getAmount().compareTo(new BigDecimal("150")));
+        Assertions.assertEquals(0, new BigDecimal("-150").compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM ledger_event WHERE account_id = ?", BigDecimal.class, payer.getId())));
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Balance.Balance;
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Ledger.LedgerSnapshotService;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LedgerSnapshotApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LedgerSnapshotService ledgerSnapshotService;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Account payer;
+    private Account payee;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        payer = testData.createAccount("snapshotpayer", "3333300001", "0.00");
+        payee = testData.createAccount("snapshotpayee", "3333300002", "0.00");
+    }
+
+    private void fundPayer(String amount) throws Exception {
+        Balance balance = balanceRepository.findByAccountId(payer.getId());
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v2/balances/" + balance.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": " + amount + "}")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.amount", Matchers.is(Double.parseDouble(amount))));
+    }
+
+    private void transfer(String amount) throws Exception {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(payer);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setIndicator("DB");
+        transaction.setReceiverAccountNumber(payee.getAccountNumber());
+        transaction.setDescription("Snapshot transfer");
+        transactionService.saveTransaction(transaction);
+    }
+
+    private BigDecimal balanceOf(Account account) {
+        return balanceRepository.findByAccountId(account.getId()).getAmount();
+    }
+
+    private BigDecimal snapshotOf(Account account) {
+        return jdbcTemplate.queryForObject("SELECT amount FROM balance_snapshot WHERE account_id = ?", BigDecimal.class,
+                account.getId());
+    }
+
+    @Test
+    public void testBalanceUpdateIsRecordedAsAdjustment() throws Exception {
+        fundPayer("500.00");
+        fundPayer("450.00");
+
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_event WHERE account_id = ? AND event_type = 'ADJUSTMENT'",
+                Integer.class, payer.getId()));
+        Assertions.assertEquals(0, new BigDecimal("450.00").compareTo(
+                ledgerSnapshotService.projectBalances().get(payer.getId())));
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_event e JOIN transaction t ON t.id = e.transaction_id "
+                        + "WHERE e.account_id = ? AND e.event_type = 'ADJUSTMENT'",
+                Integer.class, payer.getId()));
+
+        transfer("50.00");
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT balance_after FROM transaction WHERE account_id = ? ORDER BY date, id", BigDecimal.class,
+                payer.getId());
+        Assertions.assertEquals(3, balances.size());
+        Assertions.assertEquals(0, new BigDecimal("500.00").compareTo(balances.get(0)));
+        Assertions.assertEquals(0, new BigDecimal("450.00").compareTo(balances.get(1)));
+        Assertions.assertEquals(0, new BigDecimal("400.00").compareTo(balances.get(2)));
+    }
+
+    @Test
+    public void testRebuildRestoresOverwrittenBalances() throws Exception {
+        fundPayer("500.00");
+        transfer("200.00");
+
+        Balance corrupted = balanceRepository.findByAccountId(payer.getId());
+        corrupted.setAmount(new BigDecimal("9999.00"));
+        balanceRepository.save(corrupted);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/balances/rebuild")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.corrected", Matchers.greaterThanOrEqualTo(1)));
+
+        Assertions.assertEquals(0, new BigDecimal("300.00").compareTo(balanceOf(payer)));
+        Assertions.assertEquals(0, new BigDecimal("200.00").compareTo(balanceOf(payee)));
+    }
+
+    @Test
+    public void testProjectionCombinesSnapshotWithTail() throws Exception {
+        fundPayer("500.00");
+        transfer("100.00");
+        ledgerSnapshotService.takeSnapshot();
+        transfer("50.00");
+
+        Assertions.assertEquals(0, new BigDecimal("400.00").compareTo(snapshotOf(payer)));
+
+        Map<Long, BigDecimal> projection = ledgerSnapshotService.projectBalances();
+        Assertions.assertEquals(0, balanceOf(payer).compareTo(projection.get(payer.getId())));
+        Assertions.assertEquals(0, balanceOf(payee).compareTo(projection.get(payee.getId())));
+        Assertions.assertEquals(0, new BigDecimal("350.00").compareTo(projection.get(payer.getId())));
+    }
+
+    @Test
+    public void testSnapshotPicksUpEventsThatCommitAfterIt() throws Exception {
+        fundPayer("500.00");
+        ledgerSnapshotService.takeSnapshot();
+
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> late = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO ledger_event (account_id, amount, event_type, created_at) "
+                    + "VALUES (?, ?, 'ADJUSTMENT', ?)", payee.getId(), new BigDecimal("25.00"),
+                    Timestamp.valueOf(LocalDateTime.now()));
+            inserted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            inserted.await();
+            // the transfer's events get higher ids and commit first, so the snapshot passes the open insert
+            transfer("100.00");
+            ledgerSnapshotService.takeSnapshot();
+            Assertions.assertEquals(0, new BigDecimal("100.00").compareTo(snapshotOf(payee)));
+        } finally {
+            release.countDown();
+            late.get();
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(0, new BigDecimal("125.00").compareTo(
+                ledgerSnapshotService.projectBalances().get(payee.getId())));
+        ledgerSnapshotService.takeSnapshot();
+        Assertions.assertEquals(0, new BigDecimal("125.00").compareTo(snapshotOf(payee)));
+        Assertions.assertEquals(0, new BigDecimal("400.00").compareTo(snapshotOf(payer)));
+    }
+}
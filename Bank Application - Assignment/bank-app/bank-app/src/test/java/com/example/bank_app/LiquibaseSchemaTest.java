@@ -0,0 +1,79 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Balance.Balance;
+import com.example.bank_app.Balance.BalanceRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs against the schema the Liquibase changelogs build, with Hibernate only validating it, so the constraints a
+ * production database enforces apply here too.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LiquibaseSchemaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        account = testData.createAccount("schemaholder", "4444400001", "100.00");
+    }
+
+    @Test
+    public void testTransactionColumnsAreNotNull() {
+        // Hibernate's DDL leaves these nullable, so this fails if the schema did not come from the changelogs
+        for (String column : List.of("RECEIVER_ACCOUNT_NUMBER", "DESCRIPTION", "INDICATOR", "AMOUNT", "DATE")) {
+            Assertions.assertEquals("NO", jdbcTemplate.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS"
+                    + " WHERE TABLE_NAME = 'TRANSACTION' AND COLUMN_NAME = ?", String.class, column), column);
+        }
+    }
+
+    @Test
+    public void testBalanceAdjustmentSatisfiesTransactionConstraints() throws Exception {
+        Balance balance = balanceRepository.findByAccountId(account.getId());
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v2/balances/" + balance.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 250.00}")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT indicator, receiver_account_number FROM transaction WHERE account_id = ?", account.getId());
+        Assertions.assertEquals("CR", row.get("indicator"));
+        Assertions.assertEquals(account.getAccountNumber(), row.get("receiver_account_number"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.bank_app;
+
+import com.example.bank_app.User.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Password verification runs on one thread with room for one more login in the queue, so a handful of concurrent
+ * logins is enough to see the rest turned down.
+ */
+@SpringBootTest(properties = {
+        "auth.login.threads=1",
+        "auth.login.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LoginApiTest {
+
+    private static final int CONCURRENT_LOGINS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        testData.createUser("loginuser", passwordEncoder.encode("password123"));
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + username + "\", \"password\": \"" + password + "\"}"));
+    }
+
+    private long count(String result) {
+        return meterRegistry.timer("auth.login", "result", result).count();
+    }
+
+    @Test
+    public void testLoginLooksTheUserUpOnce() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long succeeded = count("success");
+
+        login("loginuser", "password123")
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.token").isNotEmpty())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.user.username").value("loginuser"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.user.password").doesNotExist());
+
+        // one statement for the user and at most one for the account id put in the token
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "statements: " + statistics.getPrepareStatementCount());
+        Assertions.assertEquals(succeeded + 1, count("success"));
+    }
+
+    @Test
+    public void testWrongPasswordAndUnknownUserAreUnauthorized() throws Exception {
+        long failed = count("failure");
+        login("loginuser", "wrongpassword")
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.content().string("Incorrect username or password"));
+        login("nosuchloginuser", "password123")
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.content().string("Incorrect username or password"));
+        Assertions.assertEquals(failed + 2, count("failure"));
+    }
+
+    @Test
+    public void testChangesMadeElsewhereAreNotReadFromTheCache() throws Exception {
+        Assertions.assertNotNull(userRepository.findByUsername("loginuser"));
+        login("loginuser", "password123").andExpect(MockMvcResultMatchers.status().isOk());
+
+        // plain JDBC stands in for another instance, whose changes never reach this instance's cache
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE username = 'loginuser'",
+                passwordEncoder.encode("newpassword123"));
+        login("loginuser", "password123").andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        login("loginuser", "newpassword123").andExpect(MockMvcResultMatchers.status().isOk());
+
+        jdbcTemplate.update("DELETE FROM users WHERE username = 'loginuser'");
+        login("loginuser", "newpassword123").andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void testLoginsBeyondTheQueueAreRejectedAtOnce() throws Exception {
+        long rejected = count("rejected");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_LOGINS);
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        try {
+            List<Callable<MockHttpServletResponse>> tasks = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+                tasks.add(() -> {
+                    start.await();
+                    return login("loginuser", "password123").andReturn().getResponse();
+                });
+            }
+            List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+            for (Callable<MockHttpServletResponse> task : tasks) {
+                futures.add(clients.submit(task));
+            }
+            start.countDown();
+            for (Future<MockHttpServletResponse> future : futures) {
+                responses.add(future.get());
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        long ok = responses.stream().filter(r -> r.getStatus() == 200).count();
+        List<MockHttpServletResponse> tooMany = responses.stream().filter(r -> r.getStatus() == 429).toList();
+        Assertions.assertEquals(CONCURRENT_LOGINS, ok + tooMany.size());
+        Assertions.assertTrue(ok >= 1);
+        Assertions.assertFalse(tooMany.isEmpty());
+        tooMany.forEach(r -> Assertions.assertEquals("1", r.getHeader(HttpHeaders.RETRY_AFTER)));
+        Assertions.assertEquals(rejected + tooMany.size(), count("rejected"));
+        Assertions.assertNotNull(meterRegistry.find("auth.login.queue.size").gauge());
+        Assertions.assertNotNull(meterRegistry.find("auth.login.active").gauge());
+    }
+}
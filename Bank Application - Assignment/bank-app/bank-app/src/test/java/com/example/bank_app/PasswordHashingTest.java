@@ -0,0 +1,165 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Security.AdaptivePasswordEncoder;
+import com.example.bank_app.Security.PasswordHashingProperties;
+import com.example.bank_app.User.User;
+import com.example.bank_app.User.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * The test profile fixes the cost at 10; users are stored with other hashes to see them replaced on login.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PasswordHashingTest {
+
+    private static final int CONFIGURED_COST = 10;
+    private static final int LOW_COST = 4;
+    private static final int HIGH_COST = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + username + "\", \"password\": \"" + password + "\"}"));
+    }
+
+    private String storedHash(String username) {
+        return userRepository.findByUsername(username).getPassword();
+    }
+
+    @Test
+    public void testOutdatedHashesAreReplacedOnLogin() throws Exception {
+        testData.createUser("cheaphashuser", new BCryptPasswordEncoder(LOW_COST).encode("password123"));
+        testData.createUser("plainhashuser", "{noop}password123");
+        long verifiedAtLowCost = meterRegistry.timer("auth.password.verify", "algorithm", "bcrypt",
+                "cost", "04").count();
+
+        login("cheaphashuser", "password123").andExpect(MockMvcResultMatchers.status().isOk());
+        login("plainhashuser", "password123").andExpect(MockMvcResultMatchers.status().isOk());
+
+        for (String username : new String[] {"cheaphashuser", "plainhashuser"}) {
+            String hash = storedHash(username);
+            Assertions.assertTrue(hash.startsWith("$2a$" + CONFIGURED_COST + "$"), hash);
+            Assertions.assertFalse(passwordEncoder.upgradeEncoding(hash));
+            login(username, "password123").andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        Assertions.assertEquals(verifiedAtLowCost + 1, meterRegistry.timer("auth.password.verify",
+                "algorithm", "bcrypt", "cost", "04").count());
+    }
+
+    @Test
+    public void testFailedLoginKeepsTheHash() throws Exception {
+        String hash = new BCryptPasswordEncoder(LOW_COST).encode("password123");
+        testData.createUser("cheaphashuser", hash);
+        double rehashed = meterRegistry.counter("auth.login.rehash").count();
+
+        login("cheaphashuser", "wrongpassword").andExpect(MockMvcResultMatchers.status().isUnauthorized());
+
+        Assertions.assertEquals(hash, storedHash("cheaphashuser"));
+        Assertions.assertEquals(rehashed, meterRegistry.counter("auth.login.rehash").count());
+    }
+
+    @Test
+    public void testHigherCostHashIsKept() throws Exception {
+        String hash = new BCryptPasswordEncoder(CONFIGURED_COST + 1).encode("password123");
+        testData.createUser("costlyhashuser", hash);
+        Assertions.assertFalse(passwordEncoder.upgradeEncoding(hash));
+
+        login("costlyhashuser", "password123").andExpect(MockMvcResultMatchers.status().isOk());
+        Assertions.assertEquals(hash, storedHash("costlyhashuser"));
+    }
+
+    @Test
+    public void testRehashLeavesAChangedPasswordAlone() {
+        String verified = new BCryptPasswordEncoder(LOW_COST).encode("password123");
+        User user = testData.createUser("changeduser", new BCryptPasswordEncoder(LOW_COST).encode("newpassword"));
+
+        // the login verified an older hash than the one now stored
+        user.setPassword(verified);
+        Integer updated = new TransactionTemplate(transactionManager).execute(status ->
+                userRepository.replacePassword(user, passwordEncoder.encode("password123")));
+        Assertions.assertEquals(0, updated);
+        Assertions.assertTrue(passwordEncoder.matches("newpassword", storedHash("changeduser")));
+    }
+
+    @Test
+    public void testRehashEvictsOnlyThatUser() throws Exception {
+        String cheapHash = new BCryptPasswordEncoder(LOW_COST).encode("password123");
+        User rehashedUser = testData.createUser("cheaphashuser", cheapHash);
+        User otherUser = testData.createUser("otheruser", passwordEncoder.encode("password123"));
+        userRepository.findById(rehashedUser.getId());
+        userRepository.findById(otherUser.getId());
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Assertions.assertTrue(cache.containsEntity(User.class, otherUser.getId()));
+
+        login("cheaphashuser", "password123").andExpect(MockMvcResultMatchers.status().isOk());
+
+        Assertions.assertFalse(cache.containsEntity(User.class, rehashedUser.getId()));
+        Assertions.assertTrue(cache.containsEntity(User.class, otherUser.getId()));
+        Assertions.assertTrue(storedHash("cheaphashuser").startsWith("$2a$" + CONFIGURED_COST + "$"));
+    }
+
+    @Test
+    public void testCalibrationStaysWithinTheBounds() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setMinCost(LOW_COST);
+        properties.setMaxCost(HIGH_COST);
+
+        properties.setTargetLatency(Duration.ZERO);
+        Assertions.assertEquals(LOW_COST, new AdaptivePasswordEncoder(properties, new SimpleMeterRegistry()).getCost());
+
+        properties.setTargetLatency(Duration.ofMinutes(1));
+        AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(properties, new SimpleMeterRegistry());
+        Assertions.assertEquals(HIGH_COST, encoder.getCost());
+        Assertions.assertTrue(encoder.encode("password123").startsWith("$2a$06$"));
+    }
+}
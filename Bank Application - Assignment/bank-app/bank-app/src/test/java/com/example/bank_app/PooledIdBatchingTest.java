@@ -0,0 +1,160 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountRepository;
+import com.example.bank_app.Persistence.EntityIdAllocator;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionJdbcRepository;
+import com.example.bank_app.Transaction.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks that account ids come from pooled blocks, so persisting many accounts costs a few generator round trips and
+ * a few insert batches rather than one statement per row, and that ids reserved for JDBC inserts never collide with
+ * JPA ones. Transaction ids stay on the identity column and follow insert order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class PooledIdBatchingTest {
+
+    private static final int ROWS = 200;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private EntityIdAllocator entityIdAllocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestData testData;
+
+    private Account account;
+    private int accountNumbers;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        account = testData.createAccount(null, "1313100001");
+    }
+
+    private List<Account> accounts(int count) {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Account created = new Account();
+            created.setAccountNumber(String.valueOf(1313200000L + accountNumbers++));
+            accounts.add(created);
+        }
+        return accounts;
+    }
+
+    private List<Transaction> postings(int count) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setAccount(account);
+            transaction.setDate(LocalDateTime.of(2024, 6, 1, 9, 0).plusSeconds(i));
+            transaction.setAmount(new BigDecimal("1.00"));
+            transaction.setIndicator("CR");
+            transaction.setDescription("Identity id posting");
+            transaction.setReceiverAccountNumber("0000000000");
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    @Test
+    public void testBulkPersistIsBatched() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> accountRepository.saveAll(accounts(ROWS)));
+
+        Assertions.assertEquals(ROWS + 1, accountRepository.count());
+        Assertions.assertEquals(ROWS, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() < ROWS / 10,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testJdbcAndJpaIdsDoNotCollide() {
+        Set<Long> reserved = new HashSet<>();
+        for (int round = 0; round < 3; round++) {
+            accountRepository.saveAll(accounts(ROWS / 4));
+            for (long id : entityIdAllocator.next(Account.class, ROWS / 4)) {
+                Assertions.assertTrue(reserved.add(id));
+            }
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM account", Long.class);
+        Assertions.assertEquals(3 * (ROWS / 4) + 1, ids.size());
+        ids.forEach(id -> Assertions.assertFalse(reserved.contains(id)));
+    }
+
+    private long storedValue() {
+        return jdbcTemplate.queryForObject("SELECT " + EntityIdAllocator.VALUE_COLUMN + " FROM "
+                + EntityIdAllocator.TABLE + " WHERE " + EntityIdAllocator.NAME_COLUMN + " = 'account'", Long.class);
+    }
+
+    @Test
+    public void testAllocatedIdsAreUniqueAndReservedInBlocks() {
+        entityIdAllocator.next(Account.class, 1);
+        long before = storedValue();
+        Set<Long> ids = new HashSet<>();
+        for (long id : entityIdAllocator.next(Account.class, ROWS)) {
+            Assertions.assertTrue(ids.add(id));
+        }
+        long reserved = storedValue() - before;
+        Assertions.assertEquals(0, reserved % EntityIdAllocator.ALLOCATION_SIZE);
+        Assertions.assertTrue(reserved <= ROWS + EntityIdAllocator.ALLOCATION_SIZE);
+    }
+
+    @Test
+    public void testTransactionIdsFollowInsertOrder() {
+        List<Transaction> inserted = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            inserted.addAll(transactionRepository.saveAll(postings(ROWS / 4)));
+            List<Transaction> jdbcPostings = postings(ROWS / 4);
+            transactionJdbcRepository.insertTransactions(jdbcPostings);
+            inserted.addAll(jdbcPostings);
+        }
+
+        for (int i = 1; i < inserted.size(); i++) {
+            Assertions.assertTrue(inserted.get(i).getId() > inserted.get(i - 1).getId());
+        }
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + EntityIdAllocator.TABLE
+                + " WHERE " + EntityIdAllocator.NAME_COLUMN + " = 'transaction'", Integer.class));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Balance.Balance;
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionRepository;
+import com.example.bank_app.User.User;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadProjectionApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        user = testData.createUser("projectionuser", "$2a$10$secretsecretsecretsecretsecretsecretsecretsecretsecret");
+        account = testData.createAccount(user, "4444400001");
+
+        Balance balance = new Balance();
+        balance.setAccount(account);
+        balance.setAmount(new BigDecimal("75.00"));
+        balanceRepository.save(balance);
+
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setDate(LocalDateTime.of(2024, 5, 1, 10, 0));
+        transaction.setAmount(new BigDecimal("25.00"));
+        transaction.setIndicator("DB");
+        transaction.setDescription("Projection posting");
+        transaction.setReceiverAccountNumber("0000000000");
+        transaction.setBalanceAfter(new BigDecimal("75.00"));
+        transactionRepository.save(transaction);
+    }
+
+    @Test
+    public void testAccountListReturnsFlatViews() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.accountNumber == '4444400001')].username",
+                        Matchers.contains("projectionuser")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.accountNumber == '4444400001')].userId",
+                        Matchers.contains(user.getId().intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].user").doesNotExist())
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.not(Matchers.containsString("password"))));
+    }
+
+    @Test
+    public void testBalanceListReturnsFlatViews() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/balances")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.accountNumber == '4444400001')].amount",
+                        Matchers.contains(75.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.accountNumber == '4444400001')].accountId",
+                        Matchers.contains(account.getId().intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].account").doesNotExist())
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.not(Matchers.containsString("password"))));
+    }
+
+    @Test
+    public void testTransactionPageReturnsFlatViews() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + account.getId() + "/transactions")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content", Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].accountId", Matchers.is(account.getId().intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].balanceAfter", Matchers.is(75.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].account").doesNotExist())
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.not(Matchers.containsString("password"))));
+    }
+
+    @Test
+    public void testPasswordIsNeverSerialized() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/users/" + user.getId())
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.username", Matchers.is("projectionuser")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.password").doesNotExist());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RefreshTokenApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        testData.createUser("refreshuser", passwordEncoder.encode("password123"));
+    }
+
+    private JsonNode login() throws Exception {
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"refreshuser\", \"password\": \"password123\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\": \"" + refreshToken + "\"}"));
+    }
+
+    private JsonNode refreshed(String refreshToken) throws Exception {
+        String body = refresh(refreshToken)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @Test
+    public void testRefreshRotatesTheTokenWithoutCheckingThePassword() throws Exception {
+        JsonNode login = login();
+        String refreshToken = login.get("refreshToken").asText();
+        long logins = meterRegistry.timer("auth.login", "result", "success").count();
+
+        JsonNode renewed = refreshed(refreshToken);
+
+        Assertions.assertNotEquals(refreshToken, renewed.get("refreshToken").asText());
+        Assertions.assertEquals(logins, meterRegistry.timer("auth.login", "result", "success").count());
+        String sessionId = jwtUtil.extractClaims(login.get("token").asText())
+                .get(JwtUtil.SESSION_ID_CLAIM, String.class);
+        Assertions.assertEquals(sessionId, jwtUtil.extractClaims(renewed.get("token").asText())
+                .get(JwtUtil.SESSION_ID_CLAIM, String.class));
+        Assertions.assertEquals("ACCOUNTHOLDER", jwtUtil.extractClaims(renewed.get("token").asText())
+                .get(JwtUtil.ROLES_CLAIM, String.class));
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics")
+                        .header("Authorization", "Bearer " + renewed.get("token").asText()))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
+    @Test
+    public void testRefreshTokensAreStoredHashed() throws Exception {
+        String refreshToken = login().get("refreshToken").asText();
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token", Integer.class));
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_token WHERE token_hash = ?", Integer.class, refreshToken));
+    }
+
+    @Test
+    public void testReusedRefreshTokenEndsTheSession() throws Exception {
+        String first = login().get("refreshToken").asText();
+        String second = refreshed(first).get("refreshToken").asText();
+        double reused = meterRegistry.counter("auth.refresh", "result", "reused").count();
+
+        refresh(first).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        refresh(second).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        Assertions.assertEquals(reused + 1, meterRegistry.counter("auth.refresh", "result", "reused").count());
+    }
+
+    @Test
+    public void testLogoutEndsTheSession() throws Exception {
+        JsonNode login = login();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/logout")
+                        .header("Authorization", "Bearer " + login.get("token").asText()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        refresh(login.get("refreshToken").asText()).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void testUnknownRefreshTokenIsUnauthorized() throws Exception {
+        refresh("not-a-refresh-token").andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        refresh("").andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Summary.SummaryRollupService;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionRepository;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDateTime;
+
+/**
+ * Runs against the schema the Liquibase changelogs build, with Hibernate only validating it, so the rollup reads the
+ * indexes a production database has.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SummaryApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SummaryRollupService summaryRollupService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        account = testData.createAccount(testData.createUser("summaryuser", "password"), "1111100001");
+
+        // start the rollup from the current end of the table, past the postings of earlier tests
+        jdbcTemplate.update("UPDATE summary_watermark SET transaction_id = (SELECT COALESCE(MAX(id), 0) FROM transaction)");
+
+        post(LocalDateTime.of(2024, 3, 5, 9, 0), "100.00", "DB");
+        post(LocalDateTime.of(2024, 3, 5, 17, 30), "40.00", "DB");
+        post(LocalDateTime.of(2024, 3, 20, 12, 0), "250.00", "CR");
+        post(LocalDateTime.of(2024, 4, 2, 8, 0), "60.00", "DB");
+    }
+
+    private void post(LocalDateTime date, String amount, String indicator) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setDate(date);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setIndicator(indicator);
+        transaction.setDescription("Summary posting");
+        transaction.setReceiverAccountNumber("0000000000");
+        transactionRepository.save(transaction);
+    }
+
+    @Test
+    public void testRollupMaintainsDailyTotals() throws Exception {
+        summaryRollupService.rollUp();
+
+        Assertions.assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_daily_summary WHERE account_id = ?", Integer.class, account.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + account.getId() + "/summary/daily")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-31")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].from", Matchers.is("2024-03-05")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].debitTotal", Matchers.is(140.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].debitCount", Matchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].creditTotal", Matchers.is(250.0)));
+    }
+
+    @Test
+    public void testMonthlySummaryIncludesTransactionsNotYetRolledUp() throws Exception {
+        summaryRollupService.rollUp();
+        post(LocalDateTime.of(2024, 3, 5, 20, 0), "10.00", "DB");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + account.getId() + "/summary/monthly")
+                        .param("year", "2024")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(12)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].debitTotal", Matchers.is(150.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].debitCount", Matchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].creditCount", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[3].debitTotal", Matchers.is(60.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].debitCount", Matchers.is(0)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + account.getId() + "/summary")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.debitTotal", Matchers.is(210.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.creditTotal", Matchers.is(250.0)));
+    }
+
+    @Test
+    public void testRollupStopsAtTheFirstYoungTransaction() {
+        summaryRollupService.rollUp();
+        long watermark = jdbcTemplate.queryForObject("SELECT transaction_id FROM summary_watermark", Long.class);
+        // the test profile has no lag, so a posting dated in the future stands in for one younger than the lag
+        post(LocalDateTime.now().plusHours(1), "5.00", "DB");
+        post(LocalDateTime.of(2024, 3, 6, 9, 0), "7.00", "DB");
+
+        summaryRollupService.rollUp();
+
+        Assertions.assertEquals(watermark, jdbcTemplate.queryForObject(
+                "SELECT transaction_id FROM summary_watermark", Long.class));
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_daily_summary WHERE account_id = ? AND posting_day = ?",
+                Integer.class, account.getId(), Date.valueOf("2024-03-06")));
+    }
+
+    @Test
+    public void testInvalidRangeIsRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + account.getId() + "/summary")
+                        .param("from", "2024-04-01")
+                        .param("to", "2024-03-01")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testTailScanUsesTheAccountDateIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT CAST(date AS DATE) AS posting_day, COUNT(*)"
+                + " FROM transaction WHERE id > 10 AND account_id = " + account.getId()
+                + " AND date >= TIMESTAMP '2024-03-01 00:00:00' AND date < TIMESTAMP '2024-04-01 00:00:00'"
+                + " GROUP BY CAST(date AS DATE)", String.class);
+        Assertions.assertTrue(plan.toUpperCase().contains("IDX_TRANSACTION_ACCOUNT_DATE_BALANCE"), plan);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountDirectory;
+import com.example.bank_app.Account.AccountRepository;
+import com.example.bank_app.Balance.Balance;
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Transaction.TransactionRepository;
+import com.example.bank_app.User.User;
+import com.example.bank_app.User.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Creates the users, accounts and balances the tests work on. Test classes with the same properties share one
+ * application context and database, so each test starts by calling {@link #deleteAll()}.
+ */
+@Component
+public class TestData {
+
+    // children before parents: transaction and ledger_event rows reference accounts
+    private static final String[] TABLES = {"idempotency_key", "transfer_command", "refresh_token", "revoked_token",
+        "account_change", "account_daily_summary", "ledger_snapshot_gap", "balance_snapshot", "ledger_event",
+        "ledger_dead_letter"};
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final BalanceRepository balanceRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountDirectory accountDirectory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TestData(UserRepository userRepository, AccountRepository accountRepository,
+                    BalanceRepository balanceRepository, TransactionRepository transactionRepository,
+                    AccountDirectory accountDirectory, JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.balanceRepository = balanceRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountDirectory = accountDirectory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Saves an account holder with the given password, stored as passed.
+     */
+    public User createUser(String username, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setEmail(username + "@example.com");
+        user.setRoles("ACCOUNTHOLDER");
+        user.setAddress("1 Test St.");
+        return userRepository.save(user);
+    }
+
+    public Account createAccount(User user, String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setUser(user);
+        return accountRepository.save(account);
+    }
+
+    /**
+     * Saves a user named {@code username} with an account holding {@code amount}.
+     */
+    public Account createAccount(String username, String accountNumber, String amount) {
+        Account account = createAccount(createUser(username, "password"), accountNumber);
+        Balance balance = new Balance();
+        balance.setAccount(account);
+        balance.setAmount(new BigDecimal(amount));
+        balanceRepository.save(balance);
+        return account;
+    }
+
+    /**
+     * Empties every table the tests write to and reloads the account directory. Entity tables are cleared through
+     * their repositories so the second-level cache forgets them too. The ledger events go together with the snapshot
+     * rows and gaps built from them; the snapshot watermark stays, since event ids only grow. The id allocators and the
+     * ledger engine's checkpoints are kept, as they track state outside these rows.
+     */
+    public void deleteAll() {
+        for (String table : TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        transactionRepository.deleteAllInBatch();
+        balanceRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        accountDirectory.rebuild();
+    }
+}
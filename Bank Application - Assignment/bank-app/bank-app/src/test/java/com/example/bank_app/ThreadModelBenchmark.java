@@ -0,0 +1,166 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Security.JwtUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Drives the transfer and balance history endpoints over HTTP with many concurrent clients and logs throughput and
+ * latency percentiles, so the platform and virtual thread request models can be compared on the same workload. The
+ * subclasses start the application in each mode; run them with {@code mvn test -Pbenchmark}. Client count and requests
+ * per client can be changed with {@code -Dbenchmark.clients} and {@code -Dbenchmark.requests}.
+ *
+ * <p>Each client pays from its own account into its own payee, so no two clients wait on the same balance row and the
+ * run measures the request model rather than row lock contention.
+ *
+ * <p>The test profile uses in-memory H2, which returns quickly and does not block the way a networked database does, so
+ * numbers from it mostly show scheduling overhead and say little about how the two modes compare in production; point
+ * {@code spring.datasource.url} at MySQL to see the effect of requests blocking on the database.
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+abstract class ThreadModelBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadModelBenchmark.class);
+    private static final int WARMUP_REQUESTS = 20;
+    private static final double MEDIAN = 0.5;
+    private static final double P99 = 0.99;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${benchmark.clients:200}")
+    private int clients;
+
+    @Value("${benchmark.requests:50}")
+    private int requestsPerClient;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TestData testData;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final List<Account> payers = new ArrayList<>();
+    private final List<Account> payees = new ArrayList<>();
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        payers.clear();
+        payees.clear();
+        for (int c = 0; c < clients; c++) {
+            payers.add(testData.createAccount("benchpayer" + c, String.format("88%08d", 2 * c), "1000000000.00"));
+            payees.add(testData.createAccount("benchpayee" + c, String.format("88%08d", 2 * c + 1), "0.00"));
+        }
+        token = jwtUtil.generateToken("benchpayer0", "ADMIN", payers.get(0).getId());
+    }
+
+    private HttpRequest transfer(int client) {
+        String body = "{\"account\": {\"id\": " + payers.get(client).getId() + "}, \"amount\": 1.00, "
+                + "\"indicator\": \"DB\", \"receiverAccountNumber\": \"" + payees.get(client).getAccountNumber()
+                + "\", \"description\": \"Benchmark\"}";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v2/transactions"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest history(int client) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v2/accounts/"
+                        + payers.get(client).getId() + "/balances/history?points=100"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @Test
+    public void benchmarkTransfers() throws Exception {
+        run("transfer", this::transfer);
+    }
+
+    @Test
+    public void benchmarkBalanceHistory() throws Exception {
+        run("history", this::history);
+    }
+
+    private void run(String name, IntFunction<HttpRequest> request) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            httpClient.send(request.apply(i % clients), HttpResponse.BodyHandlers.discarding());
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[clients * requestsPerClient];
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                int offset = c * requestsPerClient;
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request.apply(client),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 300) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[offset + r] = System.nanoTime() - start;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        LOGGER.info("{} threads, {}: {} requests from {} clients in {} s, {} req/s, p50 {} ms, p99 {} ms, max {} ms, "
+                        + "{} failed", virtualThreads ? "virtual" : "platform", name, latencies.length, clients,
+                String.format("%.2f", seconds), Math.round(latencies.length / seconds),
+                percentile(latencies, MEDIAN), percentile(latencies, P99),
+                latencies[latencies.length - 1] / NANOS_PER_MILLI, failures.get());
+        Assertions.assertEquals(0, failures.get());
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(quantile * sorted.length))] / NANOS_PER_MILLI;
+    }
+}
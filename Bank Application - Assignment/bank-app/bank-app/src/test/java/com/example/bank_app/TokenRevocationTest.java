@@ -0,0 +1,123 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Security.JwtUtil;
+import com.example.bank_app.Security.TokenRevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.sql.Timestamp;
+
+/**
+ * Rows inserted straight into the table stand in for revocations made on another instance.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TokenRevocationTest {
+
+    private static final String METRICS = "/actuator/metrics";
+    private static final long HOUR_MILLIS = 3600000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+    }
+
+    private ResultActions get(String token) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get(METRICS).header("Authorization", "Bearer " + token));
+    }
+
+    private void insertRow(String tokenId, long expiresAt) {
+        jdbcTemplate.update("INSERT INTO revoked_token (token_id, expires_at, revoked_at) VALUES (?, ?, ?)",
+                tokenId, new Timestamp(expiresAt), new Timestamp(System.currentTimeMillis()));
+    }
+
+    private double checks(String result) {
+        return meterRegistry.counter("jwt.revocation.checks", "result", result).count();
+    }
+
+    @Test
+    public void testLogoutRevokesOnlyTheTokenItCarries() throws Exception {
+        String token = jwtUtil.generateToken("revokeduser", "ADMIN", null);
+        String other = jwtUtil.generateToken("revokeduser", "ADMIN", null);
+        get(token).andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/logout").header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        double revoked = checks("revoked");
+        get(token).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        Assertions.assertEquals(revoked + 1, checks("revoked"));
+        get(other).andExpect(MockMvcResultMatchers.status().isOk());
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_token WHERE token_id = ?",
+                Integer.class, jwtUtil.extractClaims(token).getId()));
+    }
+
+    @Test
+    public void testRevocationFromAnotherInstanceIsPickedUpByRefresh() throws Exception {
+        String token = jwtUtil.generateToken("elsewhereuser", "ADMIN", null);
+        get(token).andExpect(MockMvcResultMatchers.status().isOk());
+
+        insertRow(jwtUtil.extractClaims(token).getId(), System.currentTimeMillis() + HOUR_MILLIS);
+        get(token).andExpect(MockMvcResultMatchers.status().isOk());
+        tokenRevocationList.refresh();
+        get(token).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void testRebuildPurgesExpiredTokensAndKeepsTheRest() {
+        long now = System.currentTimeMillis();
+        insertRow("expired-token", now - HOUR_MILLIS);
+        insertRow("live-token", now + HOUR_MILLIS);
+        tokenRevocationList.revoke("local-token", now + HOUR_MILLIS);
+
+        tokenRevocationList.rebuild();
+
+        Assertions.assertFalse(tokenRevocationList.isRevoked("expired-token"));
+        Assertions.assertTrue(tokenRevocationList.isRevoked("live-token"));
+        Assertions.assertTrue(tokenRevocationList.isRevoked("local-token"));
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM revoked_token WHERE token_id = 'expired-token'", Integer.class));
+    }
+
+    @Test
+    public void testTokensNeverRevokedAreClearedByTheFilter() {
+        double clear = checks("clear");
+        double falsePositives = checks("false_positive");
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertFalse(tokenRevocationList.isRevoked("never-revoked-" + i));
+        }
+        // at ten bits per token the filter lets through about one percent
+        Assertions.assertTrue(checks("false_positive") - falsePositives < 50);
+        Assertions.assertEquals(1000, checks("clear") - clear + checks("false_positive") - falsePositives);
+    }
+}
@@ -3,8 +3,11 @@ import com.example.bank_app.Account.Account;
 import com.example.bank_app.Account.AccountRepository;
 import com.example.bank_app.Balance.Balance;
 import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Transaction.CursorPage;
 import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionFilter;
 import com.example.bank_app.Transaction.TransactionService;
+import com.example.bank_app.Transaction.TransactionView;
 import com.example.bank_app.exceptionhandling.AccountNotFoundException;
 import com.example.bank_app.exceptionhandling.InsufficientBalanceException;
 import com.example.bank_app.exceptionhandling.InvalidTransactionIndicatorException;
@@ -72,6 +75,12 @@ public class TransactionApiTest {
         testTransaction.setAccount(testAccount);
     }
 
+    private static TransactionView viewOf(Transaction transaction) {
+        return new TransactionView(transaction.getId(), transaction.getDate(), transaction.getDescription(),
+                transaction.getAmount(), transaction.getIndicator(), transaction.getReceiverAccountNumber(),
+                transaction.getAccount().getId(), transaction.getBalanceAfter());
+    }
+
     @Order(1)
     @Test
     public void testCreateTransactionSuccess() throws Exception {
@@ -80,7 +89,7 @@ public class TransactionApiTest {
         Mockito.when(balanceRepository.findByAccount(Mockito.any(Account.class)))
                 .thenReturn(testBalance);
 
-        mockMvc.perform(post("/api/transactions/create-transaction")
+        mockMvc.perform(post("/api/v2/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(testTransaction))
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
@@ -98,7 +107,7 @@ public class TransactionApiTest {
         Mockito.when(transactionService.saveTransaction(Mockito.any(Transaction.class)))
                 .thenThrow(new InsufficientBalanceException("Insufficient balance for the transaction"));
 
-        mockMvc.perform(post("/api/transactions/create-transaction")
+        mockMvc.perform(post("/api/v2/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(testTransaction))
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
@@ -113,7 +122,7 @@ public class TransactionApiTest {
         Mockito.when(transactionService.saveTransaction(Mockito.any(Transaction.class)))
                 .thenThrow(new AccountNotFoundException("Account not found"));
 
-        mockMvc.perform(post("/api/transactions/create-transaction")
+        mockMvc.perform(post("/api/v2/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(testTransaction))
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
@@ -129,7 +138,7 @@ public class TransactionApiTest {
         Mockito.when(transactionService.saveTransaction(Mockito.any(Transaction.class)))
                 .thenThrow(new InvalidTransactionIndicatorException("Invalid transaction indicator"));
 
-        mockMvc.perform(post("/api/transactions/create-transaction")
+        mockMvc.perform(post("/api/v2/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(testTransaction))
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
@@ -141,16 +150,18 @@ public class TransactionApiTest {
     @Order(5)
     @Test
     public void testGetAllTransactions() throws Exception {
-        List<Transaction> transactions = Arrays.asList(testTransaction);
-        Mockito.when(transactionService.getAllTransactions()).thenReturn(transactions);
+        List<TransactionView> transactions = Arrays.asList(viewOf(testTransaction));
+        Mockito.when(transactionService.getTransactions(Mockito.isNull(), Mockito.any(TransactionFilter.class), Mockito.isNull(), Mockito.eq(50)))
+                .thenReturn(new CursorPage<>(transactions, "next"));
 
-        mockMvc.perform(get("/api/transactions")
+        mockMvc.perform(get("/api/v2/transactions")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
-                .andExpect(jsonPath("$[0].amount").value(1000.00))
-                .andExpect(jsonPath("$[0].description").value("Test Transaction"));
+                .andExpect(jsonPath("$.content[0].amount").value(1000.00))
+                .andExpect(jsonPath("$.content[0].description").value("Test Transaction"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
     }
 
     @Order(6)
@@ -158,7 +169,7 @@ public class TransactionApiTest {
     public void testGetTransactionById() throws Exception {
         Mockito.when(transactionService.getTransactionById(1L)).thenReturn(testTransaction);
 
-        mockMvc.perform(get("/api/transactions/1")
+        mockMvc.perform(get("/api/v2/transactions/1")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andExpect(status().isOk())
@@ -170,16 +181,17 @@ public class TransactionApiTest {
     @Order(7)
     @Test
     public void testGetAllTransactionsByAccountId() throws Exception {
-        List<Transaction> transactions = Arrays.asList(testTransaction);
-        Mockito.when(transactionService.getAllTransactionsByAccountId(1L)).thenReturn(transactions);
+        List<TransactionView> transactions = Arrays.asList(viewOf(testTransaction));
+        Mockito.when(transactionService.getTransactions(Mockito.eq(1L), Mockito.any(TransactionFilter.class), Mockito.isNull(), Mockito.eq(50)))
+                .thenReturn(new CursorPage<>(transactions, null));
 
-        mockMvc.perform(get("/api/transactions/account/1")
+        mockMvc.perform(get("/api/v2/accounts/1/transactions")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
-                .andExpect(jsonPath("$[0].amount").value(1000.00))
-                .andExpect(jsonPath("$[0].description").value("Test Transaction"));
+                .andExpect(jsonPath("$.content[0].amount").value(1000.00))
+                .andExpect(jsonPath("$.content[0].description").value("Test Transaction"));
     }
 
     @Order(8)
@@ -197,7 +209,7 @@ public class TransactionApiTest {
         Mockito.when(transactionService.getTransactionById(1L)).thenReturn(testTransaction);
         Mockito.when(transactionService.saveTransaction(Mockito.any(Transaction.class))).thenReturn(updatedTransaction);
 
-        mockMvc.perform(put("/api/transactions/1")
+        mockMvc.perform(put("/api/v2/transactions/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updatedTransaction))
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
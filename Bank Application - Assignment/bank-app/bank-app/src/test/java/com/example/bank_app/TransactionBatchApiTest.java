@@ -0,0 +1,100 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Transaction.TransactionRepository;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransactionBatchApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Long payerAccountId;
+    private Long payeeAccountId;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+
+        payerAccountId = testData.createAccount("batchpayer", "7777700001", "500.00").getId();
+        payeeAccountId = testData.createAccount("batchpayee", "7777700002", "100.00").getId();
+    }
+
+    private String transfer(Long accountId, String amount) {
+        return "{\"account\":{\"id\":" + accountId + "},\"amount\":" + amount
+                + ",\"indicator\":\"DB\",\"receiverAccountNumber\":\"7777700002\",\"description\":\"Payroll\"}";
+    }
+
+    @Test
+    public void testBatchIsPostedAtomically() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + transfer(payerAccountId, "200") + "," + transfer(payerAccountId, "300") + "]")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posted", Matchers.is(true)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].status", Matchers.is("POSTED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].transactionId", Matchers.notNullValue()));
+
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payerAccountId).getAmount().compareTo(BigDecimal.ZERO));
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payeeAccountId).getAmount().compareTo(new BigDecimal("600")));
+        Assertions.assertEquals(2, transactionRepository.findByAccountId(payerAccountId).size());
+        Assertions.assertEquals(2, transactionRepository.findByAccountId(payeeAccountId).size());
+    }
+
+    @Test
+    public void testBatchWithFailingItemPostsNothing() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + transfer(payerAccountId, "400") + "," + transfer(payerAccountId, "200") + "]")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posted", Matchers.is(false)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].status", Matchers.is("NOT_POSTED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].status", Matchers.is("REJECTED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].message",
+                        Matchers.is("Insufficient balance for the transaction")));
+
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payerAccountId).getAmount().compareTo(new BigDecimal("500")));
+        Assertions.assertTrue(transactionRepository.findByAccountId(payerAccountId).isEmpty());
+    }
+
+    @Test
+    public void testEmptyBatchIsRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionCursor;
+import com.example.bank_app.Transaction.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransactionHistoryApiTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 7, 1, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Long testAccountId;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        Account savedAccount = testData.createAccount(testData.createUser("historyuser", "password"), "5555500000");
+        testAccountId = savedAccount.getId();
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setAccount(savedAccount);
+            // two postings share each timestamp so the id tie-breaker is exercised
+            transaction.setDate(START.plusDays(i / 2));
+            transaction.setAmount(BigDecimal.valueOf(100L * (i + 1)));
+            transaction.setIndicator(i % 2 == 0 ? "DB" : "CR");
+            transaction.setDescription("Posting " + i);
+            transaction.setReceiverAccountNumber("0000000000");
+            transactions.add(transaction);
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    @Test
+    public void testWalkAllPagesWithCursor() throws Exception {
+        List<String> descriptions = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/api/v2/accounts/" + testAccountId + "/transactions")
+                    .param("limit", "3");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request
+                            .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                    .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("content").forEach(node -> descriptions.add(node.get("description").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(List.of("Posting 6", "Posting 5", "Posting 4", "Posting 3", "Posting 2", "Posting 1", "Posting 0"),
+                descriptions);
+    }
+
+    @Test
+    public void testServerSideFilters() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + testAccountId + "/transactions")
+                        .param("from", START.plusDays(1).toString())
+                        .param("to", START.plusDays(3).toString())
+                        .param("minAmount", "300")
+                        .param("indicator", "DB")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content", Matchers.hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].description", Matchers.is("Posting 4")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].description", Matchers.is("Posting 2")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", Matchers.nullValue()));
+    }
+
+    @Test
+    public void testExportNdjsonStreamsAllRowsInChronologicalOrder() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + testAccountId + "/transactions/export")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        Assertions.assertEquals(7, lines.length);
+        Assertions.assertEquals("Posting 0", objectMapper.readTree(lines[0]).get("description").asText());
+        Assertions.assertEquals(testAccountId.longValue(), objectMapper.readTree(lines[6]).get("accountId").asLong());
+        List<String> fields = new ArrayList<>();
+        objectMapper.readTree(lines[0]).fieldNames().forEachRemaining(fields::add);
+        Assertions.assertEquals(List.of("id", "date", "description", "amount", "indicator", "receiverAccountNumber",
+                "accountId", "balanceAfter"), fields);
+    }
+
+    @Test
+    public void testExportCsvAppliesFilters() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + testAccountId + "/transactions/export")
+                        .param("format", "csv")
+                        .param("indicator", "CR")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        Assertions.assertEquals(4, lines.length);
+        Assertions.assertEquals("id,date,description,amount,indicator,receiverAccountNumber,accountId,balanceAfter",
+                lines[0]);
+        Assertions.assertTrue(lines[1].contains(",Posting 1,200.00,CR,"));
+    }
+
+    @Test
+    public void testInvalidCursorIsRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/accounts/" + testAccountId + "/transactions")
+                        .param("cursor", "not-a-cursor")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testCursorNeedsADate() {
+        TransactionCursor cursor = new TransactionCursor(START, 42L);
+        TransactionCursor decoded = TransactionCursor.decode(cursor.encode());
+        Assertions.assertEquals(START, decoded.getDate());
+        Assertions.assertEquals(42L, decoded.getId());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TransactionCursor(null, 42L));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Idempotency.IdempotencyKeyRepository;
+import com.example.bank_app.Transaction.TransactionRepository;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransactionIdempotencyApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Long payerAccountId;
+    private Long payeeAccountId;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+
+        payerAccountId = testData.createAccount("idempotentpayer", "6666600001", "500.00").getId();
+        payeeAccountId = testData.createAccount("idempotentpayee", "6666600002", "100.00").getId();
+    }
+
+    private MockHttpServletRequestBuilder transfer(String key, String amount) {
+        return MockMvcRequestBuilders.post("/api/v2/transactions")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"account\":{\"id\":" + payerAccountId + "},\"amount\":" + amount
+                        + ",\"indicator\":\"DB\",\"receiverAccountNumber\":\"6666600002\",\"description\":\"Retry\"}")
+                .with(SecurityMockMvcRequestPostProcessors.user("idempotentpayer")
+                        .authorities(new SimpleGrantedAuthority("ACCOUNTHOLDER")));
+    }
+
+    @Test
+    public void testRetryReplaysOriginalResponse() throws Exception {
+        String first = mockMvc.perform(transfer("retry-1", "100"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String second = mockMvc.perform(transfer("retry-1", "100"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payerAccountId).getAmount().compareTo(new BigDecimal("400")));
+        Assertions.assertEquals(1, transactionRepository.findByAccountId(payerAccountId).size());
+        Assertions.assertNotNull(idempotencyKeyRepository.findByUsernameAndIdempotencyKey("idempotentpayer", "retry-1"));
+    }
+
+    @Test
+    public void testKeyReusedForDifferentRequestIsRejected() throws Exception {
+        mockMvc.perform(transfer("retry-2", "100"))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+        mockMvc.perform(transfer("retry-2", "200"))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payerAccountId).getAmount().compareTo(new BigDecimal("400")));
+    }
+
+    @Test
+    public void testBrowserMaySendTheKey() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.options("/api/v2/transactions")
+                        .header(HttpHeaders.ORIGIN, "http://localhost:3000")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization, content-type, idempotency-key"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS,
+                        Matchers.containsStringIgnoringCase("idempotency-key")));
+    }
+
+    @Test
+    public void testRejectedRequestIsNotRemembered() throws Exception {
+        mockMvc.perform(transfer("retry-3", "900"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Assertions.assertNull(idempotencyKeyRepository.findByUsernameAndIdempotencyKey("idempotentpayer", "retry-3"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Transaction.Transaction;
+import com.example.bank_app.Transaction.TransactionRepository;
+import com.example.bank_app.Transaction.TransactionService;
+import com.example.bank_app.exceptionhandling.AccountNotFoundException;
+import com.example.bank_app.exceptionhandling.InsufficientBalanceException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransactionPostingTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Account payer;
+    private Account payee;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        payer = testData.createAccount("postingpayer", "8888800001", "500.00");
+        payee = testData.createAccount("postingpayee", "8888800002", "0.00");
+    }
+
+    private Transaction transfer(String amount, String receiverAccountNumber) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(payer);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setIndicator("DB");
+        transaction.setReceiverAccountNumber(receiverAccountNumber);
+        transaction.setDescription("Transfer");
+        return transaction;
+    }
+
+    @Test
+    public void testConcurrentDebitsNeverOverdraw() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> {
+                try {
+                    transactionService.saveTransaction(transfer("50", "8888800002"));
+                    return true;
+                } catch (InsufficientBalanceException e) {
+                    return false;
+                }
+            });
+        }
+        int posted = 0;
+        for (Future<Boolean> result : executor.invokeAll(tasks)) {
+            posted += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(10, posted);
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payer.getId()).getAmount().compareTo(BigDecimal.ZERO));
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payee.getId()).getAmount().compareTo(new BigDecimal("500")));
+    }
+
+    @Test
+    public void testFailedTransferLeavesBalancesUntouched() {
+        Assertions.assertThrows(AccountNotFoundException.class,
+                () -> transactionService.saveTransaction(transfer("100", "0000000000")));
+        Assertions.assertThrows(InsufficientBalanceException.class,
+                () -> transactionService.saveTransaction(transfer("600", "8888800002")));
+
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payer.getId()).getAmount().compareTo(new BigDecimal("500")));
+        Assertions.assertEquals(0, balanceRepository.findByAccountId(payee.getId()).getAmount().compareTo(BigDecimal.ZERO));
+        Assertions.assertTrue(transactionRepository.findByAccountId(payee.getId()).isEmpty());
+    }
+}
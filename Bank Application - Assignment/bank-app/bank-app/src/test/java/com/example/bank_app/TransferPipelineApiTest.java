@@ -0,0 +1,170 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.Transaction.TransactionService;
+import com.example.bank_app.Transfer.TransferCommand;
+import com.example.bank_app.Transfer.TransferCommandRepository;
+import com.example.bank_app.Transfer.TransferCommandService;
+import com.example.bank_app.Transfer.TransferProperties;
+import com.example.bank_app.Transfer.TransferStatus;
+import com.example.bank_app.Transfer.TransferWorker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@SpringBootTest(properties = {
+        "transactions.async.enabled=true",
+        "transactions.async.workers=2",
+        "transactions.async.poll-interval=PT0.02S",
+        "transactions.async.backoff=PT0.05S",
+        "transactions.async.max-attempts=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransferPipelineApiTest {
+
+    private static final long WAIT_MILLIS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferCommandRepository transferCommandRepository;
+
+    @Autowired
+    private TransferCommandService transferCommandService;
+
+    @Autowired
+    private TransferProperties transferProperties;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Account payer;
+    private Account payee;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        payer = testData.createAccount("asyncpayer", "9999900001", "500.00");
+        payee = testData.createAccount("asyncpayee", "9999900002", "0.00");
+    }
+
+    private String submit(String amount, String description) throws Exception {
+        Map<String, Object> body = Map.of(
+                "account", Map.of("id", payer.getId()),
+                "amount", new BigDecimal(amount),
+                "indicator", "DB",
+                "receiverAccountNumber", payee.getAccountNumber(),
+                "description", description);
+        return mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body))
+                        .with(SecurityMockMvcRequestPostProcessors.user("asyncpayer")
+                                .authorities(new SimpleGrantedAuthority("ACCOUNTHOLDER"))))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getHeader("Location");
+    }
+
+    private TransferCommand awaitFinalStatus(String location) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            String body = mockMvc.perform(MockMvcRequestBuilders.get(location)
+                            .with(SecurityMockMvcRequestPostProcessors.user("asyncpayer")
+                                    .authorities(new SimpleGrantedAuthority("ACCOUNTHOLDER"))))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            TransferCommand command = objectMapper.readValue(body, TransferCommand.class);
+            if (command.getStatus() != TransferStatus.PENDING && command.getStatus() != TransferStatus.PROCESSING) {
+                return command;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Transfer did not finish in time: " + location);
+    }
+
+    @Test
+    public void testAcceptedTransferIsPostedByWorker() throws Exception {
+        String location = submit("200.00", "Async transfer");
+        Assertions.assertNotNull(location);
+
+        TransferCommand command = awaitFinalStatus(location);
+
+        Assertions.assertEquals(TransferStatus.POSTED, command.getStatus());
+        Assertions.assertNotNull(command.getTransactionId());
+        Assertions.assertEquals(0, new BigDecimal("300.00").compareTo(
+                balanceRepository.findByAccountId(payer.getId()).getAmount()));
+        Assertions.assertEquals(0, new BigDecimal("200.00").compareTo(
+                balanceRepository.findByAccountId(payee.getId()).getAmount()));
+    }
+
+    @Test
+    public void testInsufficientBalanceIsRejectedWithoutRetry() throws Exception {
+        TransferCommand command = awaitFinalStatus(submit("900.00", "Too large"));
+
+        Assertions.assertEquals(TransferStatus.REJECTED, command.getStatus());
+        Assertions.assertEquals(1, command.getAttempts());
+        Assertions.assertEquals("Insufficient balance for the transaction", command.getLastError());
+    }
+
+    @Test
+    public void testTransientFailureIsRetriedThenDeadLettered() throws Exception {
+        Mockito.doThrow(new IllegalStateException("Ledger write timed out"))
+                .when(transactionService)
+                .saveTransaction(ArgumentMatchers.argThat(t -> t != null && "Flaky".equals(t.getDescription())));
+
+        TransferCommand command = awaitFinalStatus(submit("50.00", "Flaky"));
+
+        Assertions.assertEquals(TransferStatus.DEAD_LETTER, command.getStatus());
+        Assertions.assertEquals(2, command.getAttempts());
+        Assertions.assertEquals(0, new BigDecimal("500.00").compareTo(
+                balanceRepository.findByAccountId(payer.getId()).getAmount()));
+    }
+
+    @Test
+    public void testInvalidAmountIsRejectedAtIntake() throws Exception {
+        Map<String, Object> body = Map.of("account", Map.of("id", payer.getId()), "amount", BigDecimal.ZERO,
+                "indicator", "DB", "receiverAccountNumber", payee.getAccountNumber(), "description", "Zero");
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body))
+                        .with(SecurityMockMvcRequestPostProcessors.user("asyncpayer")
+                                .authorities(new SimpleGrantedAuthority("ACCOUNTHOLDER"))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Assertions.assertEquals(0, transferCommandRepository.count());
+    }
+
+    @Test
+    public void testWorkerRefusesToRunWithTheLedgerEngine() {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new TransferWorker(transferCommandService, transferProperties, false, true));
+    }
+}
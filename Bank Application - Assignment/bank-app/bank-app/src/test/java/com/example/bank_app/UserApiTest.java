@@ -1,5 +1,6 @@
 package com.example.bank_app;
 
+import com.example.bank_app.User.UserRepository;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
@@ -27,41 +28,51 @@ public class UserApiTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Long testUserId;
+
     @BeforeEach
     public void setup() throws Exception {
+        testData.deleteAll();
         String userJson = "{\"username\":\"testuser\",\"password\":\"password\",\"email\":\"testuser@example.com\",\"address\":\"123 Test St.\"}";
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/users/create-user")
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/users")
                         .contentType(MediaType.APPLICATION_JSON_VALUE)
                         .content(userJson)
                         .with(SecurityMockMvcRequestPostProcessors.csrf())
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andExpect(MockMvcResultMatchers.status().isCreated());
+        testUserId = userRepository.findByUsername("testuser").getId();
     }
 
     @Order(1)
     @Test
     public void testGetAllUsersSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/users/get-all-users")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/users")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON_VALUE))
-                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1)));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content", Matchers.hasSize(1)));
     }
 
     @Order(2)
     @Test
     public void testGetUserByIdSuccess() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/users/1")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/users/" + testUserId)
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON_VALUE))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.id", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", Matchers.is(testUserId.intValue())))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.username", Matchers.is("testuser")))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email", Matchers.is("testuser@example.com")));
     }
@@ -69,7 +80,7 @@ public class UserApiTest {
     @Order(3)
     @Test
     public void testGetUserByIdNotFound() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/users/999")
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v2/users/999")
                         .with(SecurityMockMvcRequestPostProcessors.user("admin")
                                 .authorities(new SimpleGrantedAuthority("ADMIN"))))
                 .andDo(MockMvcResultHandlers.print())
@@ -81,7 +92,7 @@ public class UserApiTest {
     public void testCreateUserSuccess() throws Exception {
         String userJson = "{\"username\":\"newuser\",\"password\":\"password\",\"email\":\"newuser@example.com\",\"address\":\"123 New St.\"}";
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/users/create-user")
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/users")
                         .contentType(MediaType.APPLICATION_JSON_VALUE)
                         .content(userJson)
                         .with(SecurityMockMvcRequestPostProcessors.csrf())
@@ -99,7 +110,7 @@ public class UserApiTest {
     public void testUpdateUserSuccess() throws Exception {
         String updatedUserJson = "{\"username\":\"updateduser\",\"password\":\"newpassword\",\"email\":\"updateduser@example.com\",\"address\":\"456 Updated St.\"}";
 
-        mockMvc.perform(MockMvcRequestBuilders.put("/api/users/1")
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v2/users/" + testUserId)
                         .contentType(MediaType.APPLICATION_JSON_VALUE)
                         .content(updatedUserJson)
                         .with(SecurityMockMvcRequestPostProcessors.csrf())
@@ -117,7 +128,7 @@ public class UserApiTest {
     public void testUpdateUserNotFound() throws Exception {
         String updatedUserJson = "{\"username\":\"updateduser\",\"password\":\"newpassword\",\"email\":\"updateduser@example.com\",\"address\":\"456 Updated St.\"}";
 
-        mockMvc.perform(MockMvcRequestBuilders.put("/api/users/999")
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v2/users/999")
                         .contentType(MediaType.APPLICATION_JSON_VALUE)
                         .content(updatedUserJson)
                         .with(SecurityMockMvcRequestPostProcessors.csrf())
@@ -0,0 +1,216 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Account.Account;
+import com.example.bank_app.Account.AccountDirectory;
+import com.example.bank_app.Account.AccountNumberAllocator;
+import com.example.bank_app.Account.AccountRepository;
+import com.example.bank_app.Balance.Balance;
+import com.example.bank_app.Balance.BalanceRepository;
+import com.example.bank_app.User.User;
+import com.example.bank_app.User.UserJdbcRepository;
+import com.example.bank_app.User.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * The chunk size is set to three so that a small file spans several chunks. The database compares text without regard
+ * to case, like MySQL's default collation.
+ */
+@SpringBootTest(properties = {
+        "users.import.chunk-size=3",
+        "users.import.hashing-threads=2",
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;IGNORECASE=TRUE"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class UserImportApiTest {
+
+    private static final String HEADER = "username,email,password,address\n";
+    private static final String HASH = "$2b$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private AccountDirectory accountDirectory;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @SpyBean
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    public void setUp() {
+        testData.deleteAll();
+        testData.createUser("importexisting", "password");
+    }
+
+    private ResultActions importCsv(String csv) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/api/v2/users/import")
+                .contentType("text/csv")
+                .content(csv)
+                .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                        .authorities(new SimpleGrantedAuthority("ADMIN"))));
+    }
+
+    @Test
+    public void testImportsValidRowsAndReportsTheRest() throws Exception {
+        String csv = HEADER
+                + "importuser1,importuser1@example.com,password1,\"1 Import St., Flat 2\"\n"
+                + "importuser2,importuser2@example.com,password2,2 Import St.\n"
+                + "importuser3,not-an-email,password3,3 Import St.\n"
+                + "\n"
+                + "importuser4,importuser4@example.com,short,4 Import St.\n"
+                + "importuser1,importuser5@example.com,password5,5 Import St.\n"
+                + "importexisting,importuser6@example.com,password6,6 Import St.\n"
+                + "importuser7,importexisting@example.com,password7,7 Import St.\n"
+                + "importuser8,importuser8@example.com,password8\n"
+                + "importuser9,\"importuser9@example.com,password9\n";
+
+        importCsv(csv)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(6))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].message").value("Invalid email format"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].line").value(6))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[2].message")
+                        .value("Username appears earlier in the file"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[3].message").value("Username already in use"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[4].message").value("Email already in use"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[5].line").value(11));
+
+        User user = userRepository.findByUsername("importuser1");
+        Assertions.assertEquals("1 Import St., Flat 2", user.getAddress());
+        Assertions.assertEquals("ACCOUNTHOLDER", user.getRoles());
+        Assertions.assertTrue(passwordEncoder.matches("password1", user.getPassword()));
+        Assertions.assertNull(userRepository.findByUsername("importuser8").getAddress());
+
+        for (String username : new String[] {"importuser1", "importuser2", "importuser8"}) {
+            Account account = accountRepository.findByUserId(userRepository.findByUsername(username).getId());
+            Assertions.assertFalse(AccountNumberAllocator.isMistyped(account.getAccountNumber()));
+            Assertions.assertEquals(account.getId(), accountDirectory.findAccountId(account.getAccountNumber()));
+            Balance balance = balanceRepository.findByAccountId(account.getId());
+            Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(balance.getAmount()));
+        }
+    }
+
+    @Test
+    public void testDuplicatesDifferingInCaseAreRejected() throws Exception {
+        String csv = HEADER
+                + "ImportExisting,importuser1@example.com,password1\n"
+                + "importuser2,IMPORTEXISTING@example.com,password2\n"
+                + "importuser3,Import.User3@example.com,password3\n"
+                + "importuser4,import.user3@EXAMPLE.com,password4\n"
+                + "IMPORTUSER3,importuser5@example.com,password5\n";
+
+        importCsv(csv)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].message").value("Username already in use"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].message").value("Email already in use"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[2].message")
+                        .value("Email appears earlier in the file"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[3].message")
+                        .value("Username appears earlier in the file"));
+
+        Assertions.assertNotNull(userRepository.findByUsername("importuser3"));
+    }
+
+    @Test
+    public void testChunkThatKeepsConflictingIsImportedRowByRow() throws Exception {
+        Mockito.doReturn(Set.of()).when(userJdbcRepository).findExistingUsernames(Mockito.anyCollection());
+
+        String csv = HEADER
+                + "importuser1,importuser1@example.com,password1\n"
+                + "importexisting,importuser2@example.com,password2\n"
+                + "importuser3,importuser3@example.com,password3\n";
+
+        importCsv(csv)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].message")
+                        .value("Username or email already in use"));
+
+        Assertions.assertNotNull(userRepository.findByUsername("importuser1"));
+        Assertions.assertNotNull(userRepository.findByUsername("importuser3"));
+    }
+
+    @Test
+    public void testImportedUserIsVisibleToCachedQueries() throws Exception {
+        User existing = userRepository.findByUsername("importexisting");
+        Assertions.assertNull(accountRepository.findByUserId(existing.getId() + 1));
+
+        importCsv(HEADER + "importuser1,importuser1@example.com," + HASH + ",1 Import St.\n")
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1));
+
+        User user = userRepository.findByUsername("importuser1");
+        Assertions.assertEquals(HASH, user.getPassword());
+        Assertions.assertEquals(existing.getId() + 1, user.getId());
+        Assertions.assertNotNull(accountRepository.findByUserId(user.getId()));
+    }
+
+    @Test
+    public void testBcryptHashesOfEveryVersionAreKeptAndTruncatedOnesReported() throws Exception {
+        String csv = HEADER
+                + "importuser1,importuser1@example.com," + HASH.replace("$2b$", "$2a$") + "\n"
+                + "importuser2,importuser2@example.com," + HASH + "\n"
+                + "importuser3,importuser3@example.com," + HASH.replace("$2b$", "$2y$") + "\n"
+                + "importuser4,importuser4@example.com," + HASH.substring(0, 29) + "\n"
+                + "importuser5,importuser5@example.com,$2a$" + HASH.substring(4, 29) + "!!!" + "\n";
+
+        importCsv(csv)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].message")
+                        .value("Password is not a valid BCrypt hash"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].line").value(6));
+
+        Assertions.assertEquals(HASH.replace("$2b$", "$2y$"),
+                userRepository.findByUsername("importuser3").getPassword());
+        Assertions.assertNull(userRepository.findByUsername("importuser4"));
+    }
+
+    @Test
+    public void testFileWithoutHeaderIsRejected() throws Exception {
+        importCsv("importuser1,importuser1@example.com,password1,1 Import St.\n")
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        importCsv("")
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Assertions.assertNull(userRepository.findByUsername("importuser1"));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bank_app;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.jpa.show-sql=false"
+})
+public class VirtualThreadBenchmarkTest extends ThreadModelBenchmark {
+}
@@ -0,0 +1,104 @@
+package com.example.bank_app;
+
+import com.example.bank_app.Diagnostics.PinnedSite;
+import com.example.bank_app.Diagnostics.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "diagnostics.pinning.threshold=PT0.005S"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class VirtualThreadPinningTest {
+
+    private static final long WAIT_MILLIS = 10_000;
+    private static final long PIN_MILLIS = 50;
+    // JFR timestamps can put a pin a few milliseconds short of the sleep inside it
+    private static final long MIN_REPORTED_MILLIS = PIN_MILLIS / 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Object monitor = new Object();
+
+    private void sleepHoldingMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(PIN_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static <T> Optional<T> await(Supplier<Optional<T>> probe) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<T> found = probe.get();
+            if (found.isPresent()) {
+                return found;
+            }
+            Thread.sleep(50);
+        }
+        return Optional.empty();
+    }
+
+    @Test
+    public void testPinnedVirtualThreadIsReported() throws Exception {
+        Thread.ofVirtual().start(this::sleepHoldingMonitor).join();
+        Thread.ofVirtual().start(this::sleepHoldingMonitor).join();
+
+        Timer timer = await(() -> meterRegistry.find("jvm.threads.virtual.pinned").timers().stream()
+                .filter(t -> t.getId().getTag("site").contains("VirtualThreadPinningTest.sleepHoldingMonitor"))
+                .filter(t -> t.count() >= 1)
+                .findFirst())
+                .orElseThrow(() -> new AssertionError("Pinning was not recorded"));
+        Assertions.assertTrue(timer.max(TimeUnit.MILLISECONDS) >= MIN_REPORTED_MILLIS);
+
+        String siteName = timer.getId().getTag("site");
+        PinnedSite site = await(() -> pinningMonitor.pinnedSites().stream()
+                .filter(s -> s.site().equals(siteName))
+                .findFirst())
+                .orElseThrow(() -> new AssertionError("Pinning site was not listed"));
+        Assertions.assertTrue(site.max().toMillis() >= MIN_REPORTED_MILLIS);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/pinning")
+                        .with(SecurityMockMvcRequestPostProcessors.user("admin")
+                                .authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].site",
+                        Matchers.hasItem(Matchers.containsString("sleepHoldingMonitor"))));
+    }
+
+    @Test
+    public void testPinningSitesAreHiddenFromAccountHolders() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/pinning")
+                        .with(SecurityMockMvcRequestPostProcessors.user("holder")
+                                .authorities(new SimpleGrantedAuthority("ACCOUNTHOLDER"))))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+}
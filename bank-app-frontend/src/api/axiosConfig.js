@@ -1,7 +1,9 @@
 import axios from 'axios';
 
+const baseURL = 'http://localhost:8080/api/v2';
+
 const axiosInstance = axios.create({
-  baseURL: 'http://localhost:8080/api/v2',
+  baseURL,
   headers: {
     'Content-Type': 'application/json',
   },
@@ -15,14 +17,51 @@ axiosInstance.interceptors.request.use((config) => {
   return config;
 });
 
+const logout = () => {
+  localStorage.removeItem('jwtToken');
+  localStorage.removeItem('refreshToken');
+  localStorage.removeItem('userRole');
+  localStorage.removeItem('user');
+  window.location.href = '/';
+};
+
+// refresh tokens rotate on use, so requests failing together share one refresh call
+let refreshing = null;
+
+const refreshAccessToken = () => {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshing = axios
+      .post(`${baseURL}/auth/refresh`, { refreshToken })
+      .then((response) => {
+        localStorage.setItem('jwtToken', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
 axiosInstance.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const request = error.config;
     if (error.response && error.response.status === 401) {
-      localStorage.removeItem('jwtToken');
-      localStorage.removeItem('userRole');
-      localStorage.removeItem('user');
-      window.location.href = '/';
+      if (request && !request.retried && localStorage.getItem('refreshToken')) {
+        request.retried = true;
+        try {
+          const token = await refreshAccessToken();
+          request.headers.Authorization = `Bearer ${token}`;
+          return axiosInstance(request);
+        } catch (refreshError) {
+          logout();
+          return Promise.reject(refreshError);
+        }
+      }
+      logout();
     }
     return Promise.reject(error);
   }
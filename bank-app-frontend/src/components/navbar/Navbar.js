@@ -11,6 +11,7 @@ const Navbar = ({ currentView, setCurrentView }) => {
 
   const handleLogout = () => {
     localStorage.removeItem("jwtToken");
+    localStorage.removeItem("refreshToken");
     localStorage.removeItem("userRole");
     navigate("/");
   };
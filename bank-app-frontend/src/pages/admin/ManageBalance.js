@@ -36,7 +36,7 @@ const ManageBalance = () => {
 
       // Map for username using account data
       const usernameMap = response.data.reduce((acc, account) => {
-        acc[account.id] = account.user.username;
+        acc[account.id] = account.username;
         return acc;
       }, {});
 
@@ -58,7 +58,7 @@ const ManageBalance = () => {
       setFilteredBalances(balances);
     } else {
       const filtered = balances.filter((balance) =>
-        usernameMap[balance.account.id]
+        usernameMap[balance.accountId]
           ?.toLowerCase()
           .includes(e.target.value.toLowerCase())
       );
@@ -138,10 +138,10 @@ const ManageBalance = () => {
                 >
                   <td className="border px-4 py-2 text-center">{index + 1}</td>
                   <td className="border px-4 py-2">
-                    {usernameMap[balance.account.id] || "Unknown"}
+                    {usernameMap[balance.accountId] || "Unknown"}
                   </td>
                   <td className="border px-4 py-2">
-                    {accountNumberMap[balance.account.id] || "Unknown"}
+                    {accountNumberMap[balance.accountId] || "Unknown"}
                   </td>
                   <td className="border px-4 py-2">Rs {balance.amount || 0}</td>
                   <td className="border px-4 py-2 text-center">
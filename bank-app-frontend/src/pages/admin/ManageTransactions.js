@@ -7,6 +7,20 @@ import {
 } from "react-icons/ai";
 import FilterModal from "../../components/filtermodal/FilterModal";
 
+const PAGE_SIZE = 50;
+
+const dayRange = (date) => {
+  const from = new Date(date);
+  from.setHours(0, 0, 0, 0);
+  const to = new Date(from);
+  to.setDate(to.getDate() + 1);
+  const toLocalIso = (d) =>
+    new Date(d.getTime() - d.getTimezoneOffset() * 60000)
+      .toISOString()
+      .slice(0, 19);
+  return { from: toLocalIso(from), to: toLocalIso(to) };
+};
+
 const ManageTransactions = () => {
   const [transactions, setTransactions] = useState([]);
   const [filteredTransactions, setFilteredTransactions] = useState([]);
@@ -17,15 +31,24 @@ const ManageTransactions = () => {
   const [showModal, setShowModal] = useState(false);
   const [filterDate, setFilterDate] = useState(null);
   const [searchTerm, setSearchTerm] = useState("");
+  const [nextCursor, setNextCursor] = useState(null);
 
-  const fetchTransactions = async () => {
+  const fetchTransactions = async (date = null, cursor = null) => {
     try {
-      const response = await axiosInstance.get("/transactions");
-      const sortedTransactions = response.data.sort(
-        (a, b) => new Date(b.date) - new Date(a.date)
-      );
-      setTransactions(sortedTransactions);
-      setFilteredTransactions(sortedTransactions);
+      const params = { limit: PAGE_SIZE };
+      if (date) {
+        Object.assign(params, dayRange(date));
+      }
+      if (cursor) {
+        params.cursor = cursor;
+      }
+      const response = await axiosInstance.get("/transactions", { params });
+      const page = response.data || { content: [], nextCursor: null };
+      const loaded = cursor ? [...transactions, ...page.content] : page.content;
+      setTransactions(loaded);
+      setFilteredTransactions(loaded);
+      setSearchTerm("");
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error("Error fetching transactions:", error);
     }
@@ -54,7 +77,7 @@ const ManageTransactions = () => {
       const accountMap = response.data.reduce((acc, account) => {
         acc[account.id] = {
           accountNumber: account.accountNumber,
-          userId: account.user.id,
+          userId: account.userId,
         };
         return acc;
       }, {});
@@ -72,22 +95,17 @@ const ManageTransactions = () => {
 
   const handleDateChange = (date) => {
     setFilterDate(date);
-    if (date) {
-      const filtered = transactions.filter((transaction) => {
-        const transactionDate = new Date(transaction.date).setHours(0, 0, 0, 0);
-        const selectedDate = date.setHours(0, 0, 0, 0);
-        return transactionDate === selectedDate;
-      });
-      setFilteredTransactions(filtered);
-    } else {
-      setFilteredTransactions(transactions);
-    }
+    fetchTransactions(date);
     setShowModal(false);
   };
 
   const clearFilter = () => {
     setFilterDate(null);
-    setFilteredTransactions(transactions);
+    fetchTransactions();
+  };
+
+  const loadMore = () => {
+    fetchTransactions(filterDate, nextCursor);
   };
 
   const handleSearch = (e) => {
@@ -96,7 +114,7 @@ const ManageTransactions = () => {
       setFilteredTransactions(transactions);
     } else {
       const filtered = transactions.filter((transaction) => {
-        const account = accountMap[transaction.account.id];
+        const account = accountMap[transaction.accountId];
         const username = account ? userMap[account.userId] : "Unknown";
         return username.toLowerCase().includes(e.target.value.toLowerCase());
       });
@@ -169,7 +187,7 @@ const ManageTransactions = () => {
               </tr>
             ) : (
               filteredTransactions.map((transaction, index) => {
-                const account = accountMap[transaction.account.id];
+                const account = accountMap[transaction.accountId];
                 const username = account ? userMap[account.userId] : "Unknown";
                 return (
                   <tr
@@ -207,6 +225,16 @@ const ManageTransactions = () => {
             )}
           </tbody>
         </table>
+        {nextCursor && (
+          <div className="flex justify-center py-4">
+            <button
+              onClick={loadMore}
+              className="bg-gray-800 text-white py-2 px-4 rounded"
+            >
+              Load more
+            </button>
+          </div>
+        )}
       </div>
       <FilterModal
         isOpen={showModal}
@@ -36,12 +36,12 @@ const ManageUsers = () => {
       setAccounts(response.data);
 
       const userAccountIdMap = response.data.reduce((acc, account) => {
-        acc[account.user.id] = account.id;
+        acc[account.userId] = account.id;
         return acc;
       }, {});
 
       const userAccountNumberMap = response.data.reduce((acc, account) => {
-        acc[account.user.id] = account.accountNumber;
+        acc[account.userId] = account.accountNumber;
         return acc;
       }, {});
 
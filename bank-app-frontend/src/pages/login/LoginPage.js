@@ -26,8 +26,9 @@ const LoginPage = () => {
         }
       );
 
-      const { token, user } = response.data;
+      const { token, refreshToken, user } = response.data;
       localStorage.setItem("jwtToken", token);
+      localStorage.setItem("refreshToken", refreshToken);
       localStorage.setItem("userRole", user.roles);
       localStorage.setItem("user", JSON.stringify(user));
 
@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from "react";
 import axiosInstance from "../../api/axiosConfig";
+import { checkAccountNumber } from "../../utils/accountNumber";
 
 const SendTransaction = () => {
   const [receiverAccountNumber, setReceiverAccountNumber] = useState("");
@@ -46,12 +47,7 @@ const SendTransaction = () => {
   const handleReceiverAccountNumberChange = (e) => {
     const value = e.target.value;
     setReceiverAccountNumber(value);
-
-    if (value.length !== 10) {
-      setAccountNumberError("Receiver account number must be exactly 10 digits long.");
-    } else {
-      setAccountNumberError("");
-    }
+    setAccountNumberError(checkAccountNumber(value));
   };
 
   const handleAmountChange = (e) => {
@@ -70,8 +66,9 @@ const SendTransaction = () => {
   const handleSubmit = async (event) => {
     event.preventDefault();
 
-    if (receiverAccountNumber.length !== 10) {
-      setAccountNumberError("Receiver account number must be exactly 10 digits long.");
+    const receiverError = checkAccountNumber(receiverAccountNumber);
+    if (receiverError) {
+      setAccountNumberError(receiverError);
       return;
     }
 
@@ -0,0 +1,65 @@
+import "@testing-library/jest-dom";
+import { render, screen, waitFor } from "@testing-library/react";
+import userEvent from "@testing-library/user-event";
+import axiosInstance from "../../api/axiosConfig";
+import SendTransaction from "./SendTransaction";
+
+jest.mock("../../api/axiosConfig", () => ({
+  __esModule: true,
+  default: { get: jest.fn(), post: jest.fn() },
+}));
+
+const fillAndSend = async (receiverAccountNumber) => {
+  render(<SendTransaction />);
+  await screen.findByText(/500\.00/);
+  userEvent.type(screen.getByLabelText("Receiver Account Number"), receiverAccountNumber);
+  userEvent.type(screen.getByLabelText("Description"), "Rent");
+  userEvent.type(screen.getByLabelText("Amount"), "10");
+  userEvent.click(screen.getByText("Send Transaction", { selector: "button" }));
+};
+
+beforeEach(() => {
+  localStorage.setItem("user", JSON.stringify({ id: 1 }));
+  axiosInstance.get.mockImplementation((url) =>
+    Promise.resolve(
+      url === "/users/1/accounts"
+        ? { data: { id: 5, accountNumber: "1234567890" } }
+        : { data: { amount: 500 } }
+    )
+  );
+  axiosInstance.post.mockResolvedValue({ data: { id: 99 } });
+});
+
+afterEach(() => {
+  jest.clearAllMocks();
+  localStorage.clear();
+});
+
+test("sends to an 11-digit account number with a valid check digit", async () => {
+  await fillAndSend("12345678903");
+
+  await screen.findByText("Transaction successful!");
+  expect(axiosInstance.post).toHaveBeenCalledWith(
+    "/transactions",
+    expect.objectContaining({ receiverAccountNumber: "12345678903" })
+  );
+});
+
+test("rejects an 11-digit account number with a wrong check digit", async () => {
+  await fillAndSend("12345678904");
+
+  expect(
+    screen.getByText("Receiver account number is not valid. Please check it for typos.")
+  ).toBeInTheDocument();
+  await waitFor(() => expect(axiosInstance.post).not.toHaveBeenCalled());
+});
+
+test("still sends to a 10-digit account number", async () => {
+  await fillAndSend("1234567890");
+
+  await screen.findByText("Transaction successful!");
+  expect(axiosInstance.post).toHaveBeenCalledWith(
+    "/transactions",
+    expect.objectContaining({ receiverAccountNumber: "1234567890" })
+  );
+});
@@ -3,6 +3,20 @@ import axiosInstance from "../../api/axiosConfig";
 import { AiOutlineArrowUp, AiOutlineArrowDown } from "react-icons/ai";
 import FilterModal from "../../components/filtermodal/FilterModal";
 
+const PAGE_SIZE = 50;
+
+const dayRange = (date) => {
+  const from = new Date(date);
+  from.setHours(0, 0, 0, 0);
+  const to = new Date(from);
+  to.setDate(to.getDate() + 1);
+  const toLocalIso = (d) =>
+    new Date(d.getTime() - d.getTimezoneOffset() * 60000)
+      .toISOString()
+      .slice(0, 19);
+  return { from: toLocalIso(from), to: toLocalIso(to) };
+};
+
 const ViewTransactionHistory = () => {
   const [transactions, setTransactions] = useState([]);
   const [filteredTransactions, setFilteredTransactions] = useState([]);
@@ -10,12 +24,32 @@ const ViewTransactionHistory = () => {
   const [loading, setLoading] = useState(true);
   const [showModal, setShowModal] = useState(false);
   const [filterDate, setFilterDate] = useState("");
+  const [accountId, setAccountId] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
 
   const getUserId = () => {
     const user = JSON.parse(localStorage.getItem("user"));
     return user ? user.id : null;
   };
 
+  const fetchPage = async (id, date = null, cursor = null, loaded = []) => {
+    const params = { limit: PAGE_SIZE };
+    if (date) {
+      Object.assign(params, dayRange(date));
+    }
+    if (cursor) {
+      params.cursor = cursor;
+    }
+    const response = await axiosInstance.get(`/accounts/${id}/transactions`, {
+      params,
+    });
+    const page = response.data || { content: [], nextCursor: null };
+    const all = [...loaded, ...page.content];
+    setTransactions(all);
+    setFilteredTransactions(all);
+    setNextCursor(page.nextCursor);
+  };
+
   useEffect(() => {
     const fetchTransactions = async () => {
       try {
@@ -35,18 +69,8 @@ const ViewTransactionHistory = () => {
           return;
         }
 
-        const accountId = accountResponse.data.id;
-
-        const transactionsResponse = await axiosInstance.get(
-          `/accounts/${accountId}/transactions`
-        );
-
-        const sortedTransactions = transactionsResponse.data.sort(
-          (a, b) => new Date(b.date) - new Date(a.date)
-        );
-
-        setTransactions(sortedTransactions);
-        setFilteredTransactions(sortedTransactions);
+        setAccountId(accountResponse.data.id);
+        await fetchPage(accountResponse.data.id);
         setLoading(false);
       } catch (err) {
         setError("Error fetching transactions.");
@@ -60,19 +84,22 @@ const ViewTransactionHistory = () => {
   const handleDateChange = (date) => {
     setFilterDate(date);
     if (date) {
-      const filtered = transactions.filter((transaction) => {
-        const transactionDate = new Date(transaction.date).setHours(0, 0, 0, 0);
-        const selectedDate = date.setHours(0, 0, 0, 0);
-        return transactionDate === selectedDate;
-      });
-      setFilteredTransactions(filtered);
+      fetchPage(accountId, date).catch(() =>
+        setError("Error fetching transactions.")
+      );
     }
     setShowModal(false);
   };
 
   const clearFilter = () => {
     setFilterDate(null);
-    setFilteredTransactions(transactions);
+    fetchPage(accountId).catch(() => setError("Error fetching transactions."));
+  };
+
+  const loadMore = () => {
+    fetchPage(accountId, filterDate, nextCursor, transactions).catch(() =>
+      setError("Error fetching transactions.")
+    );
   };
 
   if (loading) {
@@ -168,6 +195,16 @@ const ViewTransactionHistory = () => {
             )}
           </tbody>
         </table>
+        {nextCursor && (
+          <div className="flex justify-center py-4">
+            <button
+              onClick={loadMore}
+              className="bg-gray-800 text-white py-2 px-4 rounded"
+            >
+              Load more
+            </button>
+          </div>
+        )}
       </div>
       <FilterModal
         isOpen={showModal}
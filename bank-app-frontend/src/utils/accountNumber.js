@@ -0,0 +1,30 @@
+// Accounts opened before check digits have 10-character numbers. Newer ones have 11 digits: a 10-digit serial
+// followed by a Luhn check digit, the same rule as AccountNumberAllocator.isMistyped on the server.
+const LEGACY_LENGTH = 10;
+const CHECKED_LENGTH = 11;
+
+const passesLuhn = (digits) => {
+  let sum = 0;
+  for (let i = 0; i < digits.length; i++) {
+    let digit = Number(digits[digits.length - 1 - i]);
+    if (i % 2 === 1) {
+      digit *= 2;
+      if (digit > 9) digit -= 9;
+    }
+    sum += digit;
+  }
+  return sum % 10 === 0;
+};
+
+// Returns an error message for the receiver account number, or "" when it can be sent.
+export const checkAccountNumber = (value) => {
+  if (value.length === LEGACY_LENGTH) {
+    return "";
+  }
+  if (value.length === CHECKED_LENGTH && /^[0-9]+$/.test(value)) {
+    return passesLuhn(value)
+      ? ""
+      : "Receiver account number is not valid. Please check it for typos.";
+  }
+  return "Receiver account number must be 10 digits long, or 11 for newer accounts.";
+};